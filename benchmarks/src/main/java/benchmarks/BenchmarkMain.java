@@ -0,0 +1,30 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line and, unless a result
+ * format is given, writes machine-readable results to jmh-result.json so they can be
+ * compared across versions.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.add("-rff");
+            arguments.add("jmh-result.json");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a search / write mix: ConcurrentGraphParser snapshots against one global lock around GraphParser
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"POWER_LAW"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"10000"})
+    public int size;
+
+    // One operation in writeEvery is a write, the rest are searches
+    @Param({"10", "1000"})
+    public int writeEvery;
+
+    private Object concurrent;
+    private Object locked;
+    private Object bfs;
+    private Object[] nodes;
+    private int[] pairs;
+
+    @Setup(Level.Trial)
+    public void loadGraph() {
+        GraphGenerators.EdgeList edges = GraphGenerators.generate(shape, size);
+        nodes = GraphGenerators.nodes(edges);
+        locked = GraphGenerators.load(edges, nodes);
+        GraphApi.setCompactBackend(locked, true);
+        concurrent = GraphApi.newConcurrentParser();
+        for (Object node : nodes) {
+            GraphApi.concurrentAddNode(concurrent, node);
+        }
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            GraphApi.concurrentAddEdge(concurrent, nodes[edges.sources[e]], nodes[edges.targets[e]]);
+        }
+        GraphApi.concurrentLatestSnapshot(concurrent);
+        bfs = GraphApi.algorithm("BFS");
+        SplittableRandom random = new SplittableRandom(7);
+        pairs = new int[2 * PAIRS];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = random.nextInt(nodes.length);
+        }
+    }
+
+    // Each thread toggles its own extra edge into a distinct target, so the graph size stays constant
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+        Object addedSource;   // source of the extra edge while it is in the graph
+        Object extraTarget;
+
+        @Setup(Level.Trial)
+        public void create(ConcurrentBenchmark benchmark) {
+            extraTarget = benchmark.nodes[(int) (Thread.currentThread().threadId() % benchmark.nodes.length)];
+        }
+    }
+
+    @Benchmark
+    public Object snapshotMixed(Cursor cursor) {
+        int i = 2 * (cursor.next++ & (PAIRS - 1));
+        if (cursor.next % writeEvery != 0) {
+            return GraphApi.concurrentGraphSearch(concurrent, nodes[pairs[i]], nodes[pairs[i + 1]], bfs);
+        }
+        if (cursor.addedSource != null) {
+            GraphApi.concurrentRemoveEdge(concurrent, cursor.addedSource, cursor.extraTarget);
+            cursor.addedSource = null;
+        } else {
+            GraphApi.concurrentAddEdge(concurrent, nodes[pairs[i]], cursor.extraTarget);
+            cursor.addedSource = nodes[pairs[i]];
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object globalLockMixed(Cursor cursor) {
+        int i = 2 * (cursor.next++ & (PAIRS - 1));
+        synchronized (locked) {
+            if (cursor.next % writeEvery != 0) {
+                return GraphApi.graphSearch(locked, nodes[pairs[i]], nodes[pairs[i + 1]], bfs);
+            }
+            if (cursor.addedSource != null) {
+                GraphApi.removeEdge(locked, cursor.addedSource, cursor.extraTarget);
+                cursor.addedSource = null;
+            } else {
+                GraphApi.addEdge(locked, nodes[pairs[i]], cursor.extraTarget);
+                cursor.addedSource = nodes[pairs[i]];
+            }
+        }
+        return null;
+    }
+}
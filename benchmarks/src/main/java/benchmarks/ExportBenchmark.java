@@ -0,0 +1,76 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Time to write a loaded graph as DOT text and as a rendered PNG
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+public class ExportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class DotInput {
+        @Param({"CHAIN", "GRID", "POWER_LAW", "DENSE_DAG"})
+        public GraphGenerators.Shape shape;
+
+        @Param({"1000", "100000"})
+        public int size;
+
+        Object parser;
+        Path output;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            GraphGenerators.EdgeList edges = GraphGenerators.generate(shape, size);
+            parser = GraphGenerators.load(edges, GraphGenerators.nodes(edges));
+            output = Files.createTempFile("export-" + shape + "-" + size, ".dot");
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    // Layout cost grows quickly, so PNG export uses much smaller graphs
+    @State(Scope.Benchmark)
+    public static class PngInput {
+        @Param({"CHAIN", "GRID", "POWER_LAW", "DENSE_DAG"})
+        public GraphGenerators.Shape pngShape;
+
+        @Param({"100", "500"})
+        public int pngSize;
+
+        Object parser;
+        Path output;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            GraphGenerators.EdgeList edges = GraphGenerators.generate(pngShape, pngSize);
+            parser = GraphGenerators.load(edges, GraphGenerators.nodes(edges));
+            output = Files.createTempFile("export-" + pngShape + "-" + pngSize, ".png");
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Benchmark
+    public void outputDOTGraph(DotInput input) {
+        GraphApi.outputDOTGraph(input.parser, input.output.toString());
+    }
+
+    @Benchmark
+    public void outputGraphicsPng(PngInput input) {
+        GraphApi.outputGraphics(input.parser, input.output.toString(), "png");
+    }
+}
@@ -0,0 +1,229 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Bridge to the library classes, which live in the default package and so cannot be
+ * imported from here (JMH refuses benchmarks in the default package). The handles are
+ * static finals, so the JIT inlines them like direct calls.
+ */
+final class GraphApi {
+    private static final MethodHandle NEW_PARSER;
+    private static final MethodHandle NEW_NODE;
+    private static final MethodHandle PARSE_GRAPH;
+    private static final MethodHandle PARSE_GRAPH_PARALLEL;
+    private static final MethodHandle SET_COMPACT_BACKEND;
+    private static final MethodHandle ADD_NODE;
+    private static final MethodHandle ADD_EDGE;
+    private static final MethodHandle REMOVE_NODE;
+    private static final MethodHandle GRAPH_SEARCH;
+    private static final MethodHandle OUTPUT_DOT;
+    private static final MethodHandle OUTPUT_GRAPHICS;
+    private static final MethodHandle NEW_COMPACT_GRAPH;
+    private static final MethodHandle NEW_PARALLEL_BFS;
+    private static final MethodHandle TRAVERSE;
+    private static final MethodHandle REMOVE_EDGE;
+    private static final MethodHandle NEW_CONCURRENT;
+    private static final MethodHandle CONCURRENT_ADD_EDGE;
+    private static final MethodHandle CONCURRENT_REMOVE_EDGE;
+    private static final MethodHandle CONCURRENT_ADD_NODE;
+    private static final MethodHandle CONCURRENT_GRAPH_SEARCH;
+    private static final MethodHandle CONCURRENT_LATEST_SNAPSHOT;
+    private static final MethodHandle NEW_EDGE;
+    private static final MethodHandle ADD_EDGES;
+    private static final MethodHandle REMOVE_NODES;
+    private static final MethodHandle RANDOM_WALK_ENGINE;
+    private static final MethodHandle RUN_WALKS;
+    private static final Class<?> ALGORITHM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ClassLoader loader = GraphApi.class.getClassLoader();
+            Class<?> parser = Class.forName("GraphParser", true, loader);
+            Class<?> node = Class.forName("Node", true, loader);
+            Class<?> path = Class.forName("Path", true, loader);
+            Class<?> compactGraph = Class.forName("CsrGraph", true, loader);
+            Class<?> parallelBfs = Class.forName("ParallelBFS", true, loader);
+            Class<?> template = Class.forName("GraphTraversalTemplate", true, loader);
+            Class<?> concurrent = Class.forName("ConcurrentGraphParser", true, loader);
+            Class<?> edge = Class.forName("GraphDelta$Edge", true, loader);
+            Class<?> delta = Class.forName("GraphDelta", true, loader);
+            Class<?> walkEngine = Class.forName("RandomWalkEngine", true, loader);
+            Class<?> walkStatistics = Class.forName("RandomWalkEngine$Statistics", true, loader);
+            ALGORITHM = Class.forName("GraphParser$Algorithm", true, loader);
+
+            NEW_PARSER = lookup.findConstructor(parser, MethodType.methodType(void.class));
+            NEW_NODE = lookup.findConstructor(node, MethodType.methodType(void.class, String.class));
+            PARSE_GRAPH = lookup.findVirtual(parser, "parseGraph", MethodType.methodType(void.class, String.class));
+            PARSE_GRAPH_PARALLEL = lookup.findVirtual(parser, "parseGraphParallel",
+                    MethodType.methodType(void.class, String.class, int.class));
+            SET_COMPACT_BACKEND = lookup.findVirtual(parser, "setCompactBackend", MethodType.methodType(void.class, boolean.class));
+            ADD_NODE = lookup.findVirtual(parser, "addNode", MethodType.methodType(void.class, node));
+            ADD_EDGE = lookup.findVirtual(parser, "addEdge", MethodType.methodType(void.class, node, node));
+            REMOVE_NODE = lookup.findVirtual(parser, "removeNode", MethodType.methodType(void.class, node));
+            GRAPH_SEARCH = lookup.findVirtual(parser, "graphSearch", MethodType.methodType(path, node, node, ALGORITHM));
+            OUTPUT_DOT = lookup.findVirtual(parser, "outputDOTGraph", MethodType.methodType(void.class, String.class));
+            OUTPUT_GRAPHICS = lookup.findVirtual(parser, "outputGraphics",
+                    MethodType.methodType(void.class, String.class, String.class));
+            NEW_COMPACT_GRAPH = lookup.findVirtual(parser, "getCompactGraph", MethodType.methodType(compactGraph));
+            NEW_PARALLEL_BFS = lookup.findConstructor(parallelBfs,
+                    MethodType.methodType(void.class, compactGraph, java.util.concurrent.ForkJoinPool.class));
+            TRAVERSE = lookup.findVirtual(template, "traverse", MethodType.methodType(path, node, node));
+            REMOVE_EDGE = lookup.findVirtual(parser, "removeEdge", MethodType.methodType(void.class, node, node));
+            NEW_CONCURRENT = lookup.findConstructor(concurrent, MethodType.methodType(void.class));
+            CONCURRENT_ADD_NODE = lookup.findVirtual(concurrent, "addNode", MethodType.methodType(void.class, node));
+            CONCURRENT_ADD_EDGE = lookup.findVirtual(concurrent, "addEdge", MethodType.methodType(void.class, node, node));
+            CONCURRENT_REMOVE_EDGE = lookup.findVirtual(concurrent, "removeEdge", MethodType.methodType(void.class, node, node));
+            CONCURRENT_GRAPH_SEARCH = lookup.findVirtual(concurrent, "graphSearch", MethodType.methodType(path, node, node, ALGORITHM));
+            CONCURRENT_LATEST_SNAPSHOT = lookup.findVirtual(concurrent, "latestSnapshot", MethodType.methodType(parser));
+            NEW_EDGE = lookup.findConstructor(edge, MethodType.methodType(void.class, node, node));
+            ADD_EDGES = lookup.findVirtual(parser, "addEdges", MethodType.methodType(delta, java.util.Collection.class));
+            REMOVE_NODES = lookup.findVirtual(parser, "removeNodes", MethodType.methodType(delta, java.util.Collection.class));
+            RANDOM_WALK_ENGINE = lookup.findVirtual(parser, "getRandomWalkEngine", MethodType.methodType(walkEngine, boolean.class));
+            RUN_WALKS = lookup.findVirtual(walkEngine, "run",
+                    MethodType.methodType(walkStatistics, node, node, long.class, int.class, long.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private GraphApi() {
+    }
+
+    static Object newParser() {
+        return call(() -> NEW_PARSER.invoke());
+    }
+
+    static Object node(String label) {
+        return call(() -> NEW_NODE.invoke(label));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object algorithm(String name) {
+        return Enum.valueOf((Class) ALGORITHM, name);
+    }
+
+    static void parseGraph(Object parser, String filePath) {
+        run(() -> PARSE_GRAPH.invoke(parser, filePath));
+    }
+
+    static void parseGraphParallel(Object parser, String filePath, int parallelism) {
+        run(() -> PARSE_GRAPH_PARALLEL.invoke(parser, filePath, parallelism));
+    }
+
+    static void setCompactBackend(Object parser, boolean enabled) {
+        run(() -> SET_COMPACT_BACKEND.invoke(parser, enabled));
+    }
+
+    static void addNode(Object parser, Object node) {
+        run(() -> ADD_NODE.invoke(parser, node));
+    }
+
+    static void addEdge(Object parser, Object source, Object target) {
+        run(() -> ADD_EDGE.invoke(parser, source, target));
+    }
+
+    static void removeNode(Object parser, Object node) {
+        run(() -> REMOVE_NODE.invoke(parser, node));
+    }
+
+    static Object graphSearch(Object parser, Object source, Object destination, Object algorithm) {
+        return call(() -> GRAPH_SEARCH.invoke(parser, source, destination, algorithm));
+    }
+
+    static void outputDOTGraph(Object parser, String filePath) {
+        run(() -> OUTPUT_DOT.invoke(parser, filePath));
+    }
+
+    static void outputGraphics(Object parser, String filePath, String format) {
+        run(() -> OUTPUT_GRAPHICS.invoke(parser, filePath, format));
+    }
+
+    static Object compactGraph(Object parser) {
+        return call(() -> NEW_COMPACT_GRAPH.invoke(parser));
+    }
+
+    static Object parallelBfs(Object compactGraph, java.util.concurrent.ForkJoinPool pool) {
+        return call(() -> NEW_PARALLEL_BFS.invoke(compactGraph, pool));
+    }
+
+    static Object traverse(Object traversal, Object source, Object destination) {
+        return call(() -> TRAVERSE.invoke(traversal, source, destination));
+    }
+
+    static void removeEdge(Object parser, Object source, Object target) {
+        run(() -> REMOVE_EDGE.invoke(parser, source, target));
+    }
+
+    static Object newConcurrentParser() {
+        return call(() -> NEW_CONCURRENT.invoke());
+    }
+
+    static void concurrentAddNode(Object parser, Object node) {
+        run(() -> CONCURRENT_ADD_NODE.invoke(parser, node));
+    }
+
+    static void concurrentAddEdge(Object parser, Object source, Object target) {
+        run(() -> CONCURRENT_ADD_EDGE.invoke(parser, source, target));
+    }
+
+    static void concurrentRemoveEdge(Object parser, Object source, Object target) {
+        run(() -> CONCURRENT_REMOVE_EDGE.invoke(parser, source, target));
+    }
+
+    static Object concurrentGraphSearch(Object parser, Object source, Object destination, Object algorithm) {
+        return call(() -> CONCURRENT_GRAPH_SEARCH.invoke(parser, source, destination, algorithm));
+    }
+
+    static Object concurrentLatestSnapshot(Object parser) {
+        return call(() -> CONCURRENT_LATEST_SNAPSHOT.invoke(parser));
+    }
+
+    static Object edge(Object source, Object target) {
+        return call(() -> NEW_EDGE.invoke(source, target));
+    }
+
+    static Object addEdges(Object parser, java.util.Collection<?> edges) {
+        return call(() -> ADD_EDGES.invoke(parser, edges));
+    }
+
+    static Object removeNodes(Object parser, java.util.Collection<?> nodes) {
+        return call(() -> REMOVE_NODES.invoke(parser, nodes));
+    }
+
+    static Object randomWalkEngine(Object parser, boolean selfAvoiding) {
+        return call(() -> RANDOM_WALK_ENGINE.invoke(parser, selfAvoiding));
+    }
+
+    static Object runWalks(Object engine, Object source, Object destination, long walks, int maxSteps, long seed) {
+        return call(() -> RUN_WALKS.invoke(engine, source, destination, walks, maxSteps, seed));
+    }
+
+    private interface Call {
+        Object invoke() throws Throwable;
+    }
+
+    private interface Run {
+        void invoke() throws Throwable;
+    }
+
+    private static Object call(Call call) {
+        try {
+            return call.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void run(Run run) {
+        call(() -> {
+            run.invoke();
+            return null;
+        });
+    }
+}
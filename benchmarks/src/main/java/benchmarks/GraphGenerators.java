@@ -0,0 +1,161 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graphs for the benchmarks. Vertices are labelled n0..n(size-1) and
+ * every shape is reproducible from its seed, so runs across versions see the same input.
+ */
+public final class GraphGenerators {
+    private static final long SEED = 464;
+    private static final int POWER_LAW_EDGES_PER_VERTEX = 4;
+    private static final int DAG_EDGES_PER_VERTEX = 16;
+
+    public enum Shape {
+        CHAIN, GRID, POWER_LAW, DENSE_DAG
+    }
+
+    // Edge list as parallel source/target arrays
+    static final class EdgeList {
+        final int vertexCount;
+        final int[] sources;
+        final int[] targets;
+
+        EdgeList(int vertexCount, int[] sources, int[] targets) {
+            this.vertexCount = vertexCount;
+            this.sources = sources;
+            this.targets = targets;
+        }
+
+        int edgeCount() {
+            return sources.length;
+        }
+    }
+
+    private GraphGenerators() {
+    }
+
+    static EdgeList generate(Shape shape, int size) {
+        return switch (shape) {
+            case CHAIN -> chain(size);
+            case GRID -> grid(size);
+            case POWER_LAW -> powerLaw(size);
+            case DENSE_DAG -> denseDag(size);
+        };
+    }
+
+    // n0 -> n1 -> ... -> n(size-1)
+    static EdgeList chain(int size) {
+        int[] sources = new int[size - 1];
+        int[] targets = new int[size - 1];
+        for (int i = 0; i < size - 1; i++) {
+            sources[i] = i;
+            targets[i] = i + 1;
+        }
+        return new EdgeList(size, sources, targets);
+    }
+
+    // Square grid with right and down edges; size is rounded down to a square
+    static EdgeList grid(int size) {
+        int side = Math.max(2, (int) Math.sqrt(size));
+        int edges = 2 * side * (side - 1);
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        int e = 0;
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int vertex = row * side + column;
+                if (column + 1 < side) {
+                    sources[e] = vertex;
+                    targets[e++] = vertex + 1;
+                }
+                if (row + 1 < side) {
+                    sources[e] = vertex;
+                    targets[e++] = vertex + side;
+                }
+            }
+        }
+        return new EdgeList(side * side, sources, targets);
+    }
+
+    // Barabasi-Albert preferential attachment; edge directions are randomized so hubs have in- and out-edges
+    static EdgeList powerLaw(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int m = POWER_LAW_EDGES_PER_VERTEX;
+        int[] sources = new int[(size - 1) * m];
+        int[] targets = new int[(size - 1) * m];
+        int[] endpoints = new int[2 * sources.length];
+        int endpointCount = 0;
+        int e = 0;
+        for (int vertex = 1; vertex < size; vertex++) {
+            for (int k = 0; k < m; k++) {
+                int other = endpointCount == 0 ? 0 : endpoints[random.nextInt(endpointCount)];
+                if (random.nextBoolean()) {
+                    sources[e] = vertex;
+                    targets[e++] = other;
+                } else {
+                    sources[e] = other;
+                    targets[e++] = vertex;
+                }
+                endpoints[endpointCount++] = vertex;
+                endpoints[endpointCount++] = other;
+            }
+        }
+        return new EdgeList(size, sources, targets);
+    }
+
+    // Each vertex links forward to up to DAG_EDGES_PER_VERTEX later vertices
+    static EdgeList denseDag(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] sources = new int[size * DAG_EDGES_PER_VERTEX];
+        int[] targets = new int[size * DAG_EDGES_PER_VERTEX];
+        int e = 0;
+        for (int vertex = 0; vertex < size - 1; vertex++) {
+            int degree = Math.min(DAG_EDGES_PER_VERTEX, size - 1 - vertex);
+            for (int k = 0; k < degree; k++) {
+                sources[e] = vertex;
+                targets[e++] = random.nextInt(vertex + 1, size);
+            }
+        }
+        return new EdgeList(size, Arrays.copyOf(sources, e), Arrays.copyOf(targets, e));
+    }
+
+    static void writeDot(EdgeList edges, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("digraph G {\n");
+            for (int v = 0; v < edges.vertexCount; v++) {
+                writer.write("\tn" + v + ";\n");
+            }
+            for (int e = 0; e < edges.edgeCount(); e++) {
+                writer.write("\tn" + edges.sources[e] + " -> n" + edges.targets[e] + ";\n");
+            }
+            writer.write("}\n");
+        }
+    }
+
+    // Node objects for n0..n(vertexCount-1)
+    static Object[] nodes(EdgeList edges) {
+        Object[] nodes = new Object[edges.vertexCount];
+        for (int v = 0; v < nodes.length; v++) {
+            nodes[v] = GraphApi.node("n" + v);
+        }
+        return nodes;
+    }
+
+    static Object load(EdgeList edges, Object[] nodes) {
+        Object parser = GraphApi.newParser();
+        for (Object node : nodes) {
+            GraphApi.addNode(parser, node);
+        }
+        for (int e = 0; e < edges.edgeCount(); e++) {
+            GraphApi.addEdge(parser, nodes[edges.sources[e]], nodes[edges.targets[e]]);
+        }
+        return parser;
+    }
+}
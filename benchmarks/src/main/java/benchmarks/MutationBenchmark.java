@@ -0,0 +1,116 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-operation cost of addEdge and removeNode, one call at a time and as one bulk call of OPERATIONS items
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@State(Scope.Thread)
+public class MutationBenchmark {
+    private static final int OPERATIONS = 10_000;
+
+    @Param({"CHAIN", "GRID", "POWER_LAW", "DENSE_DAG"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"20000"})
+    public int size;
+
+    private GraphGenerators.EdgeList edges;
+    private Object[] nodes;
+    private int[] removalOrder;
+    private List<Object> edgeBatch;
+    private List<Object> removalBatch;
+    private Object parser;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        edges = GraphGenerators.generate(shape, size);
+        nodes = GraphGenerators.nodes(edges);
+        removalOrder = new int[nodes.length];
+        for (int i = 0; i < removalOrder.length; i++) {
+            removalOrder[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = removalOrder.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = removalOrder[i];
+            removalOrder[i] = removalOrder[j];
+            removalOrder[j] = swap;
+        }
+        int count = edges.edgeCount();
+        edgeBatch = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            int e = i % count;
+            edgeBatch.add(GraphApi.edge(nodes[edges.sources[e]], nodes[edges.targets[e]]));
+        }
+        removalBatch = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < Math.min(OPERATIONS, removalOrder.length); i++) {
+            removalBatch.add(nodes[removalOrder[i]]);
+        }
+    }
+
+    // Every benchmark runs each invocation against a freshly built parser
+    @State(Scope.Thread)
+    public static class EmptyGraph {
+        Object parser;
+
+        @Setup(Level.Invocation)
+        public void create(MutationBenchmark benchmark) {
+            parser = GraphApi.newParser();
+            for (Object node : benchmark.nodes) {
+                GraphApi.addNode(parser, node);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FullGraph {
+        Object parser;
+
+        @Setup(Level.Invocation)
+        public void create(MutationBenchmark benchmark) {
+            parser = GraphGenerators.load(benchmark.edges, benchmark.nodes);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object addEdge(EmptyGraph graph) {
+        int count = edges.edgeCount();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int e = i % count;
+            GraphApi.addEdge(graph.parser, nodes[edges.sources[e]], nodes[edges.targets[e]]);
+        }
+        return graph.parser;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object removeNode(FullGraph graph) {
+        int limit = Math.min(OPERATIONS, removalOrder.length);
+        for (int i = 0; i < limit; i++) {
+            GraphApi.removeNode(graph.parser, nodes[removalOrder[i]]);
+        }
+        return graph.parser;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object addEdges(EmptyGraph graph) {
+        return GraphApi.addEdges(graph.parser, edgeBatch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Object removeNodes(FullGraph graph) {
+        return GraphApi.removeNodes(graph.parser, removalBatch);
+    }
+}
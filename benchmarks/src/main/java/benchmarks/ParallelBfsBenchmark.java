@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// ParallelBFS scaling with the size of its fork-join pool
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@State(Scope.Benchmark)
+public class ParallelBfsBenchmark {
+    private static final int PAIRS = 64;
+
+    @Param({"GRID", "POWER_LAW", "DENSE_DAG"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private Object traversal;
+    private Object[] sources;
+    private Object[] destinations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadGraph() {
+        GraphGenerators.EdgeList edges = GraphGenerators.generate(shape, size);
+        Object[] nodes = GraphGenerators.nodes(edges);
+        Object compactGraph = GraphApi.compactGraph(GraphGenerators.load(edges, nodes));
+        pool = new ForkJoinPool(threads);
+        traversal = GraphApi.parallelBfs(compactGraph, pool);
+        SplittableRandom random = new SplittableRandom(7);
+        sources = new Object[PAIRS];
+        destinations = new Object[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = nodes[random.nextInt(nodes.length)];
+            destinations[i] = nodes[random.nextInt(nodes.length)];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object traverse() {
+        int i = next++ & (PAIRS - 1);
+        return GraphApi.traverse(traversal, sources[i], destinations[i]);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Time to parse a generated DOT file with the streaming and the parallel loader
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+    @Param({"CHAIN", "GRID", "POWER_LAW", "DENSE_DAG"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"4"})
+    public int parallelism;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeInput() throws IOException {
+        file = Files.createTempFile("parse-" + shape + "-" + size, ".dot");
+        GraphGenerators.writeDot(GraphGenerators.generate(shape, size), file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object parseGraph() {
+        Object parser = GraphApi.newParser();
+        GraphApi.parseGraph(parser, file.toString());
+        return parser;
+    }
+
+    @Benchmark
+    public Object parseGraphParallel() {
+        Object parser = GraphApi.newParser();
+        GraphApi.parseGraphParallel(parser, file.toString(), parallelism);
+        return parser;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-walk cost of Monte-Carlo random walks between random vertex pairs, WALKS walks per invocation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@State(Scope.Thread)
+public class RandomWalkBenchmark {
+    private static final int PAIRS = 64;
+    private static final int WALKS = 1 << 16;
+    private static final int MAX_STEPS = 1000;
+
+    @Param({"GRID", "POWER_LAW"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean selfAvoiding;
+
+    private Object engine;
+    private Object[] sources;
+    private Object[] destinations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadGraph() {
+        GraphGenerators.EdgeList edges = GraphGenerators.generate(shape, size);
+        Object[] nodes = GraphGenerators.nodes(edges);
+        engine = GraphApi.randomWalkEngine(GraphGenerators.load(edges, nodes), selfAvoiding);
+        SplittableRandom random = new SplittableRandom(7);
+        sources = new Object[PAIRS];
+        destinations = new Object[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = nodes[random.nextInt(nodes.length)];
+            destinations[i] = nodes[random.nextInt(nodes.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WALKS)
+    public Object runWalks() {
+        int i = next++ & (PAIRS - 1);
+        return GraphApi.runWalks(engine, sources[i], destinations[i], WALKS, MAX_STEPS, i);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of a single graphSearch between random vertex pairs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dgraph.traversal.log=OFF"})
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"CHAIN", "GRID", "POWER_LAW", "DENSE_DAG"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"BFS", "DFS", "RANDOM_WALK", "BIDIRECTIONAL_BFS", "DIJKSTRA"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean compactBackend;
+
+    private Object parser;
+    private Object algo;
+    private Object[] sources;
+    private Object[] destinations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadGraph() {
+        GraphGenerators.EdgeList edges = GraphGenerators.generate(shape, size);
+        Object[] nodes = GraphGenerators.nodes(edges);
+        parser = GraphGenerators.load(edges, nodes);
+        GraphApi.setCompactBackend(parser, compactBackend);
+        algo = GraphApi.algorithm(algorithm);
+        SplittableRandom random = new SplittableRandom(7);
+        sources = new Object[PAIRS];
+        destinations = new Object[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = nodes[random.nextInt(nodes.length)];
+            destinations[i] = nodes[random.nextInt(nodes.length)];
+        }
+    }
+
+    @Benchmark
+    public Object graphSearch() {
+        int i = next++ & (PAIRS - 1);
+        return GraphApi.graphSearch(parser, sources[i], destinations[i], algo);
+    }
+}
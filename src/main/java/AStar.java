@@ -0,0 +1,18 @@
+/**
+ * Dijkstra's search ordered by distance plus a pluggable {@link AStarHeuristic}.
+ * With an admissible and consistent heuristic the first time the destination is
+ * taken from the heap its distance is final.
+ */
+public class AStar extends Dijkstra {
+    private final AStarHeuristic heuristic;
+
+    public AStar(CsrGraph compactGraph, AStarHeuristic heuristic) {
+        super(compactGraph);
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    protected double estimate(int vertex, int target) {
+        return heuristic.estimate(compactGraph.node(vertex), compactGraph.node(target));
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Lower bound on the remaining distance from a node to the destination, used by
+ * {@link AStar}. It must never overestimate, otherwise the returned path may not be
+ * a shortest one.
+ */
+@FunctionalInterface
+public interface AStarHeuristic {
+    AStarHeuristic ZERO = (node, destination) -> 0;
+
+    double estimate(Node node, Node destination);
+}
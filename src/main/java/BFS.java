@@ -5,49 +5,256 @@ import java.util.*;
 
 public class BFS extends GraphTraversalTemplate {
     private final Map<Node, Node> predecessors = new HashMap<>();
+    private TraversalWorkspace workspace;
+    private OffHeapGraph.Workspace offHeapWorkspace;
 
     public BFS(Graph<Node, DefaultEdge> graph) {
         super(graph);
     }
 
+    public BFS(CsrGraph compactGraph) {
+        super(compactGraph);
+    }
+
+    public BFS(OffHeapGraph offHeapGraph) {
+        super(offHeapGraph);
+    }
+
+    public BFS(Graph<Node, DefaultEdge> graph, NodeTable nodeTable) {
+        super(graph, nodeTable);
+    }
+
     @Override
     protected void initializeTraversal(Node source) {
         // Clear any previous state
-        predecessors.clear();
-        predecessors.put(source, null);
-        System.out.println("Initializing BFS traversal. Starting at node: " + source);
+        if (compactGraph != null) {
+            workspace = TraversalWorkspace.acquire(compactGraph.vertexCount());
+            workspace.visit(compactGraph.idOf(source), -1);
+        } else if (offHeapGraph != null) {
+            offHeapWorkspace = offHeapGraph.acquireWorkspace();
+            offHeapWorkspace.visit(offHeapGraph.idOf(source), -1);
+        } else if (indexed) {
+            workspace = TraversalWorkspace.acquire(nodeTable.size());
+            workspace.visit(source.getId(), -1);
+        } else {
+            predecessors.clear();
+            predecessors.put(source, null);
+        }
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing BFS traversal. Starting at node: " + source);
+        }
     }
 
     @Override
     protected void performTraversal(Node source, Node destination) {
-        Queue<Node> queue = new LinkedList<>();
+        if (compactGraph != null) {
+            performCompactTraversal(compactGraph.idOf(source), compactGraph.idOf(destination));
+            return;
+        }
+        if (offHeapGraph != null) {
+            performOffHeapTraversal(offHeapGraph.idOf(source), offHeapGraph.idOf(destination));
+            return;
+        }
+        if (indexed) {
+            if (performIndexedTraversal(source.getId(), destination.getId())) {
+                return;
+            }
+            // Reached a vertex without a table id; search again keyed by node
+            workspace.release();
+            workspace = null;
+            indexed = false;
+            predecessors.clear();
+            predecessors.put(source, null);
+        }
+        boolean debug = TraversalLog.isDebugEnabled();
+        Queue<Node> queue = new ArrayDeque<>();
         queue.add(source);
+        long scanned = 0;
+        int peak = 1;
 
         // Perform BFS traversal
         while (!queue.isEmpty()) {
+            peak = Math.max(peak, queue.size());
             Node current = queue.poll();
 
             // If destination is reached, stop traversal
             if (current.equals(destination)) {
-                System.out.println("Destination node found: " + destination);
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + destination);
+                }
                 break;
             }
 
             // Process neighbors
             for (DefaultEdge edge : graph.outgoingEdgesOf(current)) {
                 Node neighbor = graph.getEdgeTarget(edge);
+                scanned++;
                 if (!predecessors.containsKey(neighbor)) {
                     queue.add(neighbor);
                     predecessors.put(neighbor, current);
-                    System.out.println("Visiting node: " + neighbor);
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + neighbor);
+                    }
+                }
+            }
+        }
+        nodesVisited = predecessors.size();
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    private void performCompactTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int[] queue = workspace.buffer();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        long scanned = 0;
+        int peak = 1;
+
+        while (head < tail) {
+            peak = Math.max(peak, tail - head);
+            int current = queue[head++];
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + compactGraph.label(destination));
+                }
+                break;
+            }
+
+            scanned += compactGraph.outDegree(current);
+            for (int e = compactGraph.outStart(current), end = compactGraph.outEnd(current); e < end; e++) {
+                int neighbor = compactGraph.target(e);
+                if (workspace.visit(neighbor, current)) {
+                    queue[tail++] = neighbor;
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + compactGraph.label(neighbor));
+                    }
                 }
             }
         }
+        nodesVisited = tail;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    // Same loop as the compact traversal over off-heap adjacency and workspace
+    private void performOffHeapTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int head = 0;
+        int tail = 0;
+        offHeapWorkspace.set(tail++, source);
+        long scanned = 0;
+        int peak = 1;
+
+        while (head < tail) {
+            peak = Math.max(peak, tail - head);
+            int current = offHeapWorkspace.get(head++);
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + offHeapGraph.label(destination));
+                }
+                break;
+            }
+
+            scanned += offHeapGraph.outDegree(current);
+            for (int e = offHeapGraph.outStart(current), end = offHeapGraph.outEnd(current); e < end; e++) {
+                int neighbor = offHeapGraph.target(e);
+                if (offHeapWorkspace.visit(neighbor, current)) {
+                    offHeapWorkspace.set(tail++, neighbor);
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + offHeapGraph.label(neighbor));
+                    }
+                }
+            }
+        }
+        nodesVisited = tail;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    // Same loop as the compact traversal, with JGraphT supplying the out-edges of each node id;
+    // returns false if it reaches a vertex that is not a canonical node of the table
+    private boolean performIndexedTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int[] queue = workspace.buffer();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        long scanned = 0;
+        int peak = 1;
+
+        while (head < tail) {
+            peak = Math.max(peak, tail - head);
+            int current = queue[head++];
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + nodeTable.node(destination));
+                }
+                break;
+            }
+
+            for (DefaultEdge edge : graph.outgoingEdgesOf(nodeTable.node(current))) {
+                Node neighbor = graph.getEdgeTarget(edge);
+                scanned++;
+                if (!nodeTable.isCanonical(neighbor)) {
+                    return false;
+                }
+                if (workspace.visit(neighbor.getId(), current)) {
+                    queue[tail++] = neighbor.getId();
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + neighbor);
+                    }
+                }
+            }
+        }
+        nodesVisited = tail;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+        return true;
     }
 
     @Override
     protected Node getPredecessor(Node node) {
         // Retrieve the predecessor of the given node
+        if (compactGraph != null) {
+            int id = compactGraph.idOf(node);
+            if (!workspace.isVisited(id)) {
+                return null;
+            }
+            int predecessor = workspace.predecessor(id);
+            return predecessor >= 0 ? compactGraph.node(predecessor) : null;
+        }
+        if (offHeapGraph != null) {
+            int id = offHeapGraph.idOf(node);
+            if (!offHeapWorkspace.isVisited(id)) {
+                return null;
+            }
+            int predecessor = offHeapWorkspace.predecessor(id);
+            return predecessor >= 0 ? offHeapGraph.node(predecessor) : null;
+        }
+        if (indexed) {
+            if (!workspace.isVisited(node.getId())) {
+                return null;
+            }
+            int predecessor = workspace.predecessor(node.getId());
+            return predecessor >= 0 ? nodeTable.node(predecessor) : null;
+        }
         return predecessors.get(node);
     }
+
+    @Override
+    protected void finishTraversal() {
+        if (workspace != null) {
+            workspace.release();
+            workspace = null;
+        }
+        if (offHeapWorkspace != null) {
+            offHeapGraph.releaseWorkspace(offHeapWorkspace);
+            offHeapWorkspace = null;
+        }
+    }
 }
@@ -0,0 +1,189 @@
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * One-to-many and many-to-many path queries over a {@link CsrGraph}. Each source is
+ * traversed once and every requested path is read off the same predecessor tree; the
+ * traversal stops as soon as all destinations have been settled. Because BFS and DFS fix
+ * a vertex's predecessor when it is first discovered, and Dijkstra only replaces one on a
+ * strict improvement, the paths equal what a separate graphSearch call per destination
+ * returns. Independent sources are searched in parallel, each worker using its own
+ * pooled workspace.
+ */
+public class BatchSearch {
+    private final CsrGraph graph;
+    private final ForkJoinPool pool;
+
+    public BatchSearch(CsrGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public Map<Node, Path> search(Node source, Collection<Node> destinations, GraphParser.Algorithm algorithm) {
+        int from = idOf(source);
+        int[] targets = idsOf(destinations);
+        return search(from, targets, occurrences(targets), algorithm);
+    }
+
+    // One traversal per distinct source, spread across the pool
+    public Map<Node, Map<Node, Path>> search(Collection<Node> sources, Collection<Node> destinations,
+                                             GraphParser.Algorithm algorithm) {
+        // Every source shares the destination ids and their counts, which are only read
+        int[] targets = idsOf(destinations);
+        int[] occurrences = occurrences(targets);
+        Map<Node, ForkJoinTask<Map<Node, Path>>> tasks = new LinkedHashMap<>();
+        for (Node source : sources) {
+            int from = idOf(source);
+            if (!tasks.containsKey(source)) {
+                tasks.put(source, pool.submit(() -> search(from, targets, occurrences, algorithm)));
+            }
+        }
+        Map<Node, Map<Node, Path>> results = new LinkedHashMap<>();
+        for (Map.Entry<Node, ForkJoinTask<Map<Node, Path>>> task : tasks.entrySet()) {
+            try {
+                results.put(task.getKey(), task.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during batch search", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Batch search failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private Map<Node, Path> search(int from, int[] targets, int[] occurrences, GraphParser.Algorithm algorithm) {
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Batch " + algorithm + " from node " + graph.node(from) + " to " + targets.length + " destinations");
+        }
+        return switch (algorithm) {
+            case BFS, DFS -> searchUnweighted(from, targets, occurrences, algorithm == GraphParser.Algorithm.BFS);
+            case DIJKSTRA -> searchWeighted(from, targets, occurrences);
+            default -> throw new IllegalArgumentException("Unsupported batch algorithm: " + algorithm);
+        };
+    }
+
+    private Map<Node, Path> searchUnweighted(int source, int[] targets, int[] occurrences, boolean breadthFirst) {
+        TraversalWorkspace workspace = TraversalWorkspace.acquire(graph.vertexCount());
+        try {
+            workspace.visit(source, -1);
+            int remaining = countUnvisited(targets, workspace);
+            int[] buffer = workspace.buffer();
+            int head = 0;
+            int tail = 0;
+            buffer[tail++] = source;
+            while (head < tail && remaining > 0) {
+                int current = breadthFirst ? buffer[head++] : buffer[--tail];
+                for (int e = graph.outStart(current), end = graph.outEnd(current); e < end; e++) {
+                    int neighbor = graph.target(e);
+                    if (workspace.visit(neighbor, current)) {
+                        buffer[tail++] = neighbor;
+                        remaining -= occurrences[neighbor];
+                    }
+                }
+            }
+            Map<Node, Path> paths = new LinkedHashMap<>();
+            for (int target : targets) {
+                paths.put(graph.node(target), buildPath(target, workspace::isVisited, workspace::predecessor));
+            }
+            return paths;
+        } finally {
+            workspace.release();
+        }
+    }
+
+    private Map<Node, Path> searchWeighted(int source, int[] targets, int[] occurrences) {
+        int vertexCount = graph.vertexCount();
+        double[] distances = new double[vertexCount];
+        int[] predecessors = new int[vertexCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+        distances[source] = 0;
+        IndexedMinHeap heap = new IndexedMinHeap(vertexCount);
+        heap.insertOrDecrease(source, 0);
+        int remaining = targets.length;
+        while (!heap.isEmpty() && remaining > 0) {
+            int current = heap.poll();
+            remaining -= occurrences[current];
+            for (int e = graph.outStart(current), end = graph.outEnd(current); e < end; e++) {
+                double weight = graph.weight(e);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative edge weight from " + graph.label(current)
+                            + " to " + graph.label(graph.target(e)) + ": " + weight);
+                }
+                int neighbor = graph.target(e);
+                double distance = distances[current] + weight;
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    predecessors[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, distance);
+                }
+            }
+        }
+        Map<Node, Path> paths = new LinkedHashMap<>();
+        for (int target : targets) {
+            paths.put(graph.node(target), buildPath(target, v -> distances[v] < Double.POSITIVE_INFINITY, v -> predecessors[v]));
+        }
+        return paths;
+    }
+
+    // Same shape as GraphTraversalTemplate.buildPath: an unreached destination yields a single-node path
+    private Path buildPath(int target, IntPredicate reached, IntUnaryOperator predecessor) {
+        LinkedList<Node> nodes = new LinkedList<>();
+        nodes.add(graph.node(target));
+        if (reached.test(target)) {
+            for (int step = predecessor.applyAsInt(target); step >= 0; step = predecessor.applyAsInt(step)) {
+                nodes.addFirst(graph.node(step));
+            }
+        }
+        Path path = new Path();
+        for (Node node : nodes) {
+            path.addNode(node);
+        }
+        return path;
+    }
+
+    private int countUnvisited(int[] targets, TraversalWorkspace workspace) {
+        int count = 0;
+        for (int target : targets) {
+            if (!workspace.isVisited(target)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int[] idsOf(Collection<Node> destinations) {
+        int[] targets = new int[destinations.size()];
+        int i = 0;
+        for (Node destination : destinations) {
+            targets[i++] = idOf(destination);
+        }
+        return targets;
+    }
+
+    // How many times each vertex is requested; destinations may repeat, and each occurrence
+    // counts towards the remaining total
+    private int[] occurrences(int[] targets) {
+        int[] occurrences = new int[graph.vertexCount()];
+        for (int target : targets) {
+            occurrences[target]++;
+        }
+        return occurrences;
+    }
+
+    private int idOf(Node node) {
+        int id = graph.idOf(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,206 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.util.*;
+
+/**
+ * Point-to-point shortest path search that grows a forward frontier along outgoing edges
+ * and a backward frontier along incoming edges, always expanding one full level of the
+ * smaller frontier. The search stops after the level in which the frontiers first meet,
+ * keeping the shortest connection found in that level.
+ */
+public class BidirectionalBFS extends GraphTraversalTemplate {
+    private final Map<Node, Node> pathPredecessors = new HashMap<>();
+
+    public BidirectionalBFS(Graph<Node, DefaultEdge> graph) {
+        super(graph);
+    }
+
+    public BidirectionalBFS(CsrGraph compactGraph) {
+        super(compactGraph);
+    }
+
+    @Override
+    protected void initializeTraversal(Node source) {
+        pathPredecessors.clear();
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing bidirectional BFS traversal. Starting at node: " + source);
+        }
+    }
+
+    @Override
+    protected void performTraversal(Node source, Node destination) {
+        List<Node> path = compactGraph != null
+                ? searchCompact(compactGraph.idOf(source), compactGraph.idOf(destination))
+                : search(source, destination);
+        if (path == null) {
+            return;
+        }
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Destination node found: " + destination);
+        }
+        for (int i = 1; i < path.size(); i++) {
+            pathPredecessors.put(path.get(i), path.get(i - 1));
+        }
+    }
+
+    private List<Node> search(Node source, Node destination) {
+        if (source.equals(destination)) {
+            return List.of(source);
+        }
+        boolean debug = TraversalLog.isDebugEnabled();
+        Map<Node, Node> forwardPredecessors = new HashMap<>();
+        Map<Node, Node> backwardSuccessors = new HashMap<>();
+        Map<Node, Integer> forwardDistances = new HashMap<>();
+        Map<Node, Integer> backwardDistances = new HashMap<>();
+        Deque<Node> forwardQueue = new ArrayDeque<>();
+        Deque<Node> backwardQueue = new ArrayDeque<>();
+        forwardDistances.put(source, 0);
+        backwardDistances.put(destination, 0);
+        forwardQueue.add(source);
+        backwardQueue.add(destination);
+
+        int best = Integer.MAX_VALUE;
+        Node meetFrom = null;   // forward-visited end of the connecting edge
+        Node meetTo = null;     // backward-visited end of the connecting edge
+        long scanned = 0;
+        int peak = 1;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty() && meetFrom == null) {
+            boolean forward = forwardQueue.size() <= backwardQueue.size();
+            Deque<Node> queue = forward ? forwardQueue : backwardQueue;
+            Map<Node, Node> links = forward ? forwardPredecessors : backwardSuccessors;
+            Map<Node, Integer> distances = forward ? forwardDistances : backwardDistances;
+            Map<Node, Integer> otherDistances = forward ? backwardDistances : forwardDistances;
+            peak = Math.max(peak, queue.size());
+
+            for (int remaining = queue.size(); remaining > 0; remaining--) {
+                Node current = queue.poll();
+                int distance = distances.get(current) + 1;
+                Set<DefaultEdge> edges = forward ? graph.outgoingEdgesOf(current) : graph.incomingEdgesOf(current);
+                scanned += edges.size();
+                for (DefaultEdge edge : edges) {
+                    Node neighbor = forward ? graph.getEdgeTarget(edge) : graph.getEdgeSource(edge);
+                    if (!distances.containsKey(neighbor)) {
+                        distances.put(neighbor, distance);
+                        links.put(neighbor, current);
+                        queue.add(neighbor);
+                        if (debug) {
+                            TraversalLog.debug("Visiting node: " + neighbor);
+                        }
+                    }
+                    Integer otherDistance = otherDistances.get(neighbor);
+                    if (otherDistance != null && distance + otherDistance < best) {
+                        best = distance + otherDistance;
+                        meetFrom = forward ? current : neighbor;
+                        meetTo = forward ? neighbor : current;
+                    }
+                }
+            }
+        }
+        nodesVisited = forwardDistances.size() + backwardDistances.size();
+        edgesScanned = scanned;
+        frontierPeak = peak;
+        if (meetFrom == null) {
+            return null;
+        }
+
+        LinkedList<Node> path = new LinkedList<>();
+        for (Node step = meetFrom; step != null; step = forwardPredecessors.get(step)) {
+            path.addFirst(step);
+        }
+        for (Node step = meetTo; step != null; step = backwardSuccessors.get(step)) {
+            path.addLast(step);
+        }
+        return path;
+    }
+
+    private List<Node> searchCompact(int source, int destination) {
+        if (source == destination) {
+            return List.of(compactGraph.node(source));
+        }
+        boolean debug = TraversalLog.isDebugEnabled();
+        TraversalWorkspace forwardSide = TraversalWorkspace.acquire(compactGraph.vertexCount());
+        TraversalWorkspace backwardSide = TraversalWorkspace.acquire(compactGraph.vertexCount());
+        try {
+            forwardSide.visit(source, -1, 0);
+            backwardSide.visit(destination, -1, 0);
+            int[] forwardQueue = forwardSide.buffer();
+            int[] backwardQueue = backwardSide.buffer();
+            forwardQueue[0] = source;
+            backwardQueue[0] = destination;
+            int forwardHead = 0;
+            int forwardTail = 1;
+            int backwardHead = 0;
+            int backwardTail = 1;
+
+            int best = Integer.MAX_VALUE;
+            int meetFrom = -1;
+            int meetTo = -1;
+            long scanned = 0;
+            int peak = 1;
+
+            while (forwardHead < forwardTail && backwardHead < backwardTail && meetFrom < 0) {
+                boolean forward = forwardTail - forwardHead <= backwardTail - backwardHead;
+                TraversalWorkspace own = forward ? forwardSide : backwardSide;
+                TraversalWorkspace other = forward ? backwardSide : forwardSide;
+                int[] queue = own.buffer();
+                int head = forward ? forwardHead : backwardHead;
+                int tail = forward ? forwardTail : backwardTail;
+                peak = Math.max(peak, tail - head);
+
+                for (int levelEnd = tail; head < levelEnd; head++) {
+                    int current = queue[head];
+                    int distance = own.distance(current) + 1;
+                    int start = forward ? compactGraph.outStart(current) : compactGraph.inStart(current);
+                    int end = forward ? compactGraph.outEnd(current) : compactGraph.inEnd(current);
+                    scanned += end - start;
+                    for (int e = start; e < end; e++) {
+                        int neighbor = forward ? compactGraph.target(e) : compactGraph.source(e);
+                        if (own.visit(neighbor, current, distance)) {
+                            queue[tail++] = neighbor;
+                            if (debug) {
+                                TraversalLog.debug("Visiting node: " + compactGraph.label(neighbor));
+                            }
+                        }
+                        if (other.isVisited(neighbor) && distance + other.distance(neighbor) < best) {
+                            best = distance + other.distance(neighbor);
+                            meetFrom = forward ? current : neighbor;
+                            meetTo = forward ? neighbor : current;
+                        }
+                    }
+                }
+                if (forward) {
+                    forwardHead = head;
+                    forwardTail = tail;
+                } else {
+                    backwardHead = head;
+                    backwardTail = tail;
+                }
+            }
+            nodesVisited = forwardTail + backwardTail;
+            edgesScanned = scanned;
+            frontierPeak = peak;
+            if (meetFrom < 0) {
+                return null;
+            }
+
+            LinkedList<Node> path = new LinkedList<>();
+            for (int step = meetFrom; step >= 0; step = forwardSide.predecessor(step)) {
+                path.addFirst(compactGraph.node(step));
+            }
+            for (int step = meetTo; step >= 0; step = backwardSide.predecessor(step)) {
+                path.addLast(compactGraph.node(step));
+            }
+            return path;
+        } finally {
+            backwardSide.release();
+            forwardSide.release();
+        }
+    }
+
+    @Override
+    protected Node getPredecessor(Node node) {
+        return pathPredecessors.get(node);
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread-safe front end to a {@link GraphParser} using copy-on-write epochs. Writers are
+ * serialized by a single lock and change a private master graph, and each write also logs
+ * how to replay it. Readers work on an immutable snapshot: when the snapshot is behind, the
+ * first reader that finds no publish running copies the previous snapshot and replays the
+ * logged writes on the copy, holding the write lock only to take the log, so writers are not
+ * blocked by the copy. Readers arriving meanwhile keep using the previous epoch, and only
+ * wait once the oldest write missing from the snapshot is older than the staleness bound.
+ * Each snapshot is internally consistent; {@link #latestSnapshot()} waits for one that
+ * includes every completed write.
+ */
+public class ConcurrentGraphParser {
+    // Beyond this many logged writes the next epoch is copied from the master instead
+    private static final int MAX_JOURNAL = 1024;
+
+    private final GraphParser master = new GraphParser();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile long version;        // incremented under writeLock by every successful write
+    private volatile Epoch current;       // replaced under publishLock
+    private volatile long pendingSince;   // when the oldest write missing from current completed
+    private final long maxStalenessNanos;
+    // Guarded by writeLock: how to bring current up to version, or null when the master must be copied
+    private List<Consumer<GraphParser>> journal = new ArrayList<>();
+
+    private static final class Epoch {
+        final long version;
+        final GraphParser snapshot;
+
+        Epoch(long version, GraphParser snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
+
+    public ConcurrentGraphParser() {
+        this(50, TimeUnit.MILLISECONDS);
+    }
+
+    public ConcurrentGraphParser(long maxStaleness, TimeUnit unit) {
+        if (maxStaleness < 0) {
+            throw new IllegalArgumentException("Staleness bound must not be negative: " + maxStaleness);
+        }
+        this.maxStalenessNanos = unit.toNanos(maxStaleness);
+        this.current = new Epoch(0, master.frozenCopy());
+    }
+
+    private interface Mutation<T> {
+        T apply() throws IOException;
+    }
+
+    // replay maps the write's result to a step that repeats it on a copy of the previous
+    // snapshot, or to null when the write cannot be repeated that way
+    private <T> T write(Mutation<T> mutation, Function<? super T, Consumer<GraphParser>> replay) throws IOException {
+        writeLock.lock();
+        try {
+            T result = mutation.apply();
+            Consumer<GraphParser> step = replay.apply(result);
+            if (step == null || journal == null || journal.size() >= MAX_JOURNAL) {
+                journal = null;
+            } else {
+                journal.add(step);
+            }
+            if (version == current.version) {
+                pendingSince = System.nanoTime();
+            }
+            version++;
+            return result;
+        } catch (Throwable e) {
+            // A failed write may still have changed part of the master, so the next epoch copies it
+            journal = null;
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private <T> T writeUnchecked(Mutation<T> mutation, Function<? super T, Consumer<GraphParser>> replay) {
+        try {
+            return write(mutation, replay);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Repeats a bulk write through the changes it made, in the order applyPatch makes them
+    private static Consumer<GraphParser> replay(GraphDelta delta) {
+        return copy -> {
+            copy.removeEdges(delta.getRemovedEdges());
+            copy.removeNodes(delta.getRemovedNodes());
+            copy.addNodes(delta.getAddedNodes());
+            copy.addEdges(delta.getAddedEdges());
+        };
+    }
+
+    public void parseGraph(String filePath) throws IOException {
+        write(() -> {
+            master.parseGraph(filePath);
+            return null;
+        }, result -> null);
+    }
+
+    public GraphDelta reloadGraph(String filePath) throws IOException {
+        return write(() -> master.reloadGraph(filePath), ConcurrentGraphParser::replay);
+    }
+
+    public GraphDelta applyPatch(String filePath) throws IOException {
+        return write(() -> master.applyPatch(filePath), ConcurrentGraphParser::replay);
+    }
+
+    public GraphDelta applyPatch(DotPatch patch) {
+        return writeUnchecked(() -> master.applyPatch(patch), ConcurrentGraphParser::replay);
+    }
+
+    public void addNode(Node node) {
+        writeUnchecked(() -> {
+            master.addNode(node);
+            return null;
+        }, result -> copy -> copy.addNode(node));
+    }
+
+    public GraphDelta addNodes(Node[] nodes) {
+        return writeUnchecked(() -> master.addNodes(nodes), ConcurrentGraphParser::replay);
+    }
+
+    public GraphDelta addNodes(Collection<Node> nodes) {
+        return writeUnchecked(() -> master.addNodes(nodes), ConcurrentGraphParser::replay);
+    }
+
+    public void addEdge(Node source, Node target) {
+        writeUnchecked(() -> {
+            master.addEdge(source, target);
+            return null;
+        }, result -> copy -> copy.addEdge(source, target));
+    }
+
+    public void addEdge(Node source, Node target, double weight) {
+        writeUnchecked(() -> {
+            master.addEdge(source, target, weight);
+            return null;
+        }, result -> copy -> copy.addEdge(source, target, weight));
+    }
+
+    // A bulk write is one epoch, so readers see all of it or none of it
+    public GraphDelta addEdges(Collection<GraphDelta.Edge> edges) {
+        return writeUnchecked(() -> master.addEdges(edges), ConcurrentGraphParser::replay);
+    }
+
+    public void removeNode(Node node) {
+        writeUnchecked(() -> {
+            master.removeNode(node);
+            return null;
+        }, result -> copy -> copy.removeNode(node));
+    }
+
+    public GraphDelta removeNodes(Node[] nodes) {
+        return writeUnchecked(() -> master.removeNodes(nodes), ConcurrentGraphParser::replay);
+    }
+
+    public GraphDelta removeNodes(Collection<Node> nodes) {
+        return writeUnchecked(() -> master.removeNodes(nodes), ConcurrentGraphParser::replay);
+    }
+
+    public void removeEdge(Node source, Node target) {
+        writeUnchecked(() -> {
+            master.removeEdge(source, target);
+            return null;
+        }, result -> copy -> copy.removeEdge(source, target));
+    }
+
+    public GraphDelta removeEdges(Collection<GraphDelta.Edge> edges) {
+        return writeUnchecked(() -> master.removeEdges(edges), ConcurrentGraphParser::replay);
+    }
+
+    // Read-only view for searches, toString and exports; mutating it throws
+    public GraphParser snapshot() {
+        Epoch epoch = current;
+        if (epoch.version == version) {
+            return epoch.snapshot;
+        }
+        boolean overdue = System.nanoTime() - pendingSince > maxStalenessNanos;
+        if (!publishLock.tryLock()) {
+            if (!overdue) {
+                return epoch.snapshot;
+            }
+            publishLock.lock();
+        }
+        try {
+            return publish(overdue).snapshot;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    // Like snapshot(), but waits for any running write so the view includes every completed write
+    public GraphParser latestSnapshot() {
+        Epoch epoch = current;
+        if (epoch.version == version) {
+            return epoch.snapshot;
+        }
+        publishLock.lock();
+        try {
+            return publish(true).snapshot;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    // Number of completed writes reflected in the current snapshot
+    public long getSnapshotVersion() {
+        return current.version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Caller holds publishLock. Without wait, a running write leaves the current epoch in place
+    private Epoch publish(boolean wait) {
+        Epoch epoch = current;
+        if (epoch.version == version) {
+            return epoch;
+        }
+        if (wait) {
+            writeLock.lock();
+        } else if (!writeLock.tryLock()) {
+            return epoch;
+        }
+        long target;
+        List<Consumer<GraphParser>> steps;
+        try {
+            target = version;
+            steps = journal;
+            journal = new ArrayList<>();
+            if (steps == null) {
+                // Nothing to replay from, so writers wait for a full copy of the master
+                epoch = new Epoch(target, master.frozenCopy());
+                current = epoch;
+                return epoch;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        // The previous snapshot is immutable, so the copy runs while writers carry on
+        GraphParser next = epoch.snapshot.copy();
+        for (Consumer<GraphParser> step : steps) {
+            step.accept(next);
+        }
+        epoch = new Epoch(target, next.freeze());
+        current = epoch;
+        return epoch;
+    }
+
+    public Path graphSearch(Node sourceNode, Node destinationNode, GraphParser.Algorithm algo) {
+        return snapshot().graphSearch(sourceNode, destinationNode, algo);
+    }
+
+    public Map<Node, Map<Node, Path>> graphSearch(Collection<Node> sourceNodes, Collection<Node> destinationNodes,
+                                                  GraphParser.Algorithm algo) {
+        return snapshot().graphSearch(sourceNodes, destinationNodes, algo);
+    }
+
+    public void outputDOTGraph(String filePath) throws IOException {
+        snapshot().outputDOTGraph(filePath);
+    }
+
+    public void outputGraphics(String filePath, String format) throws IOException {
+        snapshot().outputGraphics(filePath, format);
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
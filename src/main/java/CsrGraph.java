@@ -0,0 +1,324 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Read-optimized directed graph in compressed sparse row form. Vertex labels are
+ * interned into dense int ids and the out-neighbours of vertex {@code v} are
+ * {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]}, in edge insertion order.
+ * Edge weights are kept in a parallel array only when some edge is not of weight 1.
+ * {@link Node} objects are only created when a caller asks for one.
+ */
+public class CsrGraph {
+    private final String[] labels;
+    private final Node[] nodes;
+    private final int[] labelTable;   // open-addressing table of id + 1, 0 marks a free slot
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;    // null when every edge has the default weight
+    private int[] inSources;
+    private volatile int[] inOffsets;   // reverse adjacency, built on first use
+
+    private CsrGraph(String[] labels, Node[] nodes, int[] offsets, int[] targets, double[] weights) {
+        this.labels = labels;
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.labelTable = new int[tableSize(labels.length)];
+        for (int id = 0; id < labels.length; id++) {
+            int slot = slot(labels[id]);
+            while (labelTable[slot] != 0) {
+                slot = (slot + 1) & (labelTable.length - 1);
+            }
+            labelTable[slot] = id + 1;
+        }
+    }
+
+    // Snapshot of a JGraphT graph; vertex and out-edge order follow the source graph
+    public static CsrGraph fromGraph(Graph<Node, DefaultEdge> graph) {
+        int vertexCount = graph.vertexSet().size();
+        String[] labels = new String[vertexCount];
+        Node[] nodes = new Node[vertexCount];
+        int id = 0;
+        for (Node vertex : graph.vertexSet()) {
+            labels[id] = vertex.getLabel();
+            nodes[id++] = vertex;
+        }
+        int[] offsets = new int[vertexCount + 1];
+        int[] targets = new int[graph.edgeSet().size()];
+        double[] weights = null;
+        if (graph.getType().isWeighted()) {
+            for (DefaultEdge edge : graph.edgeSet()) {
+                if (graph.getEdgeWeight(edge) != Graph.DEFAULT_EDGE_WEIGHT) {
+                    weights = new double[targets.length];
+                    break;
+                }
+            }
+        }
+        CsrGraph index = new CsrGraph(labels, nodes, offsets, targets, weights);
+        int position = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v] = position;
+            for (DefaultEdge edge : graph.outgoingEdgesOf(nodes[v])) {
+                if (weights != null) {
+                    weights[position] = graph.getEdgeWeight(edge);
+                }
+                targets[position++] = index.idOf(graph.getEdgeTarget(edge).getLabel());
+            }
+        }
+        offsets[vertexCount] = position;
+        return index;
+    }
+
+    // Wraps arrays read from a snapshot; Node objects are still created on demand
+    static CsrGraph of(String[] labels, int[] offsets, int[] targets, double[] weights) {
+        return new CsrGraph(labels, new Node[labels.length], offsets, targets, weights);
+    }
+
+    // Parses a DOT file directly into CSR form without building Node objects or JGraphT edges
+    public static CsrGraph load(String filePath) throws IOException {
+        Builder builder = new Builder();
+        try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(filePath)), StandardCharsets.UTF_8)) {
+            new DotStreamParser(builder).parse(reader);
+        }
+        return builder.build();
+    }
+
+    public int vertexCount() {
+        return labels.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int idOf(Node node) {
+        return idOf(node.getLabel());
+    }
+
+    // Dense id of the label, or -1 if the graph has no such vertex
+    public int idOf(String label) {
+        int slot = slot(label);
+        int entry;
+        while ((entry = labelTable[slot]) != 0) {
+            if (labels[entry - 1].equals(label)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & (labelTable.length - 1);
+        }
+        return -1;
+    }
+
+    public String label(int id) {
+        return labels[id];
+    }
+
+    public Node node(int id) {
+        Node node = nodes[id];
+        if (node == null) {
+            node = new Node(labels[id]);
+            nodes[id] = node;
+        }
+        return node;
+    }
+
+    public int outStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    public int outEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    public int outDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    public int target(int edgeIndex) {
+        return targets[edgeIndex];
+    }
+
+    public double weight(int edgeIndex) {
+        return weights != null ? weights[edgeIndex] : Graph.DEFAULT_EDGE_WEIGHT;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    // In-neighbours are stored in a second CSR index ordered by (target, edge insertion order)
+    public int inStart(int vertex) {
+        return reverseOffsets()[vertex];
+    }
+
+    public int inEnd(int vertex) {
+        return reverseOffsets()[vertex + 1];
+    }
+
+    public int source(int reverseEdgeIndex) {
+        reverseOffsets();
+        return inSources[reverseEdgeIndex];
+    }
+
+    private int[] reverseOffsets() {
+        int[] result = inOffsets;
+        if (result == null) {
+            result = buildReverse();
+        }
+        return result;
+    }
+
+    private synchronized int[] buildReverse() {
+        if (inOffsets != null) {
+            return inOffsets;
+        }
+        int vertexCount = labels.length;
+        int[] reverseOffsets = new int[vertexCount + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, vertexCount);
+        int[] sources = new int[targets.length];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                sources[next[targets[e]]++] = v;
+            }
+        }
+        inSources = sources;
+        inOffsets = reverseOffsets;
+        return reverseOffsets;
+    }
+
+    // Approximate heap footprint of the arrays, excluding the label strings themselves
+    public long estimatedBytes() {
+        long reverse = inOffsets != null ? 4L * (inOffsets.length + inSources.length) : 0;
+        long weightBytes = weights != null ? 8L * weights.length : 0;
+        return 4L * (offsets.length + targets.length + labelTable.length) + 8L * (labels.length + nodes.length) + reverse + weightBytes;
+    }
+
+    private int slot(String label) {
+        int h = label.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (labelTable.length - 1);
+    }
+
+    private static int tableSize(int entries) {
+        int size = 2;
+        while (size < entries * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Accumulates DOT statements with the same vertex order and edge deduplication as
+     * {@link GraphParser#addNode} and {@link GraphParser#addEdge}.
+     */
+    public static class Builder implements DotStreamParser.Handler {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] labels = new String[64];
+        private int vertexCount;
+        private int[] sources = new int[64];
+        private int[] edgeTargets = new int[64];
+        private double[] edgeWeights;   // allocated when the first weighted edge arrives
+        private int edgeCount;
+        private final LongHashSet edgeKeys = new LongHashSet(64);
+
+        @Override
+        public void node(String label) {
+            addVertex(label);
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel) {
+            addEdge(addVertex(sourceLabel), addVertex(targetLabel));
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel, double weight) {
+            addEdge(addVertex(sourceLabel), addVertex(targetLabel), weight);
+        }
+
+        public int addVertex(String label) {
+            Integer id = ids.get(label);
+            if (id == null) {
+                id = vertexCount;
+                ids.put(label, id);
+                if (vertexCount == labels.length) {
+                    labels = Arrays.copyOf(labels, vertexCount * 2);
+                }
+                labels[vertexCount++] = label;
+            }
+            return id;
+        }
+
+        public void addEdge(int source, int target) {
+            addEdge(source, target, Graph.DEFAULT_EDGE_WEIGHT);
+        }
+
+        // Like GraphParser.addEdge, a repeated edge keeps the weight it was first added with
+        public void addEdge(int source, int target, double weight) {
+            if (!edgeKeys.add(LongHashSet.pair(source, target))) {
+                return;
+            }
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            }
+            if (weight != Graph.DEFAULT_EDGE_WEIGHT && edgeWeights == null) {
+                edgeWeights = new double[sources.length];
+                Arrays.fill(edgeWeights, 0, edgeCount, Graph.DEFAULT_EDGE_WEIGHT);
+            }
+            if (edgeWeights != null) {
+                if (edgeWeights.length < sources.length) {
+                    edgeWeights = Arrays.copyOf(edgeWeights, sources.length);
+                }
+                edgeWeights[edgeCount] = weight;
+            }
+            sources[edgeCount] = source;
+            edgeTargets[edgeCount++] = target;
+        }
+
+        int edgeCount() {
+            return edgeCount;
+        }
+
+        public CsrGraph build() {
+            return build(null);
+        }
+
+        // If edgeOrder is given, it receives the CSR position of each edge in insertion order
+        CsrGraph build(int[] edgeOrder) {
+            // Counting sort by source keeps each vertex's edges in insertion order
+            int[] offsets = new int[vertexCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, vertexCount);
+            int[] targets = new int[edgeCount];
+            double[] weights = edgeWeights != null ? new double[edgeCount] : null;
+            for (int i = 0; i < edgeCount; i++) {
+                int position = next[sources[i]]++;
+                targets[position] = edgeTargets[i];
+                if (edgeOrder != null) {
+                    edgeOrder[i] = position;
+                }
+                if (weights != null) {
+                    weights[position] = edgeWeights[i];
+                }
+            }
+            return new CsrGraph(Arrays.copyOf(labels, vertexCount), new Node[vertexCount], offsets, targets, weights);
+        }
+    }
+}
@@ -6,52 +6,264 @@ import java.util.*;
 public class DFS extends GraphTraversalTemplate {
     private final Map<Node, Node> predecessors = new HashMap<>();
     private final Set<Node> visited = new HashSet<>();
+    private TraversalWorkspace workspace;
+    private OffHeapGraph.Workspace offHeapWorkspace;
 
     public DFS(Graph<Node, DefaultEdge> graph) {
         super(graph);
     }
 
+    public DFS(CsrGraph compactGraph) {
+        super(compactGraph);
+    }
+
+    public DFS(OffHeapGraph offHeapGraph) {
+        super(offHeapGraph);
+    }
+
+    public DFS(Graph<Node, DefaultEdge> graph, NodeTable nodeTable) {
+        super(graph, nodeTable);
+    }
+
     @Override
     protected void initializeTraversal(Node source) {
         // Clear previous state
-        predecessors.clear();
-        visited.clear();
-        predecessors.put(source, null);
-        System.out.println("Initializing DFS traversal. Starting at node: " + source);
+        if (compactGraph != null) {
+            workspace = TraversalWorkspace.acquire(compactGraph.vertexCount());
+            workspace.visit(compactGraph.idOf(source), -1);
+        } else if (offHeapGraph != null) {
+            offHeapWorkspace = offHeapGraph.acquireWorkspace();
+            offHeapWorkspace.visit(offHeapGraph.idOf(source), -1);
+        } else if (indexed) {
+            workspace = TraversalWorkspace.acquire(nodeTable.size());
+            workspace.visit(source.getId(), -1);
+        } else {
+            predecessors.clear();
+            visited.clear();
+            predecessors.put(source, null);
+        }
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing DFS traversal. Starting at node: " + source);
+        }
     }
 
     @Override
     protected void performTraversal(Node source, Node destination) {
-        Stack<Node> stack = new Stack<>();
+        if (compactGraph != null) {
+            performCompactTraversal(compactGraph.idOf(source), compactGraph.idOf(destination));
+            return;
+        }
+        if (offHeapGraph != null) {
+            performOffHeapTraversal(offHeapGraph.idOf(source), offHeapGraph.idOf(destination));
+            return;
+        }
+        if (indexed) {
+            if (performIndexedTraversal(source.getId(), destination.getId())) {
+                return;
+            }
+            // Reached a vertex without a table id; search again keyed by node
+            workspace.release();
+            workspace = null;
+            indexed = false;
+            predecessors.clear();
+            visited.clear();
+            predecessors.put(source, null);
+        }
+        boolean debug = TraversalLog.isDebugEnabled();
+        Deque<Node> stack = new ArrayDeque<>();
         stack.push(source);
         visited.add(source);
+        long scanned = 0;
+        int peak = 1;
 
         // Perform DFS traversal
         while (!stack.isEmpty()) {
+            peak = Math.max(peak, stack.size());
             Node current = stack.pop();
 
             // If destination is found, stop traversal
             if (current.equals(destination)) {
-                System.out.println("Destination node found: " + destination);
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + destination);
+                }
                 break;
             }
 
             // Process neighbors
             for (DefaultEdge edge : graph.outgoingEdgesOf(current)) {
                 Node neighbor = graph.getEdgeTarget(edge);
+                scanned++;
                 if (!visited.contains(neighbor)) {
                     stack.push(neighbor);
                     visited.add(neighbor);
                     predecessors.put(neighbor, current);
-                    System.out.println("Visiting node: " + neighbor);
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + neighbor);
+                    }
+                }
+            }
+        }
+        nodesVisited = visited.size();
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    private void performCompactTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        // Every vertex is pushed at most once, so the stack never outgrows the vertex count
+        int[] stack = workspace.buffer();
+        int size = 0;
+        stack[size++] = source;
+        long pushed = 1;
+        long scanned = 0;
+        int peak = 1;
+
+        while (size > 0) {
+            peak = Math.max(peak, size);
+            int current = stack[--size];
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + compactGraph.label(destination));
+                }
+                break;
+            }
+
+            scanned += compactGraph.outDegree(current);
+            for (int e = compactGraph.outStart(current), end = compactGraph.outEnd(current); e < end; e++) {
+                int neighbor = compactGraph.target(e);
+                if (workspace.visit(neighbor, current)) {
+                    stack[size++] = neighbor;
+                    pushed++;
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + compactGraph.label(neighbor));
+                    }
                 }
             }
         }
+        nodesVisited = pushed;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    // Same loop as the compact traversal over off-heap adjacency and workspace
+    private void performOffHeapTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int size = 0;
+        offHeapWorkspace.set(size++, source);
+        long pushed = 1;
+        long scanned = 0;
+        int peak = 1;
+
+        while (size > 0) {
+            peak = Math.max(peak, size);
+            int current = offHeapWorkspace.get(--size);
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + offHeapGraph.label(destination));
+                }
+                break;
+            }
+
+            scanned += offHeapGraph.outDegree(current);
+            for (int e = offHeapGraph.outStart(current), end = offHeapGraph.outEnd(current); e < end; e++) {
+                int neighbor = offHeapGraph.target(e);
+                if (offHeapWorkspace.visit(neighbor, current)) {
+                    offHeapWorkspace.set(size++, neighbor);
+                    pushed++;
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + offHeapGraph.label(neighbor));
+                    }
+                }
+            }
+        }
+        nodesVisited = pushed;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    // Same loop as the compact traversal, with JGraphT supplying the out-edges of each node id;
+    // returns false if it reaches a vertex that is not a canonical node of the table
+    private boolean performIndexedTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int[] stack = workspace.buffer();
+        int size = 0;
+        stack[size++] = source;
+        long pushed = 1;
+        long scanned = 0;
+        int peak = 1;
+
+        while (size > 0) {
+            peak = Math.max(peak, size);
+            int current = stack[--size];
+
+            if (current == destination) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + nodeTable.node(destination));
+                }
+                break;
+            }
+
+            for (DefaultEdge edge : graph.outgoingEdgesOf(nodeTable.node(current))) {
+                Node neighbor = graph.getEdgeTarget(edge);
+                scanned++;
+                if (!nodeTable.isCanonical(neighbor)) {
+                    return false;
+                }
+                if (workspace.visit(neighbor.getId(), current)) {
+                    stack[size++] = neighbor.getId();
+                    pushed++;
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + neighbor);
+                    }
+                }
+            }
+        }
+        nodesVisited = pushed;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+        return true;
     }
 
     @Override
     protected Node getPredecessor(Node node) {
         // Retrieve the predecessor of the given node
+        if (compactGraph != null) {
+            int id = compactGraph.idOf(node);
+            if (!workspace.isVisited(id)) {
+                return null;
+            }
+            int predecessor = workspace.predecessor(id);
+            return predecessor >= 0 ? compactGraph.node(predecessor) : null;
+        }
+        if (offHeapGraph != null) {
+            int id = offHeapGraph.idOf(node);
+            if (!offHeapWorkspace.isVisited(id)) {
+                return null;
+            }
+            int predecessor = offHeapWorkspace.predecessor(id);
+            return predecessor >= 0 ? offHeapGraph.node(predecessor) : null;
+        }
+        if (indexed) {
+            if (!workspace.isVisited(node.getId())) {
+                return null;
+            }
+            int predecessor = workspace.predecessor(node.getId());
+            return predecessor >= 0 ? nodeTable.node(predecessor) : null;
+        }
         return predecessors.get(node);
     }
+
+    @Override
+    protected void finishTraversal() {
+        if (workspace != null) {
+            workspace.release();
+            workspace = null;
+        }
+        if (offHeapWorkspace != null) {
+            offHeapGraph.releaseWorkspace(offHeapWorkspace);
+            offHeapWorkspace = null;
+        }
+    }
 }
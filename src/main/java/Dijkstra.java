@@ -0,0 +1,88 @@
+import java.util.Arrays;
+
+/**
+ * Weighted shortest path search over a {@link CsrGraph} using an {@link IndexedMinHeap}.
+ * Unweighted edges count as weight 1; negative weights are rejected.
+ */
+public class Dijkstra extends GraphTraversalTemplate {
+    private double[] distances;
+    private int[] predecessors;
+
+    public Dijkstra(CsrGraph compactGraph) {
+        super(compactGraph);
+    }
+
+    @Override
+    protected void initializeTraversal(Node source) {
+        int vertexCount = compactGraph.vertexCount();
+        distances = new double[vertexCount];
+        predecessors = new int[vertexCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+        distances[compactGraph.idOf(source)] = 0;
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing " + getClass().getSimpleName() + " traversal. Starting at node: " + source);
+        }
+    }
+
+    @Override
+    protected void performTraversal(Node source, Node destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        int target = compactGraph.idOf(destination);
+        IndexedMinHeap heap = new IndexedMinHeap(compactGraph.vertexCount());
+        int start = compactGraph.idOf(source);
+        heap.insertOrDecrease(start, estimate(start, target));
+        long settled = 0;
+        long scanned = 0;
+        int peak = 1;
+
+        while (!heap.isEmpty()) {
+            peak = Math.max(peak, heap.size());
+            int current = heap.poll();
+            settled++;
+            if (current == target) {
+                if (TraversalLog.isInfoEnabled()) {
+                    TraversalLog.info("Destination node found: " + destination + " at distance " + distances[target]);
+                }
+                break;
+            }
+            scanned += compactGraph.outDegree(current);
+            for (int e = compactGraph.outStart(current), end = compactGraph.outEnd(current); e < end; e++) {
+                double weight = compactGraph.weight(e);
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative edge weight from " + compactGraph.label(current)
+                            + " to " + compactGraph.label(compactGraph.target(e)) + ": " + weight);
+                }
+                int neighbor = compactGraph.target(e);
+                double distance = distances[current] + weight;
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = distance;
+                    predecessors[neighbor] = current;
+                    heap.insertOrDecrease(neighbor, distance + estimate(neighbor, target));
+                    if (debug) {
+                        TraversalLog.debug("Visiting node: " + compactGraph.label(neighbor));
+                    }
+                }
+            }
+        }
+        nodesVisited = settled;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+    }
+
+    // Lower bound on the distance from vertex to target; zero turns A* into Dijkstra
+    protected double estimate(int vertex, int target) {
+        return 0;
+    }
+
+    // Distance found by the last traversal, infinite if the node was not reached
+    public double getDistance(Node node) {
+        return distances[compactGraph.idOf(node)];
+    }
+
+    @Override
+    protected Node getPredecessor(Node node) {
+        int predecessor = predecessors[compactGraph.idOf(node)];
+        return predecessor >= 0 ? compactGraph.node(predecessor) : null;
+    }
+}
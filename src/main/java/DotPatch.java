@@ -0,0 +1,172 @@
+import org.jgrapht.Graph;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Change set for a DOT graph, applied by {@link GraphParser#applyPatch}. In text form each
+ * line is {@code +} or {@code -} followed by one DOT statement: {@code + a -> b [weight=2];}
+ * adds an edge, {@code - a;} removes a node together with its edges. Blank lines and lines
+ * starting with {@code #} or {@code //} are ignored. Removals are applied before additions,
+ * so a weight change is written as the edge's removal followed by its addition.
+ */
+public class DotPatch {
+    private final List<Node> addedNodes = new ArrayList<>();
+    private final List<GraphDelta.Edge> addedEdges = new ArrayList<>();
+    private final List<Node> removedNodes = new ArrayList<>();
+    private final List<GraphDelta.Edge> removedEdges = new ArrayList<>();
+
+    public List<Node> getAddedNodes() {
+        return Collections.unmodifiableList(addedNodes);
+    }
+
+    public List<GraphDelta.Edge> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    public List<Node> getRemovedNodes() {
+        return Collections.unmodifiableList(removedNodes);
+    }
+
+    public List<GraphDelta.Edge> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    public boolean isEmpty() {
+        return addedNodes.isEmpty() && addedEdges.isEmpty() && removedNodes.isEmpty() && removedEdges.isEmpty();
+    }
+
+    public static DotPatch read(Reader reader) throws IOException {
+        DotPatch patch = new DotPatch();
+        DotStreamParser.Handler additions = new DotStreamParser.Handler() {
+            @Override
+            public void node(String label) {
+                patch.addedNodes.add(new Node(label));
+            }
+
+            @Override
+            public void edge(String source, String target) {
+                patch.addedEdges.add(new GraphDelta.Edge(new Node(source), new Node(target)));
+            }
+
+            @Override
+            public void edge(String source, String target, double weight) {
+                patch.addedEdges.add(new GraphDelta.Edge(new Node(source), new Node(target), weight));
+            }
+        };
+        DotStreamParser.Handler removals = new DotStreamParser.Handler() {
+            @Override
+            public void node(String label) {
+                patch.removedNodes.add(new Node(label));
+            }
+
+            @Override
+            public void edge(String source, String target) {
+                patch.removedEdges.add(new GraphDelta.Edge(new Node(source), new Node(target)));
+            }
+        };
+
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String statement = line.strip();
+            if (statement.isEmpty() || statement.startsWith("#") || statement.startsWith("//")) {
+                continue;
+            }
+            char sign = statement.charAt(0);
+            if (sign != '+' && sign != '-') {
+                throw new IOException("Patch line " + lineNumber + " does not start with + or -: " + line);
+            }
+            DotStreamParser parser = new DotStreamParser(sign == '+' ? additions : removals);
+            parser.feed(statement.substring(1));
+            parser.finish();
+        }
+        return patch;
+    }
+
+    // Changes that turn the current graph into the target; unchanged nodes and edges are left out.
+    // Both sides are compared in CSR form, so the work is array scans rather than JGraphT lookups
+    static DotPatch diff(CsrGraph current, CsrGraph target) {
+        DotPatch patch = new DotPatch();
+        int[] currentId = new int[target.vertexCount()];   // target id -> current id, -1 if new
+        boolean[] kept = new boolean[current.vertexCount()];
+        for (int v = 0; v < currentId.length; v++) {
+            currentId[v] = current.idOf(target.label(v));
+            if (currentId[v] >= 0) {
+                kept[currentId[v]] = true;
+            } else {
+                patch.addedNodes.add(new Node(target.label(v)));
+            }
+        }
+        for (int c = 0; c < kept.length; c++) {
+            if (!kept[c]) {
+                patch.removedNodes.add(current.node(c));
+            }
+        }
+
+        // stamp[c] == v + 1 marks c as a current out-neighbour of v's counterpart; edgeAt gives that edge
+        int[] stamp = new int[current.vertexCount()];
+        int[] edgeAt = new int[current.vertexCount()];
+        for (int v = 0; v < currentId.length; v++) {
+            int source = currentId[v];
+            if (source >= 0) {
+                for (int e = current.outStart(source), end = current.outEnd(source); e < end; e++) {
+                    stamp[current.target(e)] = v + 1;
+                    edgeAt[current.target(e)] = e;
+                }
+            }
+            for (int e = target.outStart(v), end = target.outEnd(v); e < end; e++) {
+                int destination = currentId[target.target(e)];
+                if (source >= 0 && destination >= 0 && stamp[destination] == v + 1) {
+                    // Matched edges are unstamped, so the ones still stamped afterwards were removed
+                    stamp[destination] = 0;
+                    double weight = current.weight(edgeAt[destination]);
+                    if (weight == target.weight(e)) {
+                        continue;
+                    }
+                    patch.removedEdges.add(new GraphDelta.Edge(current.node(source), current.node(destination), weight));
+                }
+                patch.addedEdges.add(new GraphDelta.Edge(
+                        source >= 0 ? current.node(source) : new Node(target.label(v)),
+                        destination >= 0 ? current.node(destination) : new Node(target.label(target.target(e))),
+                        target.weight(e)));
+            }
+            // Edges into removed nodes go with those nodes
+            if (source >= 0) {
+                for (int e = current.outStart(source), end = current.outEnd(source); e < end; e++) {
+                    int destination = current.target(e);
+                    if (stamp[destination] == v + 1 && kept[destination]) {
+                        patch.removedEdges.add(new GraphDelta.Edge(current.node(source), current.node(destination),
+                                current.weight(e)));
+                    }
+                }
+            }
+        }
+        return patch;
+    }
+
+    // Patch that re-applies the delta, e.g. to replay a reload on another copy of the graph
+    public static void write(GraphDelta delta, Writer writer) throws IOException {
+        for (GraphDelta.Edge edge : delta.getRemovedEdges()) {
+            writer.write("- " + edge.getSource() + " -> " + edge.getTarget() + ";\n");
+        }
+        for (Node node : delta.getRemovedNodes()) {
+            writer.write("- " + node + ";\n");
+        }
+        for (Node node : delta.getAddedNodes()) {
+            writer.write("+ " + node + ";\n");
+        }
+        for (GraphDelta.Edge edge : delta.getAddedEdges()) {
+            writer.write("+ " + edge.getSource() + " -> " + edge.getTarget());
+            if (edge.getWeight() != Graph.DEFAULT_EDGE_WEIGHT) {
+                writer.write(" [weight=" + DotWriter.formatWeight(edge.getWeight()) + "]");
+            }
+            writer.write(";\n");
+        }
+        writer.flush();
+    }
+}
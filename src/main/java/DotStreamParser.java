@@ -0,0 +1,338 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental tokenizer for the DOT statements understood by {@link GraphParser}.
+ * Input is consumed in fixed-size chunks, so memory use does not depend on the file size.
+ * Handles chained edges ({@code a -> b -> c}), node statements, quoted IDs, attribute
+ * lists and comments; graph headers and {@code key=value} assignments are skipped.
+ * A {@code weight} attribute applies to every edge of its statement.
+ */
+public class DotStreamParser {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // Receives statements in the order they appear in the input
+    public interface Handler {
+        void node(String label);
+        void edge(String source, String target);
+
+        // Called instead of edge(source, target) when the statement has a weight attribute
+        default void edge(String source, String target, double weight) {
+            edge(source, target);
+        }
+    }
+
+    private enum State {
+        DEFAULT, ID, QUOTED, ATTRIBUTES, LINE_COMMENT, BLOCK_COMMENT
+    }
+
+    private final Handler handler;
+    private final StringBuilder token = new StringBuilder();
+    private final StringBuilder attributeToken = new StringBuilder();
+    private final List<String> chain = new ArrayList<>();   // IDs of the current edge statement
+
+    private State state = State.DEFAULT;
+    private char pending;              // '-' or '/' waiting for the next character
+    private boolean escaped;           // previous character inside a quoted ID was '\'
+    private boolean attributeQuoted;   // inside a quoted value of an attribute list
+    private String attributeKey;
+    private boolean attributeValue;    // '=' seen, the next token is the value
+    private char blockCommentLast;
+
+    // Current statement
+    private String last;               // last ID of the statement
+    private boolean arrow;             // an edge operator follows 'last'
+    private double weight = Double.NaN;
+    private boolean header;            // skipping "digraph G {" / "node [...]" style headers
+    private boolean assignment;        // skipping "key = value"
+
+    private long charsRead;
+
+    public DotStreamParser(Handler handler) {
+        this.handler = handler;
+    }
+
+    // Reads the whole stream chunk by chunk; the reader is not closed
+    public void parse(Reader reader) throws IOException {
+        parse(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public void parse(Reader reader, int bufferSize) throws IOException {
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            feed(buffer, 0, read);
+        }
+        finish();
+    }
+
+    public void feed(char[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            accept(buffer[i]);
+        }
+        charsRead += length;
+    }
+
+    public void feed(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            accept(chars.charAt(i));
+        }
+        charsRead += chars.length();
+    }
+
+    // Flushes the statement still open at the end of the input
+    public void finish() {
+        resolvePending();
+        if (state == State.ID || state == State.QUOTED) {
+            emitId();
+        }
+        state = State.DEFAULT;
+        endStatement();
+    }
+
+    public long getCharsRead() {
+        return charsRead;
+    }
+
+    private void accept(char c) {
+        switch (state) {
+            case QUOTED -> {
+                if (escaped) {
+                    escaped = false;
+                    if (c != '"') {
+                        token.append('\\');
+                    }
+                    token.append(c);
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    emitId();
+                    state = State.DEFAULT;
+                } else {
+                    token.append(c);
+                }
+            }
+            case ATTRIBUTES -> {
+                if (attributeQuoted) {
+                    if (escaped) {
+                        escaped = false;
+                        attributeToken.append(c);
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        attributeQuoted = false;
+                        if (attributeToken.length() == 0 && attributeValue) {
+                            // Empty quoted value
+                            attributeKey = null;
+                            attributeValue = false;
+                        }
+                        endAttributeToken();
+                    } else {
+                        attributeToken.append(c);
+                    }
+                } else if (c == '"') {
+                    attributeQuoted = true;
+                } else if (c == '=') {
+                    if (attributeToken.length() > 0) {
+                        attributeKey = attributeToken.toString();
+                        attributeToken.setLength(0);
+                    }
+                    attributeValue = true;
+                } else if (c == ']') {
+                    endAttributeToken();
+                    attributeKey = null;
+                    attributeValue = false;
+                    state = State.DEFAULT;
+                    if (header) {
+                        endStatement();
+                    }
+                } else if (c == ',' || c == ';' || Character.isWhitespace(c)) {
+                    endAttributeToken();
+                } else {
+                    attributeToken.append(c);
+                }
+            }
+            case LINE_COMMENT -> {
+                if (c == '\n') {
+                    state = State.DEFAULT;
+                }
+            }
+            case BLOCK_COMMENT -> {
+                if (blockCommentLast == '*' && c == '/') {
+                    state = State.DEFAULT;
+                    blockCommentLast = 0;
+                } else {
+                    blockCommentLast = c;
+                }
+            }
+            default -> acceptToken(c);
+        }
+    }
+
+    private void acceptToken(char c) {
+        if (pending == '-') {
+            pending = 0;
+            if (c == '>' || c == '-') {
+                endId();
+                arrow = last != null;
+                return;
+            }
+            // A lone '-' is part of an ID such as "-1"
+            startId();
+            token.append('-');
+        } else if (pending == '/') {
+            pending = 0;
+            if (c == '/' || c == '*') {
+                endId();
+                state = c == '/' ? State.LINE_COMMENT : State.BLOCK_COMMENT;
+                return;
+            }
+            startId();
+            token.append('/');
+        }
+
+        if (c == '-' || c == '/') {
+            pending = c;
+            return;
+        }
+        if (Character.isWhitespace(c)) {
+            endId();
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                endId();
+                state = State.QUOTED;
+            }
+            case '[' -> {
+                endId();
+                state = State.ATTRIBUTES;
+            }
+            case '#' -> {
+                if (state == State.ID) {
+                    token.append(c);
+                } else {
+                    state = State.LINE_COMMENT;
+                }
+            }
+            case ';', ',', '{', '}' -> {
+                endId();
+                endStatement();
+            }
+            case '=' -> {
+                endId();
+                assignment = true;
+                last = null;
+                arrow = false;
+            }
+            default -> {
+                startId();
+                token.append(c);
+            }
+        }
+    }
+
+    private void resolvePending() {
+        if (pending != 0) {
+            char c = pending;
+            pending = 0;
+            startId();
+            token.append(c);
+        }
+    }
+
+    private void startId() {
+        if (state != State.ID) {
+            state = State.ID;
+            token.setLength(0);
+        }
+    }
+
+    private void endId() {
+        if (state == State.ID) {
+            emitId();
+            state = State.DEFAULT;
+        }
+    }
+
+    private void emitId() {
+        String id = token.toString();
+        token.setLength(0);
+
+        if (assignment) {
+            // Right-hand side of "key = value"
+            assignment = false;
+            return;
+        }
+        if (header) {
+            return;
+        }
+        if (arrow) {
+            // Edges are reported when the statement ends, once its attributes are known
+            if (chain.isEmpty()) {
+                chain.add(last);
+            }
+            chain.add(id);
+            last = id;
+            arrow = false;
+            return;
+        }
+
+        // An ID without a preceding edge operator starts a new statement
+        endStatement();
+        if (last == null && isKeyword(id)) {
+            header = true;
+            return;
+        }
+        last = id;
+    }
+
+    private void endAttributeToken() {
+        if (attributeToken.length() == 0) {
+            return;
+        }
+        String value = attributeToken.toString();
+        attributeToken.setLength(0);
+        if (!attributeValue) {
+            attributeKey = value;
+            return;
+        }
+        if ("weight".equals(attributeKey) && !chain.isEmpty()) {
+            try {
+                weight = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid edge weight: " + value, e);
+            }
+        }
+        attributeKey = null;
+        attributeValue = false;
+    }
+
+    private void endStatement() {
+        if (!chain.isEmpty()) {
+            for (int i = 1; i < chain.size(); i++) {
+                if (Double.isNaN(weight)) {
+                    handler.edge(chain.get(i - 1), chain.get(i));
+                } else {
+                    handler.edge(chain.get(i - 1), chain.get(i), weight);
+                }
+            }
+            chain.clear();
+        } else if (last != null && !assignment) {
+            handler.node(last);
+        }
+        last = null;
+        arrow = false;
+        weight = Double.NaN;
+        header = false;
+        assignment = false;
+    }
+
+    private static boolean isKeyword(String id) {
+        return id.equalsIgnoreCase("digraph") || id.equalsIgnoreCase("graph")
+                || id.equalsIgnoreCase("strict") || id.equalsIgnoreCase("subgraph")
+                || id.equalsIgnoreCase("node") || id.equalsIgnoreCase("edge");
+    }
+}
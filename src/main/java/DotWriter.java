@@ -0,0 +1,83 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a graph in the DOT format produced by {@link GraphParser#outputDOTGraph}, one
+ * statement at a time through a fixed-size buffer, so memory use does not grow with the
+ * graph. Text is encoded as UTF-8, the charset every reader in this code base assumes,
+ * so non-ASCII labels round-trip on any platform.
+ */
+public class DotWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Graph<Node, DefaultEdge> graph;
+    private final boolean quoteIds;
+
+    public DotWriter(Graph<Node, DefaultEdge> graph) {
+        this(graph, false);
+    }
+
+    // Quoted IDs accept any label, which Graphviz needs; the file export keeps the bare IDs it always wrote
+    DotWriter(Graph<Node, DefaultEdge> graph, boolean quoteIds) {
+        this.graph = graph;
+        this.quoteIds = quoteIds;
+    }
+
+    public void write(String filePath, boolean gzip) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)), BUFFER_SIZE);
+             Writer writer = new OutputStreamWriter(gzip ? new GZIPOutputStream(file, BUFFER_SIZE) : file, StandardCharsets.UTF_8)) {
+            write(writer);
+        }
+    }
+
+    public void write(Writer writer) throws IOException {
+        writer.write("digraph G {\n");
+        for (Node vertex : graph.vertexSet()) {
+            writer.write('\t');
+            writeId(writer, vertex);
+            writer.write(";\n");
+        }
+        for (DefaultEdge edge : graph.edgeSet()) {
+            writer.write('\t');
+            writeId(writer, graph.getEdgeSource(edge));
+            writer.write(" -> ");
+            writeId(writer, graph.getEdgeTarget(edge));
+            double weight = graph.getEdgeWeight(edge);
+            if (weight != Graph.DEFAULT_EDGE_WEIGHT) {
+                writer.write(" [weight=");
+                writer.write(formatWeight(weight));
+                writer.write(']');
+            }
+            writer.write(";\n");
+        }
+        writer.write("}\n");
+        writer.flush();
+    }
+
+    private void writeId(Writer writer, Node node) throws IOException {
+        if (!quoteIds) {
+            writer.write(node.toString());
+            return;
+        }
+        String label = node.getLabel();
+        writer.write('"');
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    static String formatWeight(double weight) {
+        return weight == Math.rint(weight) && Math.abs(weight) < 1e15 ? Long.toString((long) weight) : Double.toString(weight);
+    }
+}
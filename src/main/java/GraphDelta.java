@@ -0,0 +1,129 @@
+import org.jgrapht.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What one bulk mutation of a {@link GraphParser} actually changed: the nodes and edges
+ * that were added or removed, in the order they were applied. Requested changes that were
+ * already in effect, such as an existing node or a duplicate edge, are left out.
+ */
+public class GraphDelta {
+    private final List<Node> addedNodes;
+    private final List<Edge> addedEdges;
+    private final List<Node> removedNodes;
+    private final List<Edge> removedEdges;
+
+    /**
+     * A directed edge request. Two edges are equal when they join the same endpoints, since
+     * the graph holds at most one edge per ordered pair whatever its weight.
+     */
+    public static final class Edge {
+        private final Node source;
+        private final Node target;
+        private final double weight;
+
+        public Edge(Node source, Node target) {
+            this(source, target, Graph.DEFAULT_EDGE_WEIGHT);
+        }
+
+        public Edge(Node source, Node target, double weight) {
+            this.source = source;
+            this.target = target;
+            this.weight = weight;
+        }
+
+        public Node getSource() {
+            return source;
+        }
+
+        public Node getTarget() {
+            return target;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Edge edge = (Edge) o;
+            return source.equals(edge.source) && target.equals(edge.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * source.hashCode() + target.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> " + target;
+        }
+    }
+
+    GraphDelta() {
+        this(0, 0, 0, 0);
+    }
+
+    // Presized for a bulk call that knows roughly how much it will change
+    GraphDelta(int addedNodes, int addedEdges, int removedNodes, int removedEdges) {
+        this.addedNodes = new ArrayList<>(addedNodes);
+        this.addedEdges = new ArrayList<>(addedEdges);
+        this.removedNodes = new ArrayList<>(removedNodes);
+        this.removedEdges = new ArrayList<>(removedEdges);
+    }
+
+    public List<Node> getAddedNodes() {
+        return Collections.unmodifiableList(addedNodes);
+    }
+
+    public List<Edge> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    public List<Node> getRemovedNodes() {
+        return Collections.unmodifiableList(removedNodes);
+    }
+
+    public List<Edge> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    public boolean isEmpty() {
+        return addedNodes.isEmpty() && addedEdges.isEmpty() && removedNodes.isEmpty() && removedEdges.isEmpty();
+    }
+
+    void nodeAdded(Node node) {
+        addedNodes.add(node);
+    }
+
+    void edgeAdded(Edge edge) {
+        addedEdges.add(edge);
+    }
+
+    void nodeRemoved(Node node) {
+        removedNodes.add(node);
+    }
+
+    void edgeRemoved(Edge edge) {
+        removedEdges.add(edge);
+    }
+
+    // Adds another delta's changes after this one's
+    void append(GraphDelta other) {
+        addedNodes.addAll(other.addedNodes);
+        addedEdges.addAll(other.addedEdges);
+        removedNodes.addAll(other.removedNodes);
+        removedEdges.addAll(other.removedEdges);
+    }
+
+    @Override
+    public String toString() {
+        return "+" + addedNodes.size() + " nodes, +" + addedEdges.size() + " edges, -"
+                + removedNodes.size() + " nodes, -" + removedEdges.size() + " edges";
+    }
+}
@@ -1,49 +1,388 @@
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import guru.nidi.graphviz.engine.*;
-import guru.nidi.graphviz.model.*;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
-
-import static guru.nidi.graphviz.model.Factory.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 public class GraphParser {
     private Graph<Node, DefaultEdge> graph;
+    private boolean compactBackend;
+    private CsrGraph compactGraph;
+    private ForkJoinPool searchPool = ForkJoinPool.commonPool();
+    private SearchCache searchCache;
+    private volatile ReachabilityIndex reachabilityIndex;   // read-only snapshots build it lazily from several threads
+    private AStarHeuristic heuristic = AStarHeuristic.ZERO;
+    private GraphSnapshot pendingSnapshot;   // loaded but not yet copied into graph
+    private OffHeapGraph offHeapGraph;   // likewise, for graphs loaded outside the heap
+    private final NodeTable nodeTable;
+    private boolean readOnly;   // set on the snapshots handed out by ConcurrentGraphParser
+    private long version;   // bumped by every change to the graph contents
 
     public enum Algorithm {
-        BFS, DFS, RANDOM_WALK
+        BFS, DFS, RANDOM_WALK, BIDIRECTIONAL_BFS, PARALLEL_BFS, DIJKSTRA, A_STAR
     }
 
     public GraphParser() {
-        this.graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+        this(new NodeTable());
+    }
+
+    private GraphParser(NodeTable nodeTable) {
+        // Weighted edges default to weight 1, so unweighted graphs behave as before
+        this.graph = new DefaultDirectedWeightedGraph<>(DefaultEdge.class);
+        this.nodeTable = nodeTable;
     }
 
     public Graph<Node, DefaultEdge> getGraph() {
-        return this.graph;
+        return graph();
+    }
+
+    // Interning table behind every node in the graph
+    public NodeTable getNodeTable() {
+        return nodeTable;
+    }
+
+    // Copies a loaded snapshot into the JGraphT graph the first time anything needs it
+    private Graph<Node, DefaultEdge> graph() {
+        if (pendingSnapshot != null) {
+            GraphSnapshot snapshot = pendingSnapshot;
+            pendingSnapshot = null;
+            snapshot.materialize(graph, nodeTable);
+        }
+        if (offHeapGraph != null) {
+            OffHeapGraph offHeap = offHeapGraph;
+            offHeapGraph = null;
+            offHeap.materialize(graph, nodeTable);
+        }
+        return graph;
+    }
+
+    // Serves graphSearch from a CSR snapshot that is rebuilt lazily after mutations.
+    // A DOT parse into an empty graph then builds only the snapshot
+    public void setCompactBackend(boolean enabled) {
+        checkWritable();
+        this.compactBackend = enabled;
+        if (!enabled) {
+            compactGraph = null;
+        }
+    }
+
+    public boolean isCompactBackend() {
+        return compactBackend;
+    }
+
+    // Heuristic used by A_STAR; it must never overestimate the remaining distance
+    public void setAStarHeuristic(AStarHeuristic heuristic) {
+        checkWritable();
+        this.heuristic = heuristic;
+        if (searchCache != null) {
+            searchCache.clear();
+        }
+    }
+
+    // Pool used by PARALLEL_BFS
+    public void setSearchPool(ForkJoinPool searchPool) {
+        checkWritable();
+        this.searchPool = searchPool;
+    }
+
+    // Caches graphSearch results up to the given total number of path nodes; RANDOM_WALK is never cached
+    public void enableSearchCache(long maxWeight) {
+        checkWritable();
+        this.searchCache = new SearchCache(maxWeight);
+    }
+
+    public void disableSearchCache() {
+        checkWritable();
+        this.searchCache = null;
+    }
+
+    public SearchCache getSearchCache() {
+        return searchCache;
+    }
+
+    public CsrGraph getCompactGraph() {
+        if (compactGraph == null) {
+            compactGraph = CsrGraph.fromGraph(graph());
+        }
+        return compactGraph;
+    }
+
+    // Changes whenever nodes or edges change, so equal versions of one graph have equal contents
+    public long getVersion() {
+        return version;
+    }
+
+    // Monte-Carlo walks over the current CSR snapshot on the search pool
+    public RandomWalkEngine getRandomWalkEngine(boolean selfAvoiding) {
+        return new RandomWalkEngine(getCompactGraph(), searchPool, selfAvoiding);
+    }
+
+    // Builds the reachability index on first use and again after any mutation
+    public ReachabilityIndex getReachabilityIndex() {
+        ReachabilityIndex index = reachabilityIndex;
+        if (index == null || index.isStale()) {
+            // Two readers of a snapshot may both build it; either result is correct and fully published
+            index = ReachabilityIndex.build(getCompactGraph());
+            reachabilityIndex = index;
+        }
+        return index;
+    }
+
+    public boolean isReachable(Node source, Node destination) {
+        return getReachabilityIndex().canReach(source, destination);
+    }
+
+    // Writes the graph in the binary snapshot format; a parsed or loaded graph not yet copied in is written as it is
+    public void saveSnapshot(String filePath) throws IOException {
+        if (pendingSnapshot != null) {
+            pendingSnapshot.write(filePath);
+        } else {
+            GraphSnapshot.write(graph(), getCompactGraph(), filePath);
+        }
+    }
+
+    // Replaces the graph with a snapshot; searches run on its CSR arrays before any Node is created
+    public void loadSnapshot(String filePath) throws IOException {
+        checkWritable();
+        GraphSnapshot snapshot = GraphSnapshot.read(filePath);
+        graph = new DefaultDirectedWeightedGraph<>(DefaultEdge.class);
+        nodeTable.clear();
+        graphChanged();
+        if (searchCache != null) {
+            searchCache.clear();
+        }
+        offHeapGraph = null;
+        compactGraph = snapshot.getCompactGraph();
+        pendingSnapshot = snapshot;
+    }
+
+    // Replaces the graph with a DOT file parsed straight into off-heap buffers; snapshots go through OffHeapGraph.open
+    public void loadOffHeap(String filePath) throws IOException {
+        loadOffHeap(OffHeapGraph.load(filePath));
+    }
+
+    // BFS and DFS run on the off-heap graph until something needs the JGraphT graph, which copies it in
+    public void loadOffHeap(OffHeapGraph offHeap) {
+        checkWritable();
+        graph = new DefaultDirectedWeightedGraph<>(DefaultEdge.class);
+        nodeTable.clear();
+        graphChanged();
+        if (searchCache != null) {
+            searchCache.clear();
+        }
+        pendingSnapshot = null;
+        offHeapGraph = offHeap;
+    }
+
+    // Off-heap graph still serving searches, or null once it has been copied into the JGraphT graph
+    public OffHeapGraph getOffHeapGraph() {
+        return offHeapGraph;
+    }
+
+    // Read-only copy for snapshot readers, with its CSR form built before any reader can see it
+    GraphParser frozenCopy() {
+        return copy().freeze();
+    }
+
+    // Writable copy that shares the immutable Node objects but has its own node table and graph
+    GraphParser copy() {
+        GraphParser copy = new GraphParser(nodeTable.copy());
+        Graph<Node, DefaultEdge> source = graph();
+        for (Node vertex : source.vertexSet()) {
+            copy.graph.addVertex(vertex);
+        }
+        for (DefaultEdge edge : source.edgeSet()) {
+            DefaultEdge copied = copy.graph.addEdge(source.getEdgeSource(edge), source.getEdgeTarget(edge));
+            double weight = source.getEdgeWeight(edge);
+            if (weight != Graph.DEFAULT_EDGE_WEIGHT) {
+                copy.graph.setEdgeWeight(copied, weight);
+            }
+        }
+        copy.searchPool = searchPool;
+        copy.heuristic = heuristic;
+        copy.version = version;
+        return copy;
+    }
+
+    // Makes this parser read-only and builds its CSR form, before it is shared with readers
+    GraphParser freeze() {
+        compactBackend = true;
+        compactGraph = CsrGraph.fromGraph(graph());
+        readOnly = true;
+        return this;
+    }
+
+    // Canonical node for a caller's copy. A loaded graph is copied in first, since its nodes are
+    // only interned then and looking them up earlier would miss them
+    private Node canonical(Node node) {
+        graph();
+        return nodeTable.canonical(node);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Graph snapshots are read-only.");
+        }
+    }
+
+    // Drops every structure derived from the current graph contents
+    private void graphChanged() {
+        version++;
+        compactGraph = null;
+        if (reachabilityIndex != null) {
+            reachabilityIndex.markStale();
+        }
     }
 
+    // Files ending in .gz are decompressed on the fly
     public void parseGraph(String filePath) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(filePath));
-        for (String line : lines) {
-            line = line.trim();
-            if (line.contains("->")) {
-                String[] parts = line.split("->");
-                Node source = new Node(parts[0].trim());
-                Node target = new Node(parts[1].replace(";", "").trim());
-                addNode(source);
-                addNode(target);
-                addEdge(source, target);
+        try (Reader reader = openDot(filePath)) {
+            parseGraph(reader);
+        }
+    }
+
+    private static Reader openDot(String filePath) throws IOException {
+        InputStream stream = Files.newInputStream(Paths.get(filePath));
+        try {
+            return new InputStreamReader(filePath.endsWith(".gz") ? new GZIPInputStream(stream, 1 << 16) : stream,
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    // Brings the graph in line with a new version of its DOT file by applying only the differences,
+    // so cached search results that the change does not touch survive the reload
+    public GraphDelta reloadGraph(String filePath) throws IOException {
+        checkWritable();
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        try (Reader reader = openDot(filePath)) {
+            new DotStreamParser(builder).parse(reader);
+        }
+        return applyPatch(DotPatch.diff(getCompactGraph(), builder.build()));
+    }
+
+    public GraphDelta applyPatch(String filePath) throws IOException {
+        try (Reader reader = openDot(filePath)) {
+            return applyPatch(DotPatch.read(reader));
+        }
+    }
+
+    // Applies removals, then additions; if any removed node or edge is missing nothing changes
+    public GraphDelta applyPatch(DotPatch patch) {
+        checkWritable();
+        Graph<Node, DefaultEdge> g = graph();
+        for (Node node : patch.getRemovedNodes()) {
+            Node canonical = canonical(node);
+            if (canonical == null || !g.containsVertex(canonical)) {
+                throw new IllegalArgumentException("Node " + node + " does not exist in the graph.");
             }
         }
+        GraphDelta delta = removeEdges(patch.getRemovedEdges());
+        delta.append(removeNodes(patch.getRemovedNodes()));
+        delta.append(addNodes(patch.getAddedNodes()));
+        delta.append(addEdges(patch.getAddedEdges()));
+        return delta;
+    }
+
+    // Streams DOT statements straight into the graph without holding the input in memory
+    public void parseGraph(Reader reader) throws IOException {
+        if (parsesCompact()) {
+            CsrGraph.Builder builder = new CsrGraph.Builder();
+            new DotStreamParser(builder).parse(reader);
+            loadCompact(builder);
+        } else {
+            new DotStreamParser(new GraphBuilder()).parse(reader);
+        }
+    }
+
+    // Tokenizes the memory-mapped file on the common fork-join pool
+    public void parseGraphParallel(String filePath) throws IOException {
+        parseGraphParallel(filePath, new ParallelDotLoader(ForkJoinPool.commonPool()));
+    }
+
+    public void parseGraphParallel(String filePath, int parallelism) throws IOException {
+        parseGraphParallel(filePath, parallelism, ParallelDotLoader.DEFAULT_CHUNK_SIZE);
+    }
+
+    // Chunk size is in bytes; smaller chunks spread small files over more workers
+    public void parseGraphParallel(String filePath, int parallelism, int chunkSize) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parseGraphParallel(filePath, new ParallelDotLoader(pool, chunkSize));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void parseGraphParallel(String filePath, ParallelDotLoader loader) throws IOException {
+        if (parsesCompact()) {
+            CsrGraph.Builder builder = new CsrGraph.Builder();
+            loader.load(filePath, builder);
+            loadCompact(builder);
+        } else {
+            loader.load(filePath, new GraphBuilder());
+        }
+    }
+
+    // With the compact backend on, a parse into an empty graph builds only the CSR arrays;
+    // like a loaded snapshot, they are copied into the JGraphT graph the first time it is needed
+    private boolean parsesCompact() {
+        checkWritable();
+        return compactBackend && pendingSnapshot == null && offHeapGraph == null && graph.vertexSet().isEmpty();
+    }
+
+    private void loadCompact(CsrGraph.Builder builder) {
+        GraphSnapshot parsed = GraphSnapshot.of(builder);
+        if (parsed.getCompactGraph().vertexCount() == 0) {
+            return;
+        }
+        graphChanged();
+        if (searchCache != null) {
+            searchCache.clear();
+        }
+        compactGraph = parsed.getCompactGraph();
+        pendingSnapshot = parsed;
+    }
+
+    // Applies parsed statements through the same addNode/addEdge path as the public API
+    private class GraphBuilder implements DotStreamParser.Handler {
+        @Override
+        public void node(String label) {
+            addNode(nodeTable.intern(label));
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel) {
+            edge(sourceLabel, targetLabel, Graph.DEFAULT_EDGE_WEIGHT);
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel, double weight) {
+            Node source = nodeTable.intern(sourceLabel);
+            Node target = nodeTable.intern(targetLabel);
+            addNode(source);
+            addNode(target);
+            addEdge(source, target, weight);
+        }
     }
 
     // Encapsulate Node Addition Logic
     private void ensureNodeExists(Node node) {
-        if (!graph.containsVertex(node)) {
-            graph.addVertex(node);
+        checkWritable();
+        // The graph only ever holds canonical nodes, so equal labels share one Node and id
+        Node canonical = nodeTable.intern(node);
+        if (!graph().containsVertex(canonical)) {
+            graph().addVertex(canonical);
+            // A new vertex has no edges, so cached paths are unaffected
+            graphChanged();
         }
     }
 
@@ -51,100 +390,337 @@ public class GraphParser {
         ensureNodeExists(node);
     }
 
-    public void addNodes(Node[] nodes) {
+    public GraphDelta addNodes(Node[] nodes) {
+        return addNodes(Arrays.asList(nodes));
+    }
+
+    // Adds the nodes not already in the graph; the delta lists them in order
+    public GraphDelta addNodes(Collection<Node> nodes) {
+        checkWritable();
+        for (Node node : nodes) {
+            if (node == null) {
+                throw new IllegalArgumentException("Node list contains null.");
+            }
+        }
+        GraphDelta delta = new GraphDelta();
         for (Node node : nodes) {
-            addNode(node);
+            Node canonical = nodeTable.intern(node);
+            if (graph().addVertex(canonical)) {
+                delta.nodeAdded(canonical);
+            }
         }
+        if (!delta.isEmpty()) {
+            graphChanged();
+        }
+        return delta;
     }
 
     // Encapsulate Edge Addition Logic
-    private void ensureEdgeExists(Node source, Node target) {
-        if (!graph.containsEdge(source, target)) {
-            if (graph.containsVertex(source) && graph.containsVertex(target)) {
-                graph.addEdge(source, target);
+    private void ensureEdgeExists(Node source, Node target, double weight) {
+        checkWritable();
+        Graph<Node, DefaultEdge> g = graph();
+        // Edges must reference the canonical endpoints rather than the caller's copies
+        Node canonicalSource = canonical(source);
+        Node canonicalTarget = canonical(target);
+        if (canonicalSource == null || canonicalTarget == null) {
+            return;
+        }
+        if (!g.containsEdge(canonicalSource, canonicalTarget)) {
+            if (g.containsVertex(canonicalSource) && g.containsVertex(canonicalTarget)) {
+                DefaultEdge edge = g.addEdge(canonicalSource, canonicalTarget);
+                if (weight != Graph.DEFAULT_EDGE_WEIGHT) {
+                    g.setEdgeWeight(edge, weight);
+                }
+                graphChanged();
+                if (searchCache != null) {
+                    searchCache.clear();
+                }
             }
         }
     }
 
     public void addEdge(Node source, Node target) {
-        ensureEdgeExists(source, target);
+        ensureEdgeExists(source, target, Graph.DEFAULT_EDGE_WEIGHT);
     }
 
-    public void outputDOTGraph(String filePath) throws IOException {
-        StringBuilder sb = new StringBuilder();
-        sb.append("digraph G {\n");
-        for (Node vertex : graph.vertexSet()) {
-            sb.append("\t").append(vertex).append(";\n");
+    // Adds the edges in order, creating missing endpoints the way DOT edge statements do.
+    // The whole batch is checked before anything changes; repeated and existing edges are skipped
+    public GraphDelta addEdges(Collection<GraphDelta.Edge> edges) {
+        checkWritable();
+        for (GraphDelta.Edge edge : edges) {
+            if (edge == null || edge.getSource() == null || edge.getTarget() == null) {
+                throw new IllegalArgumentException("Edge list contains a null edge or endpoint.");
+            }
         }
-        for (DefaultEdge edge : graph.edgeSet()) {
-            Node source = graph.getEdgeSource(edge);
-            Node target = graph.getEdgeTarget(edge);
-            sb.append("\t").append(source).append(" -> ").append(target).append(";\n");
+        Graph<Node, DefaultEdge> g = graph();
+        GraphDelta delta = new GraphDelta(0, edges.size(), 0, 0);
+        BitSet present = new BitSet(nodeTable.size());   // ids known to be vertices, to skip repeat lookups
+        for (GraphDelta.Edge edge : edges) {
+            Node source = bulkAddVertex(g, edge.getSource(), present, delta);
+            Node target = bulkAddVertex(g, edge.getTarget(), present, delta);
+            // The graph refuses a second edge between the same endpoints, which also drops repeats within the batch
+            DefaultEdge added = g.addEdge(source, target);
+            if (added == null) {
+                continue;
+            }
+            if (edge.getWeight() != Graph.DEFAULT_EDGE_WEIGHT) {
+                g.setEdgeWeight(added, edge.getWeight());
+            }
+            delta.edgeAdded(source == edge.getSource() && target == edge.getTarget()
+                    ? edge : new GraphDelta.Edge(source, target, edge.getWeight()));
+        }
+        if (!delta.isEmpty()) {
+            graphChanged();
+            if (searchCache != null && !delta.getAddedEdges().isEmpty()) {
+                searchCache.clear();
+            }
         }
-        sb.append("}\n");
-        Files.write(Paths.get(filePath), sb.toString().getBytes());
+        return delta;
     }
 
-    public void outputGraphics(String filePath, String format) throws IOException {
-        MutableGraph g = mutGraph("example").setDirected(true);
-        for (DefaultEdge edge : graph.edgeSet()) {
-            Node source = graph.getEdgeSource(edge);
-            Node target = graph.getEdgeTarget(edge);
-            g.add(mutNode(source.toString()).addLink(mutNode(target.toString())));
+    private Node bulkAddVertex(Graph<Node, DefaultEdge> g, Node node, BitSet present, GraphDelta delta) {
+        Node canonical = nodeTable.intern(node);
+        if (!present.get(canonical.getId())) {
+            present.set(canonical.getId());
+            if (g.addVertex(canonical)) {
+                delta.nodeAdded(canonical);
+            }
         }
-        Graphviz.fromGraph(g).render(Format.PNG).toFile(new File(filePath));
+        return canonical;
+    }
+
+    // An existing edge keeps its weight, matching the deduplication of addEdge
+    public void addEdge(Node source, Node target, double weight) {
+        ensureEdgeExists(source, target, weight);
+    }
+
+    public void outputDOTGraph(String filePath) throws IOException {
+        outputDOTGraph(filePath, false);
+    }
+
+    // Streams the DOT text to the file, gzip-compressed if requested
+    public void outputDOTGraph(String filePath, boolean gzip) throws IOException {
+        new DotWriter(graph()).write(filePath, gzip);
+    }
+
+    // Format is png, svg or dot; GraphRenderer does the same without blocking
+    public void outputGraphics(String filePath, String format) throws IOException {
+        byte[] image = GraphRenderer.render(GraphRenderer.toDot(graph()), GraphRenderer.format(format));
+        Files.write(Paths.get(filePath), image);
     }
 
     public Path graphSearch(Node sourceNode, Node destinationNode, Algorithm algo) {
+        // A fresh index answers unreachable queries without a traversal; like BFS, the path is just the destination
+        ReachabilityIndex index = reachabilityIndex;
+        if (algo != Algorithm.RANDOM_WALK && index != null && !index.isStale()
+                && compactGraph != null && compactGraph.idOf(sourceNode) >= 0 && compactGraph.idOf(destinationNode) >= 0
+                && !index.canReach(sourceNode, destinationNode)) {
+            Path path = new Path();
+            path.addNode(destinationNode);
+            return path;
+        }
+
+        // Random walks are meant to differ between calls, so they bypass the cache
+        if (searchCache == null || algo == Algorithm.RANDOM_WALK) {
+            return createTraversal(algo).traverse(sourceNode, destinationNode);
+        }
+        Path cached = searchCache.get(sourceNode, destinationNode, algo);
+        if (cached != null) {
+            return cached;
+        }
+        Path path = createTraversal(algo).traverse(sourceNode, destinationNode);
+        searchCache.put(sourceNode, destinationNode, algo, path);
+        return path;
+    }
+
+    // One traversal from the source answers every destination; supports BFS, DFS and DIJKSTRA
+    public Map<Node, Path> graphSearch(Node sourceNode, Collection<Node> destinationNodes, Algorithm algo) {
+        return new BatchSearch(getCompactGraph(), searchPool).search(sourceNode, destinationNodes, algo);
+    }
+
+    // Many-to-many variant; distinct sources are searched in parallel on the search pool
+    public Map<Node, Map<Node, Path>> graphSearch(Collection<Node> sourceNodes, Collection<Node> destinationNodes, Algorithm algo) {
+        return new BatchSearch(getCompactGraph(), searchPool).search(sourceNodes, destinationNodes, algo);
+    }
+
+    // Nodes in BFS or DFS order from the source, at most maxDepth edges deep, discovered only as they are pulled
+    public TraversalIterator traversalIterator(Node sourceNode, Algorithm algo, int maxDepth) {
+        GraphTraversalStrategy strategy = switch (algo) {
+            case BFS -> new LazyBFS();
+            case DFS -> new LazyDFS();
+            default -> throw new IllegalArgumentException("Unsupported lazy traversal: " + algo);
+        };
+        Node source = canonical(sourceNode);
+        return strategy.iterator(graph(), source != null ? source : sourceNode, maxDepth);
+    }
+
+    public Stream<Node> traversalStream(Node sourceNode, Algorithm algo, int maxDepth) {
+        return traversalIterator(sourceNode, algo, maxDepth).stream();
+    }
+
+    private GraphTraversalTemplate createTraversal(Algorithm algo) {
         GraphTraversalTemplate traversalTemplate;
 
         // Select the appropriate traversal strategy dynamically
-        switch (algo) {
-            case BFS -> traversalTemplate = new BFS(graph);
-            case DFS -> traversalTemplate = new DFS(graph);
-            case RANDOM_WALK -> traversalTemplate = new RandomWalk(graph);
-            default -> throw new IllegalArgumentException("Unsupported algorithm: " + algo);
+        if (offHeapGraph != null && algo == Algorithm.BFS) {
+            traversalTemplate = new BFS(offHeapGraph);
+        } else if (offHeapGraph != null && algo == Algorithm.DFS) {
+            traversalTemplate = new DFS(offHeapGraph);
+        } else if (compactBackend) {
+            CsrGraph compact = getCompactGraph();
+            switch (algo) {
+                case BFS -> traversalTemplate = new BFS(compact);
+                case DFS -> traversalTemplate = new DFS(compact);
+                case RANDOM_WALK -> traversalTemplate = new RandomWalk(compact);
+                case BIDIRECTIONAL_BFS -> traversalTemplate = new BidirectionalBFS(compact);
+                case PARALLEL_BFS -> traversalTemplate = new ParallelBFS(compact, searchPool);
+                case DIJKSTRA -> traversalTemplate = new Dijkstra(compact);
+                case A_STAR -> traversalTemplate = new AStar(compact, heuristic);
+                default -> throw new IllegalArgumentException("Unsupported algorithm: " + algo);
+            }
+        } else {
+            switch (algo) {
+                case BFS -> traversalTemplate = new BFS(graph(), nodeTable);
+                case DFS -> traversalTemplate = new DFS(graph(), nodeTable);
+                case RANDOM_WALK -> traversalTemplate = new RandomWalk(graph());
+                case BIDIRECTIONAL_BFS -> traversalTemplate = new BidirectionalBFS(graph());
+                // Level-synchronous expansion needs int ids, so it always runs on the CSR snapshot
+                case PARALLEL_BFS -> traversalTemplate = new ParallelBFS(getCompactGraph(), searchPool);
+                // Weighted searches use the primitive heap over the CSR snapshot and its weight array
+                case DIJKSTRA -> traversalTemplate = new Dijkstra(getCompactGraph());
+                case A_STAR -> traversalTemplate = new AStar(getCompactGraph(), heuristic);
+                default -> throw new IllegalArgumentException("Unsupported algorithm: " + algo);
+            }
         }
-
-        // Use the selected strategy to perform the traversal
-        return traversalTemplate.traverse(sourceNode, destinationNode);
+        return traversalTemplate;
     }
 
     public void removeNode(Node node) {
-        if (!graph.containsVertex(node)) {
+        checkWritable();
+        if (!graph().containsVertex(node)) {
             throw new IllegalArgumentException("Node " + node + " does not exist in the graph.");
         }
-        graph.removeVertex(node);
+        graph().removeVertex(node);
+        nodeTable.release(nodeTable.canonical(node));
+        graphChanged();
+        if (searchCache != null) {
+            searchCache.invalidateNode(node);
+        }
+    }
+
+    public GraphDelta removeNodes(Node[] nodes) {
+        return removeNodes(Arrays.asList(nodes));
     }
 
-    public void removeNodes(Node[] nodes) {
+    // Removes the nodes and their edges, or nothing at all if any node is missing
+    public GraphDelta removeNodes(Collection<Node> nodes) {
+        checkWritable();
+        Graph<Node, DefaultEdge> g = graph();
+        List<Node> removals = new ArrayList<>(nodes.size());
+        BitSet removing = new BitSet(nodeTable.size());
+        long edges = 0;
+        // Validates every node before anything changes
         for (Node node : nodes) {
-            removeNode(node);
+            Node canonical = node != null ? canonical(node) : null;
+            if (canonical == null || !g.containsVertex(canonical)) {
+                throw new IllegalArgumentException("Node " + node + " does not exist in the graph.");
+            }
+            if (!removing.get(canonical.getId())) {
+                removing.set(canonical.getId());
+                removals.add(canonical);
+                edges += g.degreeOf(canonical);
+            }
+        }
+        GraphDelta delta = new GraphDelta(0, 0, removals.size(), (int) Math.min(edges, Integer.MAX_VALUE - 8));
+        // Each vertex's edges are recorded just before removeVertex drops them, so an edge between
+        // two removed nodes is recorded once, from whichever comes first, and a self-loop once as outgoing
+        for (Node node : removals) {
+            for (DefaultEdge edge : g.outgoingEdgesOf(node)) {
+                delta.edgeRemoved(new GraphDelta.Edge(node, g.getEdgeTarget(edge), g.getEdgeWeight(edge)));
+            }
+            for (DefaultEdge edge : g.incomingEdgesOf(node)) {
+                Node source = g.getEdgeSource(edge);
+                if (source != node) {
+                    delta.edgeRemoved(new GraphDelta.Edge(source, node, g.getEdgeWeight(edge)));
+                }
+            }
+            g.removeVertex(node);
+            nodeTable.release(node);
+            delta.nodeRemoved(node);
+            if (searchCache != null) {
+                searchCache.invalidateNode(node);
+            }
+        }
+        if (!delta.isEmpty()) {
+            graphChanged();
         }
+        return delta;
     }
 
     public void removeEdge(Node source, Node target) {
-        DefaultEdge edge = graph.getEdge(source, target);
+        checkWritable();
+        DefaultEdge edge = graph().getEdge(source, target);
         if (edge == null) {
             throw new IllegalArgumentException("Edge from " + source + " to " + target + " does not exist in the graph.");
         }
-        graph.removeEdge(edge);
+        graph().removeEdge(edge);
+        graphChanged();
+        if (searchCache != null) {
+            searchCache.invalidateEdge(source, target);
+        }
+    }
+
+    // Removes the edges, or nothing at all if any of them is missing
+    public GraphDelta removeEdges(Collection<GraphDelta.Edge> edges) {
+        checkWritable();
+        Graph<Node, DefaultEdge> g = graph();
+        List<DefaultEdge> removals = new ArrayList<>(edges.size());
+        LongHashSet seen = new LongHashSet(edges.size());
+        for (GraphDelta.Edge edge : edges) {
+            if (edge == null || edge.getSource() == null || edge.getTarget() == null) {
+                throw new IllegalArgumentException("Edge list contains a null edge or endpoint.");
+            }
+            Node source = canonical(edge.getSource());
+            Node target = canonical(edge.getTarget());
+            DefaultEdge existing = source != null && target != null ? g.getEdge(source, target) : null;
+            if (existing == null) {
+                throw new IllegalArgumentException("Edge from " + edge.getSource() + " to " + edge.getTarget()
+                        + " does not exist in the graph.");
+            }
+            if (seen.add(LongHashSet.pair(source.getId(), target.getId()))) {
+                removals.add(existing);
+            }
+        }
+        GraphDelta delta = new GraphDelta();
+        for (DefaultEdge edge : removals) {
+            Node source = g.getEdgeSource(edge);
+            Node target = g.getEdgeTarget(edge);
+            delta.edgeRemoved(new GraphDelta.Edge(source, target, g.getEdgeWeight(edge)));
+            g.removeEdge(edge);
+            if (searchCache != null) {
+                searchCache.invalidateEdge(source, target);
+            }
+        }
+        if (!delta.isEmpty()) {
+            graphChanged();
+        }
+        return delta;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Graph: \n");
-        sb.append("Nodes: ").append(graph.vertexSet().size()).append("\n");
-        sb.append("Edges: ").append(graph.edgeSet().size()).append("\n");
+        sb.append("Nodes: ").append(graph().vertexSet().size()).append("\n");
+        sb.append("Edges: ").append(graph().edgeSet().size()).append("\n");
 
-        graph.edgeSet().forEach(edge -> {
-            Node source = graph.getEdgeSource(edge);
-            Node target = graph.getEdgeTarget(edge);
+        graph().edgeSet().forEach(edge -> {
+            Node source = graph().getEdgeSource(edge);
+            Node target = graph().getEdgeTarget(edge);
             sb.append(source).append(" -> ").append(target).append("\n");
         });
 
-        graph.vertexSet().stream()
-                .filter(vertex -> graph.edgesOf(vertex).isEmpty())
+        graph().vertexSet().stream()
+                .filter(vertex -> graph().edgesOf(vertex).isEmpty())
                 .forEach(vertex -> sb.append(vertex).append("\n"));
 
         return sb.toString();
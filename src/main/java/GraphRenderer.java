@@ -0,0 +1,274 @@
+import guru.nidi.graphviz.engine.Format;
+import guru.nidi.graphviz.engine.Graphviz;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.AsSubgraph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Renders a graph, an induced subgraph or a k-hop neighbourhood to PNG, SVG or DOT without
+ * blocking the caller. The view is cut out and written as DOT text on the calling thread,
+ * which is a linear pass; layout and rasterizing run on a bounded pool of daemon threads.
+ * Results are cached by graph version, view and format, so an unchanged view is rendered
+ * once, and identical requests made while it renders share that render. The JavaScript
+ * Graphviz engine keeps one runtime per thread, so the pool's threads lay out in parallel,
+ * but each pays a start-up of a second or two on its first render. Pool threads are kept
+ * alive for that reason, and one renderer should be shared rather than created per call.
+ */
+public class GraphRenderer implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_CACHE_ENTRIES = 64;
+
+    private final Supplier<GraphParser> source;
+    private final ThreadPoolExecutor executor;
+    private final int cacheEntries;
+    private final LinkedHashMap<Key, CompletableFuture<byte[]>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long renders;
+
+    public GraphRenderer(GraphParser parser) {
+        this(() -> parser, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_ENTRIES);
+    }
+
+    // Each render reads the latest snapshot, so it is safe while writers are active
+    public GraphRenderer(ConcurrentGraphParser parser) {
+        this(parser::snapshot, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_ENTRIES);
+    }
+
+    public GraphRenderer(GraphParser parser, int threads, int queueCapacity, int cacheEntries) {
+        this(() -> parser, threads, queueCapacity, cacheEntries);
+    }
+
+    private GraphRenderer(Supplier<GraphParser> source, int threads, int queueCapacity, int cacheEntries) {
+        if (threads <= 0 || queueCapacity <= 0 || cacheEntries < 0) {
+            throw new IllegalArgumentException("Thread count and queue capacity must be positive, cache size not negative.");
+        }
+        this.source = source;
+        this.cacheEntries = cacheEntries;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "graph-renderer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Format names are matched case-insensitively: png, svg or dot
+    static Format format(String name) {
+        switch (name == null ? "" : name.toLowerCase(Locale.ROOT)) {
+            case "png":
+                return Format.PNG;
+            case "svg":
+                return Format.SVG;
+            case "dot":
+                return Format.DOT;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + name + " (expected png, svg or dot)");
+        }
+    }
+
+    // Renders DOT text synchronously; DOT output is the text itself, with no layout
+    static byte[] render(String dot, Format format) throws IOException {
+        if (format == Format.DOT) {
+            return dot.getBytes(StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Graphviz.fromString(dot).render(format).toOutputStream(output);
+        return output.toByteArray();
+    }
+
+    static String toDot(Graph<Node, DefaultEdge> graph) {
+        StringWriter text = new StringWriter();
+        try {
+            new DotWriter(graph, true).write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return text.toString();
+    }
+
+    public CompletableFuture<byte[]> render(String format) {
+        GraphParser parser = source.get();
+        return render(parser.getVersion(), "all", format, () -> toDot(parser.getGraph()));
+    }
+
+    // The nodes and the edges between them
+    public CompletableFuture<byte[]> renderSubgraph(Collection<Node> nodes, String format) {
+        GraphParser parser = source.get();
+        Set<Node> vertices = new LinkedHashSet<>();
+        for (Node node : nodes) {
+            vertices.add(canonical(parser, node));
+        }
+        List<String> labels = new ArrayList<>();
+        vertices.forEach(vertex -> labels.add(vertex.getLabel()));
+        Collections.sort(labels);
+        return render(parser.getVersion(), List.of("subgraph", List.copyOf(labels)), format,
+                () -> toDot(new AsSubgraph<>(parser.getGraph(), vertices)));
+    }
+
+    // Every node within the given number of hops of the centre along edges in either direction
+    public CompletableFuture<byte[]> renderNeighbourhood(Node center, int hops, String format) {
+        if (hops < 0) {
+            throw new IllegalArgumentException("Hop count must not be negative: " + hops);
+        }
+        GraphParser parser = source.get();
+        Node start = canonical(parser, center);
+        return render(parser.getVersion(), List.of("neighbourhood", start.getLabel(), hops), format,
+                () -> toDot(new AsSubgraph<>(parser.getGraph(), neighbourhood(parser.getGraph(), start, hops))));
+    }
+
+    // One render per centre; they run concurrently on the pool
+    public Map<Node, CompletableFuture<byte[]>> renderNeighbourhoods(Collection<Node> centers, int hops, String format) {
+        Map<Node, CompletableFuture<byte[]>> renders = new LinkedHashMap<>();
+        for (Node center : centers) {
+            renders.computeIfAbsent(center, node -> renderNeighbourhood(node, hops, format));
+        }
+        return renders;
+    }
+
+    public CompletableFuture<Void> renderToFile(String filePath, String format) {
+        return render(format).thenAccept(bytes -> {
+            try {
+                Files.write(Paths.get(filePath), bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Node canonical(GraphParser parser, Node node) {
+        Node canonical = parser.getNodeTable().canonical(node);
+        if (canonical == null || !parser.getGraph().containsVertex(canonical)) {
+            throw new IllegalArgumentException("Node " + node + " does not exist in the graph.");
+        }
+        return canonical;
+    }
+
+    private static Set<Node> neighbourhood(Graph<Node, DefaultEdge> graph, Node center, int hops) {
+        Set<Node> reached = new LinkedHashSet<>();
+        reached.add(center);
+        List<Node> frontier = List.of(center);
+        for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+            List<Node> next = new ArrayList<>();
+            for (Node node : frontier) {
+                for (DefaultEdge edge : graph.outgoingEdgesOf(node)) {
+                    if (reached.add(graph.getEdgeTarget(edge))) {
+                        next.add(graph.getEdgeTarget(edge));
+                    }
+                }
+                for (DefaultEdge edge : graph.incomingEdgesOf(node)) {
+                    if (reached.add(graph.getEdgeSource(edge))) {
+                        next.add(graph.getEdgeSource(edge));
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return reached;
+    }
+
+    private CompletableFuture<byte[]> render(long version, Object view, String formatName, Supplier<String> dot) {
+        Format format = format(formatName);
+        Key key = new Key(version, view, format);
+        CompletableFuture<byte[]> result;
+        synchronized (this) {
+            result = cache.get(key);
+            if (result != null) {
+                hits++;
+                return result.thenApply(byte[]::clone);
+            }
+            result = new CompletableFuture<>();
+            renders++;
+            if (cacheEntries > 0) {
+                cache.put(key, result);
+                if (cache.size() > cacheEntries) {
+                    Iterator<CompletableFuture<byte[]>> eldest = cache.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        // Cut the view out now, while the caller still owns the graph
+        String text;
+        try {
+            text = dot.get();
+        } catch (RuntimeException e) {
+            fail(key, result, e);
+            return result;
+        }
+        CompletableFuture<byte[]> pending = result;
+        try {
+            executor.execute(() -> {
+                try {
+                    pending.complete(render(text, format));
+                } catch (IOException | RuntimeException e) {
+                    fail(key, pending, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(key, pending, e);
+        }
+        return result.thenApply(byte[]::clone);
+    }
+
+    // Failed renders are not cached, so a retry renders again
+    private void fail(Key key, CompletableFuture<byte[]> result, Throwable cause) {
+        synchronized (this) {
+            cache.remove(key, result);
+        }
+        result.completeExceptionally(cause);
+    }
+
+    public synchronized long getCacheHits() {
+        return hits;
+    }
+
+    // Renders started, including failed ones; cache hits are not counted
+    public synchronized long getRenders() {
+        return renders;
+    }
+
+    public synchronized void clearCache() {
+        cache.clear();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static final class Key {
+        private final long version;
+        private final Object view;   // "all", or a list describing the subgraph; never a joined string, which could collide
+        private final Format format;
+
+        Key(long version, Object view, Format format) {
+            this.version = version;
+            this.view = view;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return version == key.version && view.equals(key.view) && format == key.format;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, view, format);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary graph snapshot. After a 32-byte header (magic, version, flags, vertex count,
+ * edge count, label byte count) the file holds the UTF-8 label table, the CSR arrays
+ * of a {@link CsrGraph}, the order in which edges were originally added, the weights of
+ * weighted graphs and a trailing CRC32 of everything before it. Little-endian throughout.
+ * Reading maps the file in chunks only to copy the arrays onto the heap in bulk, so a loaded
+ * snapshot does not keep the file mapped; {@link OffHeapGraph#open} serves searches from the
+ * mapping itself. No {@link Node} is created until the graph is materialized.
+ */
+public class GraphSnapshot {
+    static final int MAGIC = 0x504E5347;   // "GSNP" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int FLAG_WEIGHTED = 1;
+    private static final int WRITE_BUFFER = 1 << 20;
+
+    private final CsrGraph compactGraph;
+    private final int[] edgeOrder;   // CSR position of each edge, in original insertion order
+
+    private GraphSnapshot(CsrGraph compactGraph, int[] edgeOrder) {
+        this.compactGraph = compactGraph;
+        this.edgeOrder = edgeOrder;
+    }
+
+    // Freshly parsed graph in the same form, so it too can be copied into JGraphT only when needed
+    static GraphSnapshot of(CsrGraph.Builder builder) {
+        int[] edgeOrder = new int[builder.edgeCount()];
+        return new GraphSnapshot(builder.build(edgeOrder), edgeOrder);
+    }
+
+    public CsrGraph getCompactGraph() {
+        return compactGraph;
+    }
+
+    // Adds the snapshot to an empty graph using the table's canonical nodes, edges in their original order
+    public void materialize(Graph<Node, DefaultEdge> graph, NodeTable nodeTable) {
+        int vertexCount = compactGraph.vertexCount();
+        Node[] nodes = new Node[vertexCount];
+        int[] sourceOf = new int[compactGraph.edgeCount()];
+        for (int v = 0; v < vertexCount; v++) {
+            nodes[v] = nodeTable.intern(compactGraph.label(v));
+            graph.addVertex(nodes[v]);
+            for (int e = compactGraph.outStart(v), end = compactGraph.outEnd(v); e < end; e++) {
+                sourceOf[e] = v;
+            }
+        }
+        for (int position : edgeOrder) {
+            DefaultEdge edge = graph.addEdge(nodes[sourceOf[position]], nodes[compactGraph.target(position)]);
+            if (compactGraph.isWeighted() && compactGraph.weight(position) != Graph.DEFAULT_EDGE_WEIGHT) {
+                graph.setEdgeWeight(edge, compactGraph.weight(position));
+            }
+        }
+    }
+
+    // Writes the graph, keeping the order of graph.edgeSet(); compactGraph must be the CSR form of graph
+    public static void write(Graph<Node, DefaultEdge> graph, CsrGraph compactGraph, String filePath) throws IOException {
+        // An edge's rank among its source's edges in edgeSet order is its rank in outgoingEdgesOf
+        int vertexCount = compactGraph.vertexCount();
+        int[] next = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            next[v] = compactGraph.outStart(v);
+        }
+        int[] edgeOrder = new int[compactGraph.edgeCount()];
+        int k = 0;
+        for (DefaultEdge edge : graph.edgeSet()) {
+            edgeOrder[k++] = next[compactGraph.idOf(graph.getEdgeSource(edge))]++;
+        }
+        write(compactGraph, edgeOrder, filePath);
+    }
+
+    // Writes this snapshot straight from its arrays, without a JGraphT graph
+    public void write(String filePath) throws IOException {
+        write(compactGraph, edgeOrder, filePath);
+    }
+
+    private static void write(CsrGraph compactGraph, int[] edgeOrder, String filePath) throws IOException {
+        int vertexCount = compactGraph.vertexCount();
+        int edgeCount = compactGraph.edgeCount();
+        long labelBytes = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            labelBytes += utf8Length(compactGraph.label(v));
+        }
+        if (labelBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Labels too large for a snapshot: " + labelBytes + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(compactGraph.isWeighted() ? FLAG_WEIGHTED : 0);
+            out.putInt(vertexCount);
+            out.putInt(edgeCount);
+            out.putInt((int) labelBytes);
+            out.putInt(0);
+            out.putInt(0);
+
+            int labelOffset = 0;
+            out.putInt(0);
+            for (int v = 0; v < vertexCount; v++) {
+                labelOffset += utf8Length(compactGraph.label(v));
+                out.putInt(labelOffset);
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                out.putBytes(compactGraph.label(v).getBytes(StandardCharsets.UTF_8));
+            }
+            out.pad();
+            for (int v = 0; v <= vertexCount; v++) {
+                out.putInt(v < vertexCount ? compactGraph.outStart(v) : edgeCount);
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                out.putInt(compactGraph.target(e));
+            }
+            for (int position : edgeOrder) {
+                out.putInt(position);
+            }
+            out.pad();
+            if (compactGraph.isWeighted()) {
+                for (int e = 0; e < edgeCount; e++) {
+                    out.putDouble(compactGraph.weight(e));
+                }
+            }
+            out.finish();
+        }
+    }
+
+    // The file is mapped in chunks, so snapshots over 2 GiB load as long as each array fits in an int index
+    public static GraphSnapshot read(String filePath) throws IOException {
+        LargeBuffer image;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES + 8) {
+                throw new IOException("Not a graph snapshot: " + filePath);
+            }
+            image = LargeBuffer.map(channel);
+        }
+        if (image.getInt(0) != MAGIC) {
+            throw new IOException("Not a graph snapshot: " + filePath);
+        }
+        if (image.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + image.getInt(4) + " in " + filePath);
+        }
+        long bodyEnd = image.capacity() - 8;
+        CRC32 crc = new CRC32();
+        for (ByteBuffer slice : image.slices(0, bodyEnd)) {
+            crc.update(slice);
+        }
+        // The body ends padded to 8 bytes, so the checksum never straddles two chunks
+        if ((bodyEnd & 7) != 0 || crc.getValue() != image.getLong(bodyEnd)) {
+            throw new IOException("Snapshot checksum mismatch in " + filePath);
+        }
+
+        boolean weighted = (image.getInt(8) & FLAG_WEIGHTED) != 0;
+        int vertexCount = image.getInt(12);
+        int edgeCount = image.getInt(16);
+        int labelBytes = image.getInt(20);
+        long position = HEADER_BYTES;
+
+        int[] labelOffsets = getInts(image, position, vertexCount + 1);
+        position += 4L * (vertexCount + 1);
+        byte[] labelData = new byte[labelBytes];
+        image.get(position, labelData);
+        position = align(position + labelBytes);
+        String[] labels = new String[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            labels[v] = new String(labelData, labelOffsets[v], labelOffsets[v + 1] - labelOffsets[v], StandardCharsets.UTF_8);
+        }
+        int[] offsets = getInts(image, position, vertexCount + 1);
+        position += 4L * (vertexCount + 1);
+        int[] targets = getInts(image, position, edgeCount);
+        position += 4L * edgeCount;
+        int[] edgeOrder = getInts(image, position, edgeCount);
+        position = align(position + 4L * edgeCount);
+        double[] weights = null;
+        if (weighted) {
+            weights = new double[edgeCount];
+            int filled = 0;
+            for (ByteBuffer slice : image.slices(position, 8L * edgeCount)) {
+                DoubleBuffer values = slice.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                int count = values.remaining();
+                values.get(weights, filled, count);
+                filled += count;
+            }
+        }
+        return new GraphSnapshot(CsrGraph.of(labels, offsets, targets, weights), edgeOrder);
+    }
+
+    // Chunk boundaries fall on multiples of 8, so an aligned int section never splits a value
+    private static int[] getInts(LargeBuffer image, long position, int count) {
+        int[] values = new int[count];
+        int filled = 0;
+        for (ByteBuffer slice : image.slices(position, 4L * count)) {
+            IntBuffer ints = slice.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int length = ints.remaining();
+            ints.get(values, filled, length);
+            filled += length;
+        }
+        return values;
+    }
+
+    // Sections that follow byte or int data start on an 8-byte boundary
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static int utf8Length(String label) {
+        int length = 0;
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < label.length() && Character.isLowSurrogate(label.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // Unpaired surrogates are encoded as a single '?'
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+
+    // Buffered little-endian channel writer that keeps a running CRC32 of what it wrote
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long written;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(bytes.length - offset, buffer.remaining());
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void pad() throws IOException {
+            while (((written + buffer.position()) & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            ensure(8);
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            written += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -1,6 +1,34 @@
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultEdge;
 
+import java.util.stream.Stream;
+
+/**
+ * A traversal order that can be pulled one node at a time. Implementations discover nodes
+ * lazily, so consuming the first k nodes costs about the out-degrees of those k nodes, not
+ * a traversal of everything reachable. The graph must not change while a traversal is in use.
+ */
 public interface GraphTraversalStrategy {
-    Path traverse(Graph<Node, DefaultEdge> graph, Node source, Node destination);
+    // Nodes reachable from the source, source first, at most maxDepth edges away
+    TraversalIterator iterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth);
+
+    default Stream<Node> stream(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+        return iterator(graph, source, maxDepth).stream();
+    }
+
+    // Stops as soon as the destination is reached; like BFS, an unreachable destination gives just itself
+    default Path traverse(Graph<Node, DefaultEdge> graph, Node source, Node destination) {
+        if (!graph.containsVertex(destination)) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        TraversalIterator nodes = iterator(graph, source, Integer.MAX_VALUE);
+        while (nodes.hasNext()) {
+            if (nodes.next().equals(destination)) {
+                return nodes.pathTo(destination);
+            }
+        }
+        Path path = new Path();
+        path.addNode(destination);
+        return path;
+    }
 }
@@ -4,21 +4,93 @@ import org.jgrapht.graph.DefaultEdge;
 import java.util.*;
 
 public abstract class GraphTraversalTemplate {
+    private static volatile TraversalListener listener;
+
     protected Graph<Node, DefaultEdge> graph;
+    protected CsrGraph compactGraph;
+    protected NodeTable nodeTable;
+    protected OffHeapGraph offHeapGraph;
+
+    // Work done by the current traversal, set by subclasses before performTraversal returns
+    protected long nodesVisited;
+    protected long edgesScanned;
+    protected long frontierPeak;
+
+    // Whether the current traversal keys its state by node-table id
+    protected boolean indexed;
 
     public GraphTraversalTemplate(Graph<Node, DefaultEdge> graph) {
         this.graph = graph;
     }
 
+    // Keys traversal state by node id while the vertices reached are canonical nodes of the table;
+    // vertices added to the JGraphT graph directly have no id, and searches reaching them run on node maps
+    public GraphTraversalTemplate(Graph<Node, DefaultEdge> graph, NodeTable nodeTable) {
+        this.graph = graph;
+        this.nodeTable = nodeTable;
+    }
+
+    // Traverses the int arrays of a compact graph instead of JGraphT edge sets
+    public GraphTraversalTemplate(CsrGraph compactGraph) {
+        this.compactGraph = compactGraph;
+    }
+
+    // Traverses a graph stored outside the heap; nodes are only created for the returned path
+    public GraphTraversalTemplate(OffHeapGraph offHeapGraph) {
+        this.offHeapGraph = offHeapGraph;
+    }
+
+    // Receives an event after every traversal; null (the default) turns instrumentation off
+    public static void setListener(TraversalListener newListener) {
+        listener = newListener;
+    }
+
+    public static TraversalListener getListener() {
+        return listener;
+    }
+
     // Template method defining the steps of traversal
     public final Path traverse(Node source, Node destination) {
-        if (!graph.containsVertex(source) || !graph.containsVertex(destination)) {
+        if (!containsVertex(source) || !containsVertex(destination)) {
             throw new IllegalArgumentException("One or both nodes do not exist.");
         }
 
-        initializeTraversal(source);
-        performTraversal(source, destination);
-        return buildPath(source, destination);
+        indexed = false;
+        if (nodeTable != null) {
+            Node canonicalSource = nodeTable.canonical(source);
+            Node canonicalDestination = nodeTable.canonical(destination);
+            if (canonicalSource != null && canonicalDestination != null) {
+                source = canonicalSource;
+                destination = canonicalDestination;
+                indexed = true;
+            }
+        }
+
+        // With no listener the only cost is this volatile read
+        TraversalListener current = listener;
+        long started = current != null ? System.nanoTime() : 0;
+        nodesVisited = 0;
+        edgesScanned = 0;
+        frontierPeak = 0;
+        try {
+            initializeTraversal(source);
+            performTraversal(source, destination);
+            Path path = buildPath(source, destination);
+            if (current != null) {
+                current.traversalCompleted(new TraversalEvent(getClass().getSimpleName(), source, destination, path,
+                        nodesVisited, edgesScanned, frontierPeak, System.nanoTime() - started));
+            }
+            return path;
+        } finally {
+            finishTraversal();
+        }
+    }
+
+    private boolean containsVertex(Node node) {
+        if (compactGraph != null) {
+            return compactGraph.idOf(node) >= 0;
+        }
+        return offHeapGraph != null ? offHeapGraph.idOf(node) >= 0 : graph.containsVertex(node);
     }
 
     // Abstract steps for differing behaviors
@@ -26,6 +98,10 @@ public abstract class GraphTraversalTemplate {
     protected abstract void performTraversal(Node source, Node destination);
     protected abstract Node getPredecessor(Node node);
 
+    // Releases pooled state once the path has been built
+    protected void finishTraversal() {
+    }
+
     // Common method to build the path
     protected Path buildPath(Node source, Node destination) {
         Path path = new Path();
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int items in {@code [0, capacity)} keyed by primitive doubles.
+ * A position index per item gives O(log n) decrease-key without boxing or stale entries.
+ */
+public class IndexedMinHeap {
+    private int[] heap;
+    private double[] keys;
+    private int[] positions;   // position of each item in the heap, -1 when absent
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    public double key(int item) {
+        return keys[item];
+    }
+
+    // Inserts the item, or lowers its key if it is present with a larger one
+    public void insertOrDecrease(int item, double key) {
+        int position = positions[item];
+        if (position < 0) {
+            position = size++;
+            heap[position] = item;
+            positions[item] = position;
+        } else if (key >= keys[item]) {
+            return;
+        }
+        keys[item] = key;
+        siftUp(position);
+    }
+
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int item = heap[position];
+        double key = keys[item];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            heap[position] = parentItem;
+            positions[parentItem] = position;
+            position = parent;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    private void siftDown(int position) {
+        int item = heap[position];
+        double key = keys[item];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[child]] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Little-endian byte region addressed by long offsets, held outside the Java heap in
+ * 128 MiB chunks so it can exceed the 2 GiB limit of a single ByteBuffer. Chunks are
+ * either direct buffers or mappings of a file. Ints, longs and doubles must be stored
+ * at offsets aligned to their size, which keeps every value inside one chunk. Direct
+ * buffers count against -XX:MaxDirectMemorySize (by default the heap size); mapped
+ * files only use the page cache. Memory is returned when the buffer is garbage collected.
+ */
+final class LargeBuffer {
+    private static final int CHUNK_BITS = 27;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int FIRST_CHUNK = 1 << 12;
+
+    private final FileChannel file;   // null for direct buffers
+    private final boolean writable;
+    private ByteBuffer[] chunks;
+    private long capacity;
+
+    private LargeBuffer(FileChannel file, boolean writable) {
+        this.file = file;
+        this.writable = writable;
+        this.chunks = new ByteBuffer[0];
+    }
+
+    // Zero-filled and growable; in a temporary file under the directory, or in direct memory if it is null
+    static LargeBuffer allocate(long bytes, java.nio.file.Path directory) {
+        LargeBuffer buffer;
+        if (directory == null) {
+            buffer = new LargeBuffer(null, true);
+        } else {
+            try {
+                java.nio.file.Path temporary = Files.createTempFile(directory, "graph", ".bin");
+                FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                buffer = new LargeBuffer(channel, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        buffer.ensureCapacity(bytes);
+        return buffer;
+    }
+
+    // Read-only view of a whole file; offsets are file positions
+    static LargeBuffer map(FileChannel channel) throws IOException {
+        LargeBuffer buffer = new LargeBuffer(channel, false);
+        long size = channel.size();
+        int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        buffer.chunks = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long position = (long) i << CHUNK_BITS;
+            buffer.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.capacity = size;
+        return buffer;
+    }
+
+    void ensureCapacity(long bytes) {
+        if (bytes <= capacity) {
+            return;
+        }
+        if (!writable) {
+            throw new IllegalStateException("Read-only buffer cannot grow.");
+        }
+        try {
+            if (file == null && bytes < CHUNK_SIZE) {
+                // Small direct buffers double in one chunk instead of reserving 128 MiB up front
+                long size = Math.max(FIRST_CHUNK, Math.max(capacity * 2, bytes));
+                replaceFirstChunk(Math.min(size, CHUNK_SIZE));
+                return;
+            }
+            if (file == null && capacity < CHUNK_SIZE) {
+                replaceFirstChunk(CHUNK_SIZE);
+            }
+            int count = (int) ((bytes + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+            int old = chunks.length;
+            ByteBuffer[] grown = java.util.Arrays.copyOf(chunks, count);
+            for (int i = old; i < count; i++) {
+                grown[i] = file == null
+                        ? ByteBuffer.allocateDirect((int) CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                        : file.map(FileChannel.MapMode.READ_WRITE, (long) i << CHUNK_BITS, CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            chunks = grown;
+            capacity = (long) count << CHUNK_BITS;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void replaceFirstChunk(long size) {
+        ByteBuffer chunk = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        if (chunks.length > 0) {
+            chunk.put(chunks[0].duplicate().clear());
+            chunk.clear();
+        }
+        chunks = new ByteBuffer[]{chunk};
+        capacity = size;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    byte get(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & CHUNK_MASK));
+    }
+
+    void put(long offset, byte value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].put((int) (offset & CHUNK_MASK), value);
+    }
+
+    int getInt(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getInt((int) (offset & CHUNK_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putInt((int) (offset & CHUNK_MASK), value);
+    }
+
+    long getLong(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    void putLong(long offset, long value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putLong((int) (offset & CHUNK_MASK), value);
+    }
+
+    double getDouble(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)].getDouble((int) (offset & CHUNK_MASK));
+    }
+
+    void putDouble(long offset, double value) {
+        chunks[(int) (offset >>> CHUNK_BITS)].putDouble((int) (offset & CHUNK_MASK), value);
+    }
+
+    void get(long offset, byte[] target) {
+        for (int i = 0; i < target.length; ) {
+            ByteBuffer chunk = chunks[(int) ((offset + i) >>> CHUNK_BITS)];
+            int position = (int) ((offset + i) & CHUNK_MASK);
+            int length = Math.min(target.length - i, chunk.capacity() - position);
+            chunk.get(position, target, i, length);
+            i += length;
+        }
+    }
+
+    void put(long offset, byte[] source) {
+        for (int i = 0; i < source.length; ) {
+            ByteBuffer chunk = chunks[(int) ((offset + i) >>> CHUNK_BITS)];
+            int position = (int) ((offset + i) & CHUNK_MASK);
+            int length = Math.min(source.length - i, chunk.capacity() - position);
+            chunk.put(position, source, i, length);
+            i += length;
+        }
+    }
+
+    // Direct chunk views over the given range, for bulk work such as checksums and file writes
+    ByteBuffer[] slices(long from, long length) {
+        java.util.List<ByteBuffer> slices = new java.util.ArrayList<>();
+        while (length > 0) {
+            ByteBuffer chunk = chunks[(int) (from >>> CHUNK_BITS)].duplicate();
+            int position = (int) (from & CHUNK_MASK);
+            int count = (int) Math.min(length, chunk.capacity() - position);
+            slices.add(chunk.limit(position + count).position(position));
+            from += count;
+            length -= count;
+        }
+        return slices.toArray(new ByteBuffer[0]);
+    }
+}
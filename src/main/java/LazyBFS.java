@@ -0,0 +1,82 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+
+/**
+ * Breadth-first order: nodes come out by non-decreasing depth, and within a depth in the
+ * order they were discovered, following each node's out-edges in the graph's edge order.
+ * Every node's depth is its shortest distance from the source.
+ */
+public class LazyBFS implements GraphTraversalStrategy {
+    @Override
+    public TraversalIterator iterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+        return new BreadthFirstIterator(graph, source, maxDepth);
+    }
+
+    private static final class BreadthFirstIterator extends TraversalIterator {
+        private final ArrayDeque<Node> queue = new ArrayDeque<>();
+        private Node pending;        // last returned node, expanded on the next pull
+        private int depth = -1;
+        private int leftInLevel;     // queued nodes at the current depth
+        private int nextLevelSize = 1;
+
+        BreadthFirstIterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+            super(graph, source, maxDepth);
+            queue.add(source);
+        }
+
+        private void expandPending() {
+            if (pending == null) {
+                return;
+            }
+            Node node = pending;
+            pending = null;
+            if (depth >= maxDepth) {
+                return;
+            }
+            for (DefaultEdge edge : graph.outgoingEdgesOf(node)) {
+                Node neighbor = graph.getEdgeTarget(edge);
+                if (discover(neighbor, node)) {
+                    queue.add(neighbor);
+                    nextLevelSize++;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            expandPending();
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public Node next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (leftInLevel == 0) {
+                depth++;
+                leftInLevel = nextLevelSize;
+                nextLevelSize = 0;
+            }
+            leftInLevel--;
+            pending = queue.poll();
+            return pending;
+        }
+
+        @Override
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public void skipChildren() {
+            if (pending == null) {
+                throw new IllegalStateException("skipChildren must follow next() directly.");
+            }
+            pending = null;
+        }
+    }
+}
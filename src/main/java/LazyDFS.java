@@ -0,0 +1,91 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Depth-first preorder, as a recursive DFS following out-edges in the graph's edge order
+ * would visit nodes. Depth is the depth in the DFS tree, so a depth-limited DFS can miss
+ * nodes that a BFS with the same limit reaches over a shorter route.
+ */
+public class LazyDFS implements GraphTraversalStrategy {
+    @Override
+    public TraversalIterator iterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+        return new DepthFirstIterator(graph, source, maxDepth);
+    }
+
+    // A node on the current DFS path and how far its out-edges have been followed
+    private static final class Frame {
+        final Node node;
+        final int depth;
+        Iterator<DefaultEdge> edges;   // created on first use
+
+        Frame(Node node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+    }
+
+    private static final class DepthFirstIterator extends TraversalIterator {
+        private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+        private Frame pending;       // last returned node, pushed on the next pull
+        private Frame upcoming;      // found by hasNext, returned by next
+        private int depth = -1;
+
+        DepthFirstIterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+            super(graph, source, maxDepth);
+            upcoming = new Frame(source, 0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending != null) {
+                if (pending.depth < maxDepth) {
+                    stack.push(pending);
+                }
+                pending = null;
+            }
+            while (upcoming == null && !stack.isEmpty()) {
+                Frame top = stack.peek();
+                if (top.edges == null) {
+                    top.edges = graph.outgoingEdgesOf(top.node).iterator();
+                }
+                if (!top.edges.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Node neighbor = graph.getEdgeTarget(top.edges.next());
+                if (discover(neighbor, top.node)) {
+                    upcoming = new Frame(neighbor, top.depth + 1);
+                }
+            }
+            return upcoming != null;
+        }
+
+        @Override
+        public Node next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            pending = upcoming;
+            upcoming = null;
+            depth = pending.depth;
+            return pending.node;
+        }
+
+        @Override
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public void skipChildren() {
+            if (pending == null) {
+                throw new IllegalStateException("skipChildren must follow next() directly.");
+            }
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Open-addressing set of longs for deduplicating packed (source, target) id pairs
+ * without boxing. Keys are stored as value + 1 so that 0 can mark a free slot.
+ */
+class LongHashSet {
+    private long[] keys;
+    private int size;
+
+    LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+    }
+
+    // Packs two non-negative ids into one key
+    static long pair(int first, int second) {
+        return (long) first << 32 | second;
+    }
+
+    // True if the value was not already present
+    boolean add(long value) {
+        long key = value + 1;
+        if ((size + 1) * 2 > keys.length) {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            for (long existing : old) {
+                if (existing != 0) {
+                    keys[probe(existing)] = existing;
+                }
+            }
+        }
+        int slot = probe(key);
+        if (keys[slot] == key) {
+            return false;
+        }
+        keys[slot] = key;
+        size++;
+        return true;
+    }
+
+    private int probe(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & (keys.length - 1);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return slot;
+    }
+}
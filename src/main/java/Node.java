@@ -1,14 +1,27 @@
 public class Node {
-    private String label;
+    private final String label;
+    private final int id;      // dense id from a NodeTable, -1 for nodes created directly
+    private final int hash;
 
     public Node(String label) {
+        this(label, -1);
+    }
+
+    Node(String label, int id) {
         this.label = label;
+        this.id = id;
+        this.hash = label.hashCode();
     }
 
     public String getLabel() {
         return label;
     }
 
+    // Only canonical nodes handed out by a NodeTable have an id
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return label;
@@ -19,11 +32,11 @@ public class Node {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Node node = (Node) o;
-        return label.equals(node.label);
+        return hash == node.hash && label.equals(node.label);
     }
 
     @Override
     public int hashCode() {
-        return label.hashCode();
+        return hash;
     }
 }
@@ -0,0 +1,94 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interning table that maps each label to a single canonical {@link Node} with a dense
+ * int id. The id of a node whose vertex leaves the graph is released and handed to the next
+ * new label, so an id-indexed array sized by {@link #size()} grows with the largest number of
+ * nodes held at once rather than with every label ever seen. A released node keeps its old
+ * id but is no longer canonical, so lookups fall back to its label.
+ */
+public class NodeTable {
+    private final Map<String, Node> byLabel = new HashMap<>();
+    private Node[] byId = new Node[16];
+    private int size;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+
+    // Canonical node for the label, created on first use
+    public Node intern(String label) {
+        Node node = byLabel.get(label);
+        if (node == null) {
+            int id;
+            if (freeCount > 0) {
+                id = freeIds[--freeCount];
+            } else {
+                if (size == byId.length) {
+                    byId = Arrays.copyOf(byId, size * 2);
+                }
+                id = size++;
+            }
+            node = new Node(label, id);
+            byLabel.put(label, node);
+            byId[id] = node;
+        }
+        return node;
+    }
+
+    // Forgets a canonical node that has left the graph and frees its id for reuse
+    void release(Node node) {
+        if (node == null || !isCanonical(node)) {
+            return;
+        }
+        byLabel.remove(node.getLabel());
+        byId[node.getId()] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = node.getId();
+    }
+
+    // Forgets every node, for when the whole graph is replaced
+    void clear() {
+        byLabel.clear();
+        Arrays.fill(byId, 0, size, null);
+        size = 0;
+        freeCount = 0;
+    }
+
+    public Node intern(Node node) {
+        return isCanonical(node) ? node : intern(node.getLabel());
+    }
+
+    // Canonical node equal to the given one, or null if the label was never interned
+    public Node canonical(Node node) {
+        return isCanonical(node) ? node : byLabel.get(node.getLabel());
+    }
+
+    // Independent table with the same canonical nodes and ids
+    NodeTable copy() {
+        NodeTable copy = new NodeTable();
+        copy.byLabel.putAll(byLabel);
+        copy.byId = Arrays.copyOf(byId, byId.length);
+        copy.size = size;
+        copy.freeIds = Arrays.copyOf(freeIds, freeIds.length);
+        copy.freeCount = freeCount;
+        return copy;
+    }
+
+    public Node node(int id) {
+        return byId[id];
+    }
+
+    // Upper bound on the ids in use, including released ones not yet handed out again
+    public int size() {
+        return size;
+    }
+
+    // Whether the node is the one the table holds under its id
+    boolean isCanonical(Node node) {
+        int id = node.getId();
+        return id >= 0 && id < size && byId[id] == node;
+    }
+}
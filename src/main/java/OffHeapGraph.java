@@ -0,0 +1,548 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only CSR graph kept entirely outside the Java heap, for graphs too large to hold as
+ * {@link Node} objects and JGraphT edge maps. The graph is one image in the
+ * {@link GraphSnapshot} file layout (labels, offsets, targets, weights) plus an
+ * open-addressing label table, all in {@link LargeBuffer}s. {@link #open} maps a snapshot
+ * file in place, so only touched pages are read and the OS page cache holds the graph.
+ * {@link #load} builds the image from DOT in direct memory, or in temporary files under a
+ * scratch directory. Heap use stays constant as the graph grows: a {@link Node} is only
+ * created when a caller asks for one, for example while a path is built.
+ */
+public class OffHeapGraph {
+    private static final int COPY_BUFFER = 1 << 16;
+
+    private final LargeBuffer image;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final boolean weighted;
+    private final long labelOffsetsAt;
+    private final long labelDataAt;
+    private final long offsetsAt;
+    private final long targetsAt;
+    private final long weightsAt;
+    private final long imageBytes;   // everything before the checksum
+    private final LargeBuffer labelTable;   // id + 1 per slot, 0 marks a free slot
+    private final int tableMask;
+    private final java.nio.file.Path scratchDirectory;
+    private final ConcurrentLinkedQueue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    private OffHeapGraph(LargeBuffer image, LargeBuffer labelTable, int tableMask, java.nio.file.Path scratchDirectory) {
+        this.image = image;
+        this.vertexCount = image.getInt(12);
+        this.edgeCount = image.getInt(16);
+        this.weighted = (image.getInt(8) & GraphSnapshot.FLAG_WEIGHTED) != 0;
+        long labelBytes = Integer.toUnsignedLong(image.getInt(20));
+        this.labelOffsetsAt = GraphSnapshot.HEADER_BYTES;
+        this.labelDataAt = labelOffsetsAt + 4L * (vertexCount + 1);
+        this.offsetsAt = align(labelDataAt + labelBytes);
+        this.targetsAt = offsetsAt + 4L * (vertexCount + 1);
+        this.weightsAt = align(targetsAt + 8L * edgeCount);   // targets, then the edge order
+        this.imageBytes = weightsAt + (weighted ? 8L * edgeCount : 0);
+        this.scratchDirectory = scratchDirectory;
+        if (labelTable == null) {
+            tableMask = tableSize(vertexCount) - 1;
+            labelTable = LargeBuffer.allocate(4L * (tableMask + 1), scratchDirectory);
+            for (int id = 0; id < vertexCount; id++) {
+                insert(labelTable, tableMask, hash(image, labelStart(id), labelEnd(id)), id);
+            }
+        }
+        this.labelTable = labelTable;
+        this.tableMask = tableMask;
+    }
+
+    // Maps a file written by GraphParser.saveSnapshot or save(); the checksum is not verified
+    public static OffHeapGraph open(String snapshotFile) throws IOException {
+        return open(snapshotFile, null);
+    }
+
+    // Label table and traversal state go to temporary files under the directory instead of direct memory
+    public static OffHeapGraph open(String snapshotFile, java.nio.file.Path scratchDirectory) throws IOException {
+        LargeBuffer image;
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotFile), StandardOpenOption.READ)) {
+            if (channel.size() < GraphSnapshot.HEADER_BYTES + 8) {
+                throw new IOException("Not a graph snapshot: " + snapshotFile);
+            }
+            image = LargeBuffer.map(channel);
+        }
+        if (image.getInt(0) != GraphSnapshot.MAGIC) {
+            throw new IOException("Not a graph snapshot: " + snapshotFile);
+        }
+        if (image.getInt(4) != GraphSnapshot.VERSION) {
+            throw new IOException("Unsupported snapshot version " + image.getInt(4) + " in " + snapshotFile);
+        }
+        OffHeapGraph graph = new OffHeapGraph(image, null, 0, scratchDirectory);
+        if (graph.imageBytes + 8 != image.capacity()) {
+            throw new IOException("Truncated graph snapshot: " + snapshotFile);
+        }
+        return graph;
+    }
+
+    public static OffHeapGraph load(String dotFile) throws IOException {
+        return load(dotFile, null);
+    }
+
+    // Streams the DOT file into off-heap buffers, in temporary files under the directory if it is not null
+    public static OffHeapGraph load(String dotFile, java.nio.file.Path scratchDirectory) throws IOException {
+        Builder builder = new Builder(scratchDirectory);
+        try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(dotFile)), StandardCharsets.UTF_8)) {
+            new DotStreamParser(builder).parse(reader);
+        }
+        return builder.build();
+    }
+
+    // Writes the image as a snapshot that open() maps and GraphParser.loadSnapshot reads
+    public void save(String snapshotFile) throws IOException {
+        CRC32 crc = new CRC32();
+        for (ByteBuffer slice : image.slices(0, imageBytes)) {
+            crc.update(slice);
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotFile), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (ByteBuffer slice : image.slices(0, imageBytes)) {
+                while (slice.hasRemaining()) {
+                    channel.write(slice);
+                }
+            }
+            ByteBuffer checksum = ByteBuffer.allocate(8).order(java.nio.ByteOrder.LITTLE_ENDIAN).putLong(0, crc.getValue());
+            while (checksum.hasRemaining()) {
+                channel.write(checksum);
+            }
+        }
+    }
+
+    // Adds the graph to an empty one using the table's canonical nodes, edges in their original order
+    public void materialize(Graph<Node, DefaultEdge> graph, NodeTable nodeTable) {
+        Node[] nodes = new Node[vertexCount];
+        int[] sourceOf = new int[edgeCount];
+        for (int v = 0; v < vertexCount; v++) {
+            nodes[v] = nodeTable.intern(label(v));
+            graph.addVertex(nodes[v]);
+            for (int e = outStart(v), end = outEnd(v); e < end; e++) {
+                sourceOf[e] = v;
+            }
+        }
+        long edgeOrderAt = targetsAt + 4L * edgeCount;
+        for (int i = 0; i < edgeCount; i++) {
+            int position = image.getInt(edgeOrderAt + 4L * i);
+            DefaultEdge edge = graph.addEdge(nodes[sourceOf[position]], nodes[target(position)]);
+            if (weighted && weight(position) != Graph.DEFAULT_EDGE_WEIGHT) {
+                graph.setEdgeWeight(edge, weight(position));
+            }
+        }
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int idOf(Node node) {
+        return idOf(node.getLabel());
+    }
+
+    // Dense id of the label, or -1 if the graph has no such vertex
+    public int idOf(String label) {
+        byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(bytes) & tableMask;
+        int entry;
+        while ((entry = labelTable.getInt(4L * slot)) != 0) {
+            if (labelEquals(entry - 1, bytes)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    public String label(int id) {
+        long start = labelStart(id);
+        byte[] bytes = new byte[(int) (labelEnd(id) - start)];
+        image.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // A new Node on every call; nothing is cached on the heap
+    public Node node(int id) {
+        return new Node(label(id));
+    }
+
+    public int outStart(int vertex) {
+        return image.getInt(offsetsAt + 4L * vertex);
+    }
+
+    public int outEnd(int vertex) {
+        return image.getInt(offsetsAt + 4L * (vertex + 1));
+    }
+
+    public int outDegree(int vertex) {
+        return outEnd(vertex) - outStart(vertex);
+    }
+
+    public int target(int edgeIndex) {
+        return image.getInt(targetsAt + 4L * edgeIndex);
+    }
+
+    public double weight(int edgeIndex) {
+        return weighted ? image.getDouble(weightsAt + 8L * edgeIndex) : Graph.DEFAULT_EDGE_WEIGHT;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    // Image plus label table; traversal workspaces add about 13 bytes per vertex each
+    public long offHeapBytes() {
+        return imageBytes + 4L * (tableMask + 1);
+    }
+
+    private long labelStart(int id) {
+        return labelDataAt + image.getInt(labelOffsetsAt + 4L * id);
+    }
+
+    private long labelEnd(int id) {
+        return labelDataAt + image.getInt(labelOffsetsAt + 4L * (id + 1));
+    }
+
+    private boolean labelEquals(int id, byte[] bytes) {
+        long start = labelStart(id);
+        if (labelEnd(id) - start != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (image.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-8 bytes, so lookups hash the same bytes the image stores
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(LargeBuffer buffer, long start, long end) {
+        int h = 0x811C9DC5;
+        for (long i = start; i < end; i++) {
+            h = (h ^ (buffer.get(i) & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static void insert(LargeBuffer table, int mask, int hash, int id) {
+        int slot = hash & mask;
+        while (table.getInt(4L * slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.putInt(4L * slot, id + 1);
+    }
+
+    private static int tableSize(int entries) {
+        int size = 2;
+        while (size < entries * 2L) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    Workspace acquireWorkspace() {
+        Workspace workspace = workspaces.poll();
+        return workspace != null ? workspace : new Workspace(vertexCount, scratchDirectory);
+    }
+
+    void releaseWorkspace(Workspace workspace) {
+        workspace.reset();
+        workspaces.offer(workspace);
+    }
+
+    /**
+     * Off-heap counterpart of {@link TraversalWorkspace}: visited bits, predecessor ids and
+     * an int buffer for a queue or stack. Reset clears only the bits the last search set.
+     */
+    static final class Workspace {
+        private final LargeBuffer visited;
+        private final LargeBuffer predecessors;
+        private final LargeBuffer buffer;
+        private final LargeBuffer touched;
+        private int touchedCount;
+
+        Workspace(int vertexCount, java.nio.file.Path directory) {
+            visited = LargeBuffer.allocate(8L * ((vertexCount + 63) >>> 6), directory);
+            predecessors = LargeBuffer.allocate(4L * vertexCount, directory);
+            buffer = LargeBuffer.allocate(4L * vertexCount, directory);
+            touched = LargeBuffer.allocate(4L * vertexCount, directory);
+        }
+
+        boolean visit(int vertex, int predecessor) {
+            long word = 8L * (vertex >>> 6);
+            long bits = visited.getLong(word);
+            long bit = 1L << vertex;
+            if ((bits & bit) != 0) {
+                return false;
+            }
+            visited.putLong(word, bits | bit);
+            predecessors.putInt(4L * vertex, predecessor);
+            touched.putInt(4L * touchedCount++, vertex);
+            return true;
+        }
+
+        boolean isVisited(int vertex) {
+            return (visited.getLong(8L * (vertex >>> 6)) & (1L << vertex)) != 0;
+        }
+
+        int predecessor(int vertex) {
+            return predecessors.getInt(4L * vertex);
+        }
+
+        int get(int index) {
+            return buffer.getInt(4L * index);
+        }
+
+        void set(int index, int vertex) {
+            buffer.putInt(4L * index, vertex);
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                long word = 8L * (touched.getInt(4L * i) >>> 6);
+                visited.putLong(word, 0);
+            }
+            touchedCount = 0;
+        }
+    }
+
+    /**
+     * Collects DOT statements off-heap with the same vertex order and edge deduplication as
+     * {@link CsrGraph.Builder}, then lays the result out as a snapshot image.
+     */
+    static final class Builder implements DotStreamParser.Handler {
+        private final java.nio.file.Path directory;
+        private final LargeBuffer labelData;
+        private final LargeBuffer labelEnds;   // end offset of each label in labelData
+        private final LargeBuffer hashes;
+        private LargeBuffer table;
+        private int tableMask;
+        private long labelBytes;
+        private int vertexCount;
+        private final LargeBuffer sources;
+        private final LargeBuffer targets;
+        private LargeBuffer weights;   // created when the first non-default weight arrives
+        private long edgeCount;
+
+        Builder(java.nio.file.Path directory) {
+            this.directory = directory;
+            labelData = LargeBuffer.allocate(0, directory);
+            labelEnds = LargeBuffer.allocate(0, directory);
+            hashes = LargeBuffer.allocate(0, directory);
+            tableMask = 1023;
+            table = LargeBuffer.allocate(4L * (tableMask + 1), directory);
+            sources = LargeBuffer.allocate(0, directory);
+            targets = LargeBuffer.allocate(0, directory);
+        }
+
+        @Override
+        public void node(String label) {
+            intern(label);
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel) {
+            edge(sourceLabel, targetLabel, Graph.DEFAULT_EDGE_WEIGHT);
+        }
+
+        @Override
+        public void edge(String sourceLabel, String targetLabel, double weight) {
+            int source = intern(sourceLabel);
+            int target = intern(targetLabel);
+            if (edgeCount == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many edges for an off-heap graph.");
+            }
+            sources.ensureCapacity(4 * (edgeCount + 1));
+            targets.ensureCapacity(4 * (edgeCount + 1));
+            sources.putInt(4 * edgeCount, source);
+            targets.putInt(4 * edgeCount, target);
+            if (weight != Graph.DEFAULT_EDGE_WEIGHT && weights == null) {
+                weights = LargeBuffer.allocate(8 * (edgeCount + 1), directory);
+                for (long e = 0; e < edgeCount; e++) {
+                    weights.putDouble(8 * e, Graph.DEFAULT_EDGE_WEIGHT);
+                }
+            }
+            if (weights != null) {
+                weights.ensureCapacity(8 * (edgeCount + 1));
+                weights.putDouble(8 * edgeCount, weight);
+            }
+            edgeCount++;
+        }
+
+        private int intern(String label) {
+            byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+            int h = hash(bytes);
+            int slot = h & tableMask;
+            int entry;
+            while ((entry = table.getInt(4L * slot)) != 0) {
+                if (matches(entry - 1, bytes)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & tableMask;
+            }
+            if (labelBytes + bytes.length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Labels too large for an off-heap graph.");
+            }
+            int id = vertexCount++;
+            labelData.ensureCapacity(labelBytes + bytes.length);
+            labelData.put(labelBytes, bytes);
+            labelBytes += bytes.length;
+            labelEnds.ensureCapacity(4L * vertexCount);
+            labelEnds.putInt(4L * id, (int) labelBytes);
+            hashes.ensureCapacity(4L * vertexCount);
+            hashes.putInt(4L * id, h);
+            table.putInt(4L * slot, id + 1);
+            if (vertexCount * 2L > tableMask + 1) {
+                rehash();
+            }
+            return id;
+        }
+
+        private boolean matches(int id, byte[] bytes) {
+            long start = id == 0 ? 0 : labelEnds.getInt(4L * (id - 1));
+            if (labelEnds.getInt(4L * id) - start != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (labelData.get(start + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            int mask = (tableMask << 1) | 1;
+            LargeBuffer grown = LargeBuffer.allocate(4L * (mask + 1), directory);
+            for (int id = 0; id < vertexCount; id++) {
+                insert(grown, mask, hashes.getInt(4L * id), id);
+            }
+            table = grown;
+            tableMask = mask;
+        }
+
+        OffHeapGraph build() {
+            int vertices = vertexCount;
+            // Counting sort of the edges by source keeps each source's edges in insertion order
+            LargeBuffer offsets = LargeBuffer.allocate(4L * (vertices + 1), directory);
+            for (long e = 0; e < edgeCount; e++) {
+                long at = 4L * (sources.getInt(4 * e) + 1);
+                offsets.putInt(at, offsets.getInt(at) + 1);
+            }
+            for (int v = 0; v < vertices; v++) {
+                offsets.putInt(4L * (v + 1), offsets.getInt(4L * (v + 1)) + offsets.getInt(4L * v));
+            }
+            LargeBuffer cursor = LargeBuffer.allocate(4L * vertices, directory);
+            for (int v = 0; v < vertices; v++) {
+                cursor.putInt(4L * v, offsets.getInt(4L * v));
+            }
+            LargeBuffer sorted = LargeBuffer.allocate(4 * edgeCount, directory);
+            LargeBuffer sortedWeights = weights != null ? LargeBuffer.allocate(8 * edgeCount, directory) : null;
+            for (long e = 0; e < edgeCount; e++) {
+                int source = sources.getInt(4 * e);
+                int position = cursor.getInt(4L * source);
+                cursor.putInt(4L * source, position + 1);
+                sources.putInt(4 * e, position);   // from here on, the CSR position of edge e
+                sorted.putInt(4L * position, targets.getInt(4 * e));
+                if (sortedWeights != null) {
+                    sortedWeights.putDouble(8L * position, weights.getDouble(8 * e));
+                }
+            }
+
+            // Drop repeated edges in place, keeping the first; cursor becomes a stamp of the current source
+            for (int v = 0; v < vertices; v++) {
+                cursor.putInt(4L * v, 0);
+            }
+            LargeBuffer keptAt = LargeBuffer.allocate(4 * edgeCount, directory);   // new position, or -1 if dropped
+            int kept = 0;
+            for (int v = 0; v < vertices; v++) {
+                int start = offsets.getInt(4L * v);
+                int end = offsets.getInt(4L * (v + 1));
+                offsets.putInt(4L * v, kept);
+                for (int e = start; e < end; e++) {
+                    int target = sorted.getInt(4L * e);
+                    keptAt.putInt(4L * e, -1);
+                    if (cursor.getInt(4L * target) != v + 1) {
+                        keptAt.putInt(4L * e, kept);
+                        cursor.putInt(4L * target, v + 1);
+                        sorted.putInt(4L * kept, target);
+                        if (sortedWeights != null) {
+                            sortedWeights.putDouble(8L * kept, sortedWeights.getDouble(8L * e));
+                        }
+                        kept++;
+                    }
+                }
+            }
+            offsets.putInt(4L * vertices, kept);
+
+            long labelDataAt = GraphSnapshot.HEADER_BYTES + 4L * (vertices + 1);
+            long offsetsAt = align(labelDataAt + labelBytes);
+            long targetsAt = offsetsAt + 4L * (vertices + 1);
+            long edgeOrderAt = targetsAt + 4L * kept;
+            long weightsAt = align(edgeOrderAt + 4L * kept);
+            LargeBuffer image = LargeBuffer.allocate(weightsAt + (sortedWeights != null ? 8L * kept : 0), directory);
+            image.putInt(0, GraphSnapshot.MAGIC);
+            image.putInt(4, GraphSnapshot.VERSION);
+            image.putInt(8, sortedWeights != null ? GraphSnapshot.FLAG_WEIGHTED : 0);
+            image.putInt(12, vertices);
+            image.putInt(16, kept);
+            image.putInt(20, (int) labelBytes);
+            for (int v = 0; v < vertices; v++) {
+                image.putInt(GraphSnapshot.HEADER_BYTES + 4L * (v + 1), labelEnds.getInt(4L * v));
+            }
+            byte[] chunk = new byte[COPY_BUFFER];
+            for (long i = 0; i < labelBytes; i += chunk.length) {
+                byte[] part = labelBytes - i < chunk.length ? new byte[(int) (labelBytes - i)] : chunk;
+                labelData.get(i, part);
+                image.put(labelDataAt + i, part);
+            }
+            for (int v = 0; v <= vertices; v++) {
+                image.putInt(offsetsAt + 4L * v, offsets.getInt(4L * v));
+            }
+            for (int e = 0; e < kept; e++) {
+                image.putInt(targetsAt + 4L * e, sorted.getInt(4L * e));
+                if (sortedWeights != null) {
+                    image.putDouble(weightsAt + 8L * e, sortedWeights.getDouble(8L * e));
+                }
+            }
+            // Kept edges in the order the DOT file listed them, so a saved graph writes the same DOT back
+            int order = 0;
+            for (long e = 0; e < edgeCount; e++) {
+                int position = keptAt.getInt(4L * sources.getInt(4 * e));
+                if (position >= 0) {
+                    image.putInt(edgeOrderAt + 4L * order++, position);
+                }
+            }
+            return new OffHeapGraph(image, table, tableMask, directory);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous BFS over a {@link CsrGraph}. Each frontier level is expanded on a
+ * fork-join pool and vertices are claimed with a CAS on a shared visited bitset, so every
+ * vertex gets exactly one parent from the previous level and the resulting path is a
+ * shortest path. Expansion switches between top-down (scan the frontier's out-edges) and
+ * bottom-up (let unvisited vertices look for a parent among their in-edges) depending on
+ * how much of the graph the frontier touches. The visited bitset and parent array are kept
+ * per thread between searches, and only the bits a search set are cleared afterwards.
+ */
+public class ParallelBFS extends GraphTraversalTemplate {
+    // Direction-optimizing thresholds from Beamer et al.
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int GRAIN = 1024;
+
+    private static final ThreadLocal<Workspace> POOL = new ThreadLocal<>();
+
+    private final ForkJoinPool pool;
+    private Workspace workspace;
+    private AtomicLongArray visited;
+    private int[] parents;
+    private final List<int[]> levels = new ArrayList<>();   // every vertex claimed so far, by level
+    private boolean complete;   // whether levels holds every claimed vertex, so the workspace can be reused
+
+    public ParallelBFS(CsrGraph compactGraph) {
+        this(compactGraph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBFS(CsrGraph compactGraph, ForkJoinPool pool) {
+        super(compactGraph);
+        this.pool = pool;
+    }
+
+    @Override
+    protected void initializeTraversal(Node source) {
+        workspace = Workspace.acquire(compactGraph.vertexCount());
+        visited = workspace.visited;
+        parents = workspace.parents;
+        levels.clear();
+        complete = false;
+        int id = compactGraph.idOf(source);
+        claim(id);
+        parents[id] = -1;
+        levels.add(new int[]{id});
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing parallel BFS traversal. Starting at node: " + source);
+        }
+    }
+
+    @Override
+    protected void performTraversal(Node source, Node destination) {
+        int target = compactGraph.idOf(destination);
+        int vertexCount = compactGraph.vertexCount();
+        int[] frontier = levels.get(0);
+        long unexploredEdges = compactGraph.edgeCount() - compactGraph.outDegree(frontier[0]);
+        boolean bottomUp = false;
+        int level = 0;
+        long reached = 1;
+        long scanned = 0;
+        int peak = 1;
+
+        while (frontier.length > 0 && !isVisited(target)) {
+            long frontierEdges = 0;
+            for (int vertex : frontier) {
+                frontierEdges += compactGraph.outDegree(vertex);
+            }
+            // Bottom-up levels scan in-edges instead; the frontier's out-degree stands in for that work
+            scanned += frontierEdges;
+            peak = Math.max(peak, frontier.length);
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontier.length < vertexCount / BETA) {
+                bottomUp = false;
+            }
+
+            if (bottomUp) {
+                long[] inFrontier = workspace.inFrontier;
+                for (int vertex : frontier) {
+                    inFrontier[vertex >>> 6] |= 1L << vertex;
+                }
+                int[] next = pool.invoke(new BottomUpStep(this, inFrontier, 0, vertexCount));
+                for (int vertex : frontier) {
+                    inFrontier[vertex >>> 6] = 0;
+                }
+                frontier = next;
+            } else {
+                frontier = pool.invoke(new TopDownStep(this, frontier, 0, frontier.length));
+            }
+            levels.add(frontier);
+            for (int vertex : frontier) {
+                unexploredEdges -= compactGraph.outDegree(vertex);
+            }
+            reached += frontier.length;
+            level++;
+            if (TraversalLog.isDebugEnabled()) {
+                TraversalLog.debug("Level " + level + (bottomUp ? " (bottom-up)" : " (top-down)") + ": " + frontier.length + " nodes");
+            }
+        }
+        nodesVisited = reached;
+        edgesScanned = scanned;
+        frontierPeak = peak;
+        complete = true;
+
+        if (isVisited(target) && TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Destination node found: " + destination);
+        }
+    }
+
+    @Override
+    protected Node getPredecessor(Node node) {
+        int id = compactGraph.idOf(node);
+        if (!isVisited(id)) {
+            return null;
+        }
+        int parent = parents[id];
+        return parent >= 0 ? compactGraph.node(parent) : null;
+    }
+
+    @Override
+    protected void finishTraversal() {
+        // A search that failed part way may have claimed vertices missing from levels, so its workspace is dropped
+        if (complete) {
+            for (int[] level : levels) {
+                for (int vertex : level) {
+                    visited.set(vertex >>> 6, 0);
+                }
+            }
+            workspace.release();
+        }
+        workspace = null;
+        visited = null;
+        parents = null;
+        levels.clear();
+    }
+
+    // Visited bits, parents and the bottom-up frontier bitset of one search; at most one is kept per thread
+    private static final class Workspace {
+        final AtomicLongArray visited;
+        final int[] parents;
+        final long[] inFrontier;
+
+        private Workspace(int vertexCount) {
+            visited = new AtomicLongArray((vertexCount + 63) >>> 6);
+            parents = new int[vertexCount];
+            inFrontier = new long[(vertexCount + 63) >>> 6];
+        }
+
+        // Taken out of the pool while in use, so a nested search on the same thread gets its own
+        static Workspace acquire(int vertexCount) {
+            Workspace workspace = POOL.get();
+            POOL.remove();
+            return workspace != null && workspace.parents.length >= vertexCount ? workspace : new Workspace(vertexCount);
+        }
+
+        // Must be called on the acquiring thread, with every visited bit cleared
+        void release() {
+            POOL.set(this);
+        }
+    }
+
+    private boolean isVisited(int vertex) {
+        return (visited.get(vertex >>> 6) & (1L << vertex)) != 0;
+    }
+
+    // Atomically sets the visited bit; true only for the single caller that set it
+    private boolean claim(int vertex) {
+        int word = vertex >>> 6;
+        long bit = 1L << vertex;
+        long current;
+        do {
+            current = visited.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    private static int[] concat(int[] left, int[] right) {
+        int[] result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+    // Expands frontier[from, to) along out-edges and returns the vertices it claimed
+    private static final class TopDownStep extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ParallelBFS search;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+
+        TopDownStep(ParallelBFS search, int[] frontier, int from, int to) {
+            this.search = search;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                TopDownStep left = new TopDownStep(search, frontier, from, middle);
+                left.fork();
+                int[] right = new TopDownStep(search, frontier, middle, to).compute();
+                return concat(left.join(), right);
+            }
+            CsrGraph compactGraph = search.compactGraph;
+            int[] parents = search.parents;
+            int[] next = new int[16];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int vertex = frontier[i];
+                for (int e = compactGraph.outStart(vertex), end = compactGraph.outEnd(vertex); e < end; e++) {
+                    int neighbor = compactGraph.target(e);
+                    if (!search.isVisited(neighbor) && search.claim(neighbor)) {
+                        parents[neighbor] = vertex;
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = neighbor;
+                    }
+                }
+            }
+            return Arrays.copyOf(next, size);
+        }
+    }
+
+    // Lets each unvisited vertex in [from, to) pick its first in-neighbour from the frontier
+    private static final class BottomUpStep extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ParallelBFS search;
+        private final long[] inFrontier;
+        private final int from;
+        private final int to;
+
+        BottomUpStep(ParallelBFS search, long[] inFrontier, int from, int to) {
+            this.search = search;
+            this.inFrontier = inFrontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > GRAIN * 8) {
+                int middle = (from + to) >>> 1;
+                BottomUpStep left = new BottomUpStep(search, inFrontier, from, middle);
+                left.fork();
+                int[] right = new BottomUpStep(search, inFrontier, middle, to).compute();
+                return concat(left.join(), right);
+            }
+            CsrGraph compactGraph = search.compactGraph;
+            int[] parents = search.parents;
+            int[] next = new int[16];
+            int size = 0;
+            for (int vertex = from; vertex < to; vertex++) {
+                if (search.isVisited(vertex)) {
+                    continue;
+                }
+                for (int e = compactGraph.inStart(vertex), end = compactGraph.inEnd(vertex); e < end; e++) {
+                    int parent = compactGraph.source(e);
+                    if ((inFrontier[parent >>> 6] & (1L << parent)) != 0) {
+                        // Vertices of this range are only claimed here, but bitset words are shared
+                        search.claim(vertex);
+                        parents[vertex] = parent;
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = vertex;
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(next, size);
+        }
+    }
+}
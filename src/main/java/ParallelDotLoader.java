@@ -0,0 +1,290 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads a DOT file by memory-mapping it and tokenizing fixed-size chunks on a fork-join
+ * pool. Each worker finds its own statement boundaries: it guesses its start by scanning
+ * from the chunk's offset as if no quoted ID or comment were open there, then scans on from
+ * that start to the first boundary past the chunk's end. Chunk results are replayed to the
+ * handler strictly in file order, and a chunk whose start does not match the end of the one
+ * before it is tokenized again from that end, so the handler sees exactly what a sequential
+ * parse reports. Quoted IDs, comments and attribute lists may span lines.
+ */
+public class ParallelDotLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int BOUNDARY_WINDOW = 64 * 1024;
+    private static final long MAX_MAPPING = 1L << 30;   // well below the 2 GiB limit of one mapping
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelDotLoader(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelDotLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public void load(String filePath, DotStreamParser.Handler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Keep a bounded number of chunks in flight so memory stays proportional to the pool size
+            int window = Math.max(2, pool.getParallelism() * 2);
+            Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+            long offset = 0;     // where the next chunk to submit begins nominally
+            long replayed = 0;   // end of the chunks replayed so far, a known statement boundary
+            while (offset < size || !inFlight.isEmpty()) {
+                while (offset < size && inFlight.size() < window) {
+                    long from = offset;
+                    long to = size - from <= chunkSize ? size : from + chunkSize;
+                    inFlight.add(pool.submit(() -> loadChunk(channel, from, from == 0, to, size)));
+                    offset = to;
+                }
+                ChunkResult chunk = join(inFlight.poll());
+                if (chunk.start != replayed) {
+                    if (replayed >= chunk.to) {
+                        continue;   // the previous chunk already ran past this one
+                    }
+                    // The guessed start was wrong, e.g. inside a quoted ID; redo the chunk from the known boundary
+                    chunk = loadChunk(channel, replayed, true, chunk.to, size);
+                }
+                chunk.replay(handler);
+                replayed = chunk.end;
+            }
+        }
+    }
+
+    // Tokenizes from the boundary at or after from to the first boundary at or after to. Unless from
+    // is known to be a boundary, the start is a guess that load() checks against the previous chunk
+    private static ChunkResult loadChunk(FileChannel channel, long from, boolean boundary, long to, long size)
+            throws IOException {
+        long start = boundary ? from : findBoundary(channel, from, from, size);
+        long end = to >= size ? size : findBoundary(channel, start, Math.max(start, to), size);
+        ChunkResult result = new ChunkResult(start, end, to);
+        tokenize(channel, start, end, result);
+        return result;
+    }
+
+    // First position at or after from that follows a line break outside quotes, comments and attribute
+    // lists, where the line does not end with an edge operator or '=' and the next one does not continue
+    // the statement with an edge operator, '=', attribute list or comment. The scan starts at start, a
+    // boundary, so it knows whether from falls inside a quoted ID or a multi-line comment
+    private static long findBoundary(FileChannel channel, long start, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_WINDOW);
+        boolean quoted = false;         // inside a quoted ID or attribute value
+        boolean escaped = false;
+        boolean attributes = false;     // inside [ ... ]
+        boolean lineComment = false;
+        boolean blockComment = false;
+        byte previous = '\n';
+        byte lastNonBlank = 0;          // last byte of the line outside comments, or 0 for a blank line
+        long candidate = -1;
+        long position = start;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = window.get(i);
+                boolean blank = blank(b);
+                if (candidate >= 0 && !blank) {
+                    if (b != '-' && b != '[' && b != '/' && b != '=') {
+                        return candidate;
+                    }
+                    candidate = -1;
+                }
+                if (quoted) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        quoted = false;
+                    }
+                    lastNonBlank = b;
+                } else if (lineComment) {
+                    if (b == '\n') {
+                        lineComment = false;
+                    }
+                } else if (blockComment) {
+                    if (previous == '*' && b == '/') {
+                        blockComment = false;
+                        b = 0;   // so the '/' cannot start another comment
+                    }
+                } else if (b == '/' && previous == '/') {
+                    lineComment = true;
+                } else if (b == '*' && previous == '/') {
+                    blockComment = true;
+                } else if (b == '#' && !attributes && (blank(previous) || previous == ';' || previous == '{' || previous == '}')) {
+                    lineComment = true;
+                } else if (b == '"') {
+                    quoted = true;
+                    lastNonBlank = b;
+                } else if (b == '[') {
+                    attributes = true;
+                    lastNonBlank = b;
+                } else if (b == ']') {
+                    attributes = false;
+                    lastNonBlank = b;
+                } else if (b != '/' && !blank) {
+                    // A '/' only counts once we know it does not open a comment
+                    lastNonBlank = b;
+                }
+                if (b == '\n' && !quoted && !blockComment && !lineComment && !attributes) {
+                    if (candidate < 0 && position + i + 1 >= from && lastNonBlank != 0 && lastNonBlank != '>' && lastNonBlank != '-'
+                            && lastNonBlank != '=') {
+                        candidate = position + i + 1;
+                    }
+                    lastNonBlank = 0;
+                }
+                previous = b;
+            }
+            position += read;
+        }
+        return candidate >= 0 ? candidate : size;
+    }
+
+    private static boolean blank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f';
+    }
+
+    private static void tokenize(FileChannel channel, long start, long end, ChunkResult result) throws IOException {
+        DotStreamParser parser = new DotStreamParser(result);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(DotStreamParser.DEFAULT_BUFFER_SIZE);
+        // Mapped in pieces, since a statement running on for gigabytes can stretch a chunk past one mapping
+        long position = start;
+        do {
+            long length = Math.min(MAX_MAPPING, end - position);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean last = position + length == end;
+            CoderResult coderResult;
+            do {
+                coderResult = decoder.decode(bytes, chars, last);
+                drain(chars, parser);
+            } while (coderResult.isOverflow());
+            // A character cut off by the end of the piece is decoded with the next one
+            position += length - bytes.remaining();
+        } while (position < end);
+        while (decoder.flush(chars).isOverflow()) {
+            drain(chars, parser);
+        }
+        drain(chars, parser);
+        parser.finish();
+    }
+
+    private static void drain(CharBuffer chars, DotStreamParser parser) {
+        chars.flip();
+        parser.feed(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        chars.clear();
+    }
+
+    private static ChunkResult join(ForkJoinTask<ChunkResult> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading graph");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to tokenize graph chunk", e.getCause());
+        }
+    }
+
+    // Statements of one chunk, with labels deduplicated locally
+    private static final class ChunkResult implements DotStreamParser.Handler {
+        final long start;
+        final long end;
+        final long to;   // nominal end the chunk was planned with
+        private final Map<String, Integer> labelIds = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private int[] statements = new int[256];   // pairs of (source, target); target -1 marks a node statement
+        private double[] weights;                  // per statement pair, NaN when the edge has no weight
+        private int size;
+
+        ChunkResult(long start, long end, long to) {
+            this.start = start;
+            this.end = end;
+            this.to = to;
+        }
+
+        @Override
+        public void node(String label) {
+            append(intern(label), -1);
+        }
+
+        @Override
+        public void edge(String source, String target) {
+            append(intern(source), intern(target));
+        }
+
+        @Override
+        public void edge(String source, String target, double weight) {
+            append(intern(source), intern(target));
+            if (weights == null) {
+                weights = new double[statements.length / 2];
+                Arrays.fill(weights, Double.NaN);
+            }
+            weights[size / 2 - 1] = weight;
+        }
+
+        private int intern(String label) {
+            Integer id = labelIds.get(label);
+            if (id == null) {
+                id = labels.size();
+                labelIds.put(label, id);
+                labels.add(label);
+            }
+            return id;
+        }
+
+        private void append(int source, int target) {
+            if (size + 2 > statements.length) {
+                statements = Arrays.copyOf(statements, statements.length * 2);
+                if (weights != null) {
+                    int filled = weights.length;
+                    weights = Arrays.copyOf(weights, statements.length / 2);
+                    Arrays.fill(weights, filled, weights.length, Double.NaN);
+                }
+            }
+            statements[size++] = source;
+            statements[size++] = target;
+        }
+
+        void replay(DotStreamParser.Handler handler) {
+            for (int i = 0; i < size; i += 2) {
+                String source = labels.get(statements[i]);
+                int target = statements[i + 1];
+                if (target < 0) {
+                    handler.node(source);
+                } else if (weights == null || Double.isNaN(weights[i / 2])) {
+                    handler.edge(source, labels.get(target));
+                } else {
+                    handler.edge(source, labels.get(target), weights[i / 2]);
+                }
+            }
+        }
+    }
+}
@@ -4,28 +4,57 @@ import org.jgrapht.graph.DefaultEdge;
 import java.util.*;
 
 public class RandomWalk extends GraphTraversalTemplate {
-    private final Random random = new Random();
+    private final SplittableRandom random;
     private Node current;
+    private Path walk;   // set only when the walk reaches the destination
+    private TraversalWorkspace workspace;
 
     public RandomWalk(Graph<Node, DefaultEdge> graph) {
+        this(graph, new SplittableRandom());
+    }
+
+    // A seeded generator makes the walk reproducible
+    public RandomWalk(Graph<Node, DefaultEdge> graph, SplittableRandom random) {
         super(graph);
+        this.random = random;
+    }
+
+    public RandomWalk(CsrGraph compactGraph) {
+        this(compactGraph, new SplittableRandom());
+    }
+
+    public RandomWalk(CsrGraph compactGraph, SplittableRandom random) {
+        super(compactGraph);
+        this.random = random;
     }
 
     @Override
     protected void initializeTraversal(Node source) {
         current = source;
-        System.out.println("Initializing traversal. Starting at node: " + source);
+        walk = null;
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Initializing traversal. Starting at node: " + source);
+        }
     }
 
     @Override
     protected void performTraversal(Node source, Node destination) {
+        if (compactGraph != null) {
+            performCompactTraversal(compactGraph.idOf(source), compactGraph.idOf(destination));
+            return;
+        }
+        boolean debug = TraversalLog.isDebugEnabled();
         Path path = new Path();
         Set<Node> visited = new HashSet<>();
+        List<Node> neighbors = new ArrayList<>();
         path.addNode(current);
         visited.add(current);
+        nodesVisited = 1;
+        frontierPeak = 1;
 
         while (!current.equals(destination)) {
-            List<Node> neighbors = new ArrayList<>();
+            neighbors.clear();
+            edgesScanned += graph.outDegreeOf(current);
             for (DefaultEdge edge : graph.outgoingEdgesOf(current)) {
                 Node neighbor = graph.getEdgeTarget(edge);
                 if (!visited.contains(neighbor)) {
@@ -34,19 +63,83 @@ public class RandomWalk extends GraphTraversalTemplate {
             }
 
             if (neighbors.isEmpty()) {
-                System.out.println("No more unvisited neighbors. Random walk failed.");
+                TraversalLog.info("No more unvisited neighbors. Random walk failed.");
                 return; // Exit without marking success
             }
 
             current = neighbors.get(random.nextInt(neighbors.size()));
             path.addNode(current);
             visited.add(current);
-            System.out.println("visiting Path{nodes=" + path.getNodes() + "}");
+            nodesVisited++;
+            if (debug) {
+                TraversalLog.debug("visiting " + current);
+            }
+        }
+
+        walk = path;
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Random walk succeeded. Path: " + path);
+        }
+    }
+
+    private void performCompactTraversal(int source, int destination) {
+        boolean debug = TraversalLog.isDebugEnabled();
+        // Pooled marks, so repeated walks over a large graph do not each allocate a vertex-sized array
+        workspace = TraversalWorkspace.acquire(compactGraph.vertexCount());
+        int[] neighbors = new int[16];
+        Path path = new Path();
+        int position = source;
+        path.addNode(compactGraph.node(position));
+        workspace.visit(position, -1);
+        nodesVisited = 1;
+        frontierPeak = 1;
+
+        while (position != destination) {
+            int count = 0;
+            edgesScanned += compactGraph.outDegree(position);
+            for (int e = compactGraph.outStart(position), end = compactGraph.outEnd(position); e < end; e++) {
+                int neighbor = compactGraph.target(e);
+                if (!workspace.isVisited(neighbor)) {
+                    if (count == neighbors.length) {
+                        neighbors = Arrays.copyOf(neighbors, count * 2);
+                    }
+                    neighbors[count++] = neighbor;
+                }
+            }
+
+            if (count == 0) {
+                TraversalLog.info("No more unvisited neighbors. Random walk failed.");
+                return; // Exit without marking success
+            }
+
+            position = neighbors[random.nextInt(count)];
+            path.addNode(compactGraph.node(position));
+            workspace.visit(position, -1);
+            nodesVisited++;
+            if (debug) {
+                TraversalLog.debug("visiting " + compactGraph.label(position));
+            }
         }
 
-        System.out.println("Random walk succeeded. Path: " + path);
+        walk = path;
+        if (TraversalLog.isInfoEnabled()) {
+            TraversalLog.info("Random walk succeeded. Path: " + path);
+        }
     }
 
+    @Override
+    protected void finishTraversal() {
+        if (workspace != null) {
+            workspace.release();
+            workspace = null;
+        }
+    }
+
+    // The walked path itself; a failed walk gives just the destination, like an unreachable BFS
+    @Override
+    protected Path buildPath(Node source, Node destination) {
+        return walk != null ? walk : super.buildPath(source, destination);
+    }
 
     @Override
     protected Node getPredecessor(Node node) {
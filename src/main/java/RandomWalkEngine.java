@@ -0,0 +1,257 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte-Carlo random walks over a {@link CsrGraph}. Walks are split into fixed-size chunks
+ * and each chunk draws from its own {@link SplittableRandom}, split off a seeded root in
+ * chunk order before any work starts. Chunk statistics are combined in that same order, so
+ * the result for a seed does not depend on the pool size or on scheduling. Each step picks
+ * an out-neighbour straight from the CSR arrays, without allocating. Self-avoiding walks
+ * mark vertices in the calling thread's pooled {@link TraversalWorkspace}, so an engine
+ * holds no per-thread state of its own.
+ */
+public class RandomWalkEngine {
+    private static final int CHUNK = 4096;
+
+    private final CsrGraph compactGraph;
+    private final ForkJoinPool pool;
+    private final boolean selfAvoiding;
+
+    // Plain walks may revisit vertices; self-avoiding walks never do, like RANDOM_WALK searches
+    public RandomWalkEngine(CsrGraph compactGraph, ForkJoinPool pool, boolean selfAvoiding) {
+        this.compactGraph = compactGraph;
+        this.pool = pool;
+        this.selfAvoiding = selfAvoiding;
+    }
+
+    /**
+     * Outcome of a batch of walks. Lengths count steps, so a walk that starts on the
+     * destination has length 0. Length figures cover only the walks that hit the destination.
+     */
+    public static final class Statistics {
+        private long walks;
+        private long hits;
+        private long deadEnds;    // stopped at a vertex with no (unvisited) out-neighbour
+        private long truncated;   // gave up after maxSteps
+        private long lengthSum;
+        private double lengthSquareSum;
+        private int minLength = Integer.MAX_VALUE;
+        private int maxLength;
+
+        public long getWalks() {
+            return walks;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getDeadEnds() {
+            return deadEnds;
+        }
+
+        public long getTruncated() {
+            return truncated;
+        }
+
+        public double getHitProbability() {
+            return walks == 0 ? 0 : (double) hits / walks;
+        }
+
+        public double getMeanLength() {
+            return hits == 0 ? Double.NaN : (double) lengthSum / hits;
+        }
+
+        public double getLengthStdDev() {
+            if (hits == 0) {
+                return Double.NaN;
+            }
+            double mean = getMeanLength();
+            return Math.sqrt(Math.max(0, lengthSquareSum / hits - mean * mean));
+        }
+
+        // -1 when no walk hit the destination
+        public int getMinLength() {
+            return hits == 0 ? -1 : minLength;
+        }
+
+        public int getMaxLength() {
+            return hits == 0 ? -1 : maxLength;
+        }
+
+        private void hit(int length) {
+            hits++;
+            lengthSum += length;
+            lengthSquareSum += (double) length * length;
+            minLength = Math.min(minLength, length);
+            maxLength = Math.max(maxLength, length);
+        }
+
+        private void add(Statistics other) {
+            walks += other.walks;
+            hits += other.hits;
+            deadEnds += other.deadEnds;
+            truncated += other.truncated;
+            lengthSum += other.lengthSum;
+            lengthSquareSum += other.lengthSquareSum;
+            minLength = Math.min(minLength, other.minLength);
+            maxLength = Math.max(maxLength, other.maxLength);
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{walks=" + walks + ", hits=" + hits + ", hitProbability=" + getHitProbability()
+                    + ", meanLength=" + getMeanLength() + ", deadEnds=" + deadEnds + ", truncated=" + truncated + "}";
+        }
+    }
+
+    public Statistics run(Node source, Node destination, long walks, int maxSteps, long seed) {
+        if (walks < 0 || maxSteps < 0) {
+            throw new IllegalArgumentException("Walk count and step limit must not be negative.");
+        }
+        int from = vertex(source);
+        int to = vertex(destination);
+        int chunks = (int) ((walks + CHUNK - 1) / CHUNK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+        return pool.invoke(new WalkTask(this, from, to, walks, maxSteps, randoms, 0, chunks));
+    }
+
+    // One walk, returned as the visited vertices in order; it ends on the destination only if it hit it
+    public Path walk(Node source, Node destination, int maxSteps, long seed) {
+        int from = vertex(source);
+        int to = vertex(destination);
+        Path path = new Path();
+        walk(from, to, maxSteps, new SplittableRandom(seed), path);
+        return path;
+    }
+
+    private int vertex(Node node) {
+        int id = compactGraph.idOf(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        return id;
+    }
+
+    // Returns the step count on a hit, -1 at a dead end and -2 after maxSteps
+    private int walk(int from, int to, int maxSteps, SplittableRandom random, Path path) {
+        if (!selfAvoiding) {
+            return walk(from, to, maxSteps, random, null, path);
+        }
+        TraversalWorkspace visited = TraversalWorkspace.acquire(compactGraph.vertexCount());
+        try {
+            return walk(from, to, maxSteps, random, visited, path);
+        } finally {
+            visited.release();
+        }
+    }
+
+    private int walk(int from, int to, int maxSteps, SplittableRandom random, TraversalWorkspace visited, Path path) {
+        int position = from;
+        if (visited != null) {
+            visited.visit(position, -1);
+        }
+        if (path != null) {
+            path.addNode(compactGraph.node(position));
+        }
+        for (int steps = 0; ; steps++) {
+            if (position == to) {
+                return steps;
+            }
+            if (steps == maxSteps) {
+                return -2;
+            }
+            int start = compactGraph.outStart(position);
+            int end = compactGraph.outEnd(position);
+            int next;
+            if (visited == null) {
+                if (start == end) {
+                    return -1;
+                }
+                next = compactGraph.target(start + random.nextInt(end - start));
+            } else {
+                int candidates = 0;
+                for (int e = start; e < end; e++) {
+                    if (!visited.isVisited(compactGraph.target(e))) {
+                        candidates++;
+                    }
+                }
+                if (candidates == 0) {
+                    return -1;
+                }
+                int pick = random.nextInt(candidates);
+                next = -1;
+                for (int e = start; next < 0; e++) {
+                    if (!visited.isVisited(compactGraph.target(e)) && pick-- == 0) {
+                        next = compactGraph.target(e);
+                    }
+                }
+                visited.visit(next, position);
+            }
+            position = next;
+            if (path != null) {
+                path.addNode(compactGraph.node(position));
+            }
+        }
+    }
+
+    private static final class WalkTask extends RecursiveTask<Statistics> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RandomWalkEngine engine;
+        private final int from;
+        private final int to;
+        private final long walks;
+        private final int maxSteps;
+        private final transient SplittableRandom[] randoms;
+        private final int firstChunk;
+        private final int endChunk;
+
+        WalkTask(RandomWalkEngine engine, int from, int to, long walks, int maxSteps, SplittableRandom[] randoms,
+                 int firstChunk, int endChunk) {
+            this.engine = engine;
+            this.from = from;
+            this.to = to;
+            this.walks = walks;
+            this.maxSteps = maxSteps;
+            this.randoms = randoms;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        protected Statistics compute() {
+            if (endChunk - firstChunk > 1) {
+                int middle = (firstChunk + endChunk) >>> 1;
+                WalkTask right = new WalkTask(engine, from, to, walks, maxSteps, randoms, middle, endChunk);
+                right.fork();
+                Statistics result = new WalkTask(engine, from, to, walks, maxSteps, randoms, firstChunk, middle).compute();
+                result.add(right.join());
+                return result;
+            }
+            Statistics statistics = new Statistics();
+            if (firstChunk == endChunk) {
+                return statistics;
+            }
+            SplittableRandom random = randoms[firstChunk];
+            long count = Math.min(CHUNK, walks - (long) firstChunk * CHUNK);
+            for (int i = 0; i < count; i++) {
+                int length = engine.walk(from, to, maxSteps, random, null);
+                statistics.walks++;
+                if (length >= 0) {
+                    statistics.hit(length);
+                } else if (length == -1) {
+                    statistics.deadEnds++;
+                } else {
+                    statistics.truncated++;
+                }
+            }
+            return statistics;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+import java.util.*;
+
+/**
+ * Answers "can X reach Y" without traversing the graph. Strongly connected components are
+ * condensed into a DAG whose components are numbered in reverse topological order (edges
+ * always point to a lower number). Small DAGs get a full transitive-closure bitset per
+ * component, so queries are a single bit test. Larger DAGs get GRAIL-style interval labels
+ * from several randomized DFS orders: a query outside any interval is answered "no" at
+ * once, a query inside the first traversal's spanning tree is answered "yes" at once, and
+ * only the remaining cases fall back to a DFS pruned by those labels.
+ */
+public class ReachabilityIndex {
+    private static final int BITSET_COMPONENT_LIMIT = 8192;
+    private static final int INTERVAL_TRAVERSALS = 3;
+
+    private final CsrGraph graph;
+    private final int[] components;        // component id of each vertex
+    private final int componentCount;
+    private final int[] dagOffsets;
+    private final int[] dagTargets;
+    private long[][] closure;              // closure[c] has bit d set iff c reaches d
+    private int[][] lows;                  // lows[i][c] .. posts[i][c] is c's interval in traversal i
+    private int[][] posts;
+    private int[] treePre;                 // spanning-tree interval of traversal 0
+    private final long buildTimeNanos;
+    private volatile boolean stale;
+
+    private ReachabilityIndex(CsrGraph graph) {
+        long start = System.nanoTime();
+        this.graph = graph;
+        int vertexCount = graph.vertexCount();
+        this.components = new int[vertexCount];
+        this.componentCount = findComponents();
+
+        // Group vertices by component, then collect distinct component-to-component edges
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int component : components) {
+            memberOffsets[component + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[vertexCount];
+        int[] next = Arrays.copyOf(memberOffsets, componentCount);
+        for (int v = 0; v < vertexCount; v++) {
+            members[next[components[v]]++] = v;
+        }
+        int[] lastSource = new int[componentCount];
+        Arrays.fill(lastSource, -1);
+        int[] offsets = new int[componentCount + 1];
+        int[] targets = new int[16];
+        int size = 0;
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c] = size;
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int v = members[m];
+                for (int e = graph.outStart(v), end = graph.outEnd(v); e < end; e++) {
+                    int d = components[graph.target(e)];
+                    if (d != c && lastSource[d] != c) {
+                        lastSource[d] = c;
+                        if (size == targets.length) {
+                            targets = Arrays.copyOf(targets, size * 2);
+                        }
+                        targets[size++] = d;
+                    }
+                }
+            }
+        }
+        offsets[componentCount] = size;
+        this.dagOffsets = offsets;
+        this.dagTargets = Arrays.copyOf(targets, size);
+
+        if (componentCount <= BITSET_COMPONENT_LIMIT) {
+            buildClosure();
+        } else {
+            buildIntervals();
+        }
+        this.buildTimeNanos = System.nanoTime() - start;
+    }
+
+    public static ReachabilityIndex build(CsrGraph graph) {
+        return new ReachabilityIndex(graph);
+    }
+
+    public boolean canReach(Node source, Node target) {
+        int from = graph.idOf(source);
+        int to = graph.idOf(target);
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        return canReach(from, to);
+    }
+
+    public boolean canReach(int source, int target) {
+        int from = components[source];
+        int to = components[target];
+        if (from == to) {
+            return true;
+        }
+        if (to > from) {
+            return false;
+        }
+        if (closure != null) {
+            return (closure[from][to >>> 6] & (1L << to)) != 0;
+        }
+        if (!intervalsContain(from, to)) {
+            return false;
+        }
+        if (treePre[from] <= treePre[to] && posts[0][to] <= posts[0][from]) {
+            return true;
+        }
+        return prunedSearch(from, to);
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public long getBuildTimeNanos() {
+        return buildTimeNanos;
+    }
+
+    // Approximate heap footprint of the index arrays
+    public long estimatedBytes() {
+        long bytes = 4L * (components.length + dagOffsets.length + dagTargets.length);
+        if (closure != null) {
+            bytes += 8L * componentCount * ((componentCount + 63) >>> 6);
+        } else {
+            bytes += 4L * componentCount * (2 * INTERVAL_TRAVERSALS + 1);
+        }
+        return bytes;
+    }
+
+    // Set by GraphParser on every mutation; a stale index still describes the old graph
+    public void markStale() {
+        stale = true;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    // Iterative Tarjan; components are completed, and therefore numbered, sinks first
+    private int findComponents() {
+        int vertexCount = graph.vertexCount();
+        int[] order = new int[vertexCount];
+        int[] lowLink = new int[vertexCount];
+        int[] stack = new int[vertexCount];
+        int[] callVertex = new int[vertexCount];
+        int[] callEdge = new int[vertexCount];
+        boolean[] onStack = new boolean[vertexCount];
+        Arrays.fill(order, -1);
+        int counter = 0;
+        int stackSize = 0;
+        int count = 0;
+
+        for (int root = 0; root < vertexCount; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callVertex[0] = root;
+            callEdge[0] = graph.outStart(root);
+            order[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callVertex[depth];
+                if (callEdge[depth] < graph.outEnd(v)) {
+                    int w = graph.target(callEdge[depth]++);
+                    if (order[w] < 0) {
+                        order[w] = lowLink[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callVertex[depth] = w;
+                        callEdge[depth] = graph.outStart(w);
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], order[w]);
+                    }
+                    continue;
+                }
+                if (lowLink[v] == order[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        components[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callVertex[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void buildClosure() {
+        int words = (componentCount + 63) >>> 6;
+        closure = new long[componentCount][words];
+        // Successors have lower ids, so their closures are complete before they are needed
+        for (int c = 0; c < componentCount; c++) {
+            long[] reach = closure[c];
+            reach[c >>> 6] |= 1L << c;
+            for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+                long[] successor = closure[dagTargets[e]];
+                for (int w = 0; w < words; w++) {
+                    reach[w] |= successor[w];
+                }
+            }
+        }
+    }
+
+    private void buildIntervals() {
+        lows = new int[INTERVAL_TRAVERSALS][componentCount];
+        posts = new int[INTERVAL_TRAVERSALS][componentCount];
+        treePre = new int[componentCount];
+        boolean[] hasParent = new boolean[componentCount];
+        for (int target : dagTargets) {
+            hasParent[target] = true;
+        }
+        int rootCount = 0;
+        int[] roots = new int[componentCount];
+        for (int c = componentCount - 1; c >= 0; c--) {
+            if (!hasParent[c]) {
+                roots[rootCount++] = c;
+            }
+        }
+
+        Random random = new Random(31);
+        boolean[] visited = new boolean[componentCount];
+        int[] stack = new int[componentCount];
+        int[] edgeCursor = new int[componentCount];
+        int[] edgeOrder = Arrays.copyOf(dagTargets, dagTargets.length);
+        for (int i = 0; i < INTERVAL_TRAVERSALS; i++) {
+            int[] low = lows[i];
+            int[] post = posts[i];
+            if (i > 0) {
+                // Later traversals visit roots and children in a different random order
+                shuffle(roots, 0, rootCount, random);
+                for (int c = 0; c < componentCount; c++) {
+                    shuffle(edgeOrder, dagOffsets[c], dagOffsets[c + 1], random);
+                }
+            }
+            Arrays.fill(visited, false);
+            int rank = 0;
+            int preRank = 0;
+            for (int r = 0; r < rootCount; r++) {
+                int depth = 0;
+                stack[0] = roots[r];
+                edgeCursor[roots[r]] = dagOffsets[roots[r]];
+                visited[roots[r]] = true;
+                low[roots[r]] = Integer.MAX_VALUE;
+                if (i == 0) {
+                    treePre[roots[r]] = preRank++;
+                }
+                while (depth >= 0) {
+                    int c = stack[depth];
+                    if (edgeCursor[c] < dagOffsets[c + 1]) {
+                        int child = edgeOrder[edgeCursor[c]++];
+                        if (!visited[child]) {
+                            visited[child] = true;
+                            low[child] = Integer.MAX_VALUE;
+                            edgeCursor[child] = dagOffsets[child];
+                            if (i == 0) {
+                                treePre[child] = preRank++;
+                            }
+                            stack[++depth] = child;
+                        } else {
+                            low[c] = Math.min(low[c], low[child]);
+                        }
+                        continue;
+                    }
+                    post[c] = rank++;
+                    low[c] = Math.min(low[c], post[c]);
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = stack[depth];
+                        low[parent] = Math.min(low[parent], low[c]);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean intervalsContain(int from, int to) {
+        for (int i = 0; i < INTERVAL_TRAVERSALS; i++) {
+            if (lows[i][to] < lows[i][from] || posts[i][to] > posts[i][from]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // DFS over the condensation that skips every component whose labels rule out 'to'
+    private boolean prunedSearch(int from, int to) {
+        BitSet seen = new BitSet(componentCount);
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = from;
+        seen.set(from);
+        while (size > 0) {
+            int c = stack[--size];
+            for (int e = dagOffsets[c]; e < dagOffsets[c + 1]; e++) {
+                int child = dagTargets[e];
+                if (child == to) {
+                    return true;
+                }
+                if (child > to && !seen.get(child) && intervalsContain(child, to)) {
+                    seen.set(child);
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = child;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void shuffle(int[] values, int from, int to, Random random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
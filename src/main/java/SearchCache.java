@@ -0,0 +1,176 @@
+import java.util.*;
+
+/**
+ * LRU cache of {@link GraphParser#graphSearch} results, bounded by the total number of
+ * nodes held in cached paths. Entries are indexed by every node on their path so that
+ * removing a node or an edge only drops the results that used it; a cached path that
+ * avoids the removed element is still a valid (and, for BFS variants, still shortest)
+ * path. Adding an edge can shorten or create paths anywhere, so it clears the cache.
+ */
+public class SearchCache {
+    private final long maxWeight;
+    private final LinkedHashMap<Key, List<Node>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Node, Set<Key>> keysByNode = new HashMap<>();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SearchCache(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache weight must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    // Returns a copy of the cached path, or null on a miss
+    public synchronized Path get(Node source, Node destination, GraphParser.Algorithm algorithm) {
+        List<Node> nodes = entries.get(new Key(source, destination, algorithm));
+        if (nodes == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copyOf(nodes);
+    }
+
+    public synchronized void put(Node source, Node destination, GraphParser.Algorithm algorithm, Path path) {
+        List<Node> nodes = List.copyOf(path.getNodes());
+        if (nodes.size() > maxWeight) {
+            return;
+        }
+        Key key = new Key(source, destination, algorithm);
+        remove(key);
+        entries.put(key, nodes);
+        weight += weightOf(nodes);
+        index(key, source);
+        for (Node node : nodes) {
+            index(key, node);
+        }
+
+        Iterator<Map.Entry<Key, List<Node>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<Key, List<Node>> entry = eldest.next();
+            eldest.remove();
+            forget(entry.getKey(), entry.getValue());
+            evictions++;
+        }
+    }
+
+    // Drops results whose path or endpoints include the node
+    public synchronized void invalidateNode(Node node) {
+        Set<Key> keys = keysByNode.get(node);
+        if (keys != null) {
+            for (Key key : new ArrayList<>(keys)) {
+                remove(key);
+            }
+        }
+    }
+
+    // Drops results whose path uses the edge
+    public synchronized void invalidateEdge(Node source, Node target) {
+        Set<Key> keys = keysByNode.get(source);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : new ArrayList<>(keys)) {
+            List<Node> nodes = entries.get(key);
+            for (int i = 1; i < nodes.size(); i++) {
+                if (nodes.get(i - 1).equals(source) && nodes.get(i).equals(target)) {
+                    remove(key);
+                    break;
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keysByNode.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void remove(Key key) {
+        List<Node> nodes = entries.remove(key);
+        if (nodes != null) {
+            forget(key, nodes);
+        }
+    }
+
+    private void forget(Key key, List<Node> nodes) {
+        weight -= weightOf(nodes);
+        unindex(key, key.source);
+        for (Node node : nodes) {
+            unindex(key, node);
+        }
+    }
+
+    private void index(Key key, Node node) {
+        keysByNode.computeIfAbsent(node, n -> new HashSet<>()).add(key);
+    }
+
+    private void unindex(Key key, Node node) {
+        Set<Key> keys = keysByNode.get(node);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByNode.remove(node);
+        }
+    }
+
+    // Entries are weighed by path length, with a floor of one for the key itself
+    private static long weightOf(List<Node> nodes) {
+        return Math.max(1, nodes.size());
+    }
+
+    private static Path copyOf(List<Node> nodes) {
+        Path path = new Path();
+        for (Node node : nodes) {
+            path.addNode(node);
+        }
+        return path;
+    }
+
+    private static final class Key {
+        private final Node source;
+        private final Node destination;
+        private final GraphParser.Algorithm algorithm;
+
+        Key(Node source, Node destination, GraphParser.Algorithm algorithm) {
+            this.source = source;
+            this.destination = destination;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return source.equals(key.source) && destination.equals(key.destination) && algorithm == key.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, destination, algorithm);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous front end for {@link ConcurrentGraphParser#graphSearch}. Requests go into a
+ * bounded queue; when it is full, {@link #search} fails the returned future with a
+ * {@link RejectedExecutionException} instead of blocking the caller. A dispatcher drains
+ * the queue in batches and groups BFS, DFS and DIJKSTRA requests that share a source and
+ * algorithm, so each group costs one {@link BatchSearch} traversal on one snapshot. Groups
+ * run on a fixed pool of {@code maxConcurrentTraversals} platform threads, so each worker
+ * keeps reusing its pooled {@link TraversalWorkspace}; while they are all busy the
+ * dispatcher stops draining, and the queue absorbs bursts until it fills.
+ */
+public class SearchService implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH = 1024;
+    private static final Request STOP = new Request(null, null, null);
+
+    private final ConcurrentGraphParser parser;
+    private final ArrayBlockingQueue<Request> queue;
+    private final Semaphore traversalPermits;
+    private final long lingerNanos;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong traversals = new AtomicLong();
+
+    public SearchService(ConcurrentGraphParser parser) {
+        this(parser, DEFAULT_QUEUE_CAPACITY, Runtime.getRuntime().availableProcessors(), 0, TimeUnit.NANOSECONDS);
+    }
+
+    // A positive linger makes the dispatcher wait that long after a request for others to coalesce with it
+    public SearchService(ConcurrentGraphParser parser, int queueCapacity, int maxConcurrentTraversals,
+                         long linger, TimeUnit unit) {
+        if (queueCapacity <= 0 || maxConcurrentTraversals <= 0) {
+            throw new IllegalArgumentException("Queue capacity and traversal limit must be positive.");
+        }
+        if (linger < 0) {
+            throw new IllegalArgumentException("Linger must not be negative: " + linger);
+        }
+        this.parser = parser;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.traversalPermits = new Semaphore(maxConcurrentTraversals);
+        // Long-lived workers, since traversal workspaces are pooled per thread
+        this.workers = Executors.newFixedThreadPool(maxConcurrentTraversals,
+                Thread.ofPlatform().name("search-worker-", 0).daemon().factory());
+        this.lingerNanos = unit.toNanos(linger);
+        this.dispatcher = Thread.ofVirtual().name("search-dispatcher").start(this::dispatch);
+    }
+
+    private static final class Request {
+        final Node source;
+        final Node destination;
+        final GraphParser.Algorithm algorithm;
+        final CompletableFuture<Path> result = new CompletableFuture<>();
+
+        Request(Node source, Node destination, GraphParser.Algorithm algorithm) {
+            this.source = source;
+            this.destination = destination;
+            this.algorithm = algorithm;
+        }
+
+        // Requests with equal keys can share a traversal; other requests are their own key
+        Object key() {
+            return switch (algorithm) {
+                case BFS, DFS, DIJKSTRA -> List.of(source, algorithm);
+                default -> this;
+            };
+        }
+    }
+
+    public CompletableFuture<Path> search(Node source, Node destination, GraphParser.Algorithm algorithm) {
+        if (source == null || destination == null || algorithm == null) {
+            throw new IllegalArgumentException("Source, destination and algorithm must not be null.");
+        }
+        Request request = new Request(source, destination, algorithm);
+        if (closed) {
+            request.result.completeExceptionally(new RejectedExecutionException("Search service is closed."));
+        } else if (!queue.offer(request)) {
+            rejected.incrementAndGet();
+            request.result.completeExceptionally(new RejectedExecutionException("Search queue is full."));
+        } else {
+            submitted.incrementAndGet();
+        }
+        return request.result;
+    }
+
+    private void dispatch() {
+        List<Request> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.clear();
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                if (lingerNanos > 0) {
+                    long deadline = System.nanoTime() + lingerNanos;
+                    long remaining;
+                    while (batch.size() < MAX_BATCH && (remaining = deadline - System.nanoTime()) > 0) {
+                        Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        queue.drainTo(batch, MAX_BATCH - batch.size());
+                    }
+                }
+                boolean stop = batch.remove(STOP);
+                Map<Object, List<Request>> groups = new LinkedHashMap<>();
+                for (Request request : batch) {
+                    groups.computeIfAbsent(request.key(), key -> new ArrayList<>()).add(request);
+                }
+                GraphParser snapshot = null;
+                try {
+                    snapshot = parser.snapshot();
+                } catch (RuntimeException e) {
+                    // Only this batch is lost; the dispatcher keeps serving later requests
+                    fail(batch, e);
+                }
+                if (snapshot != null) {
+                    for (List<Request> group : groups.values()) {
+                        traversalPermits.acquire();
+                        GraphParser groupSnapshot = snapshot;
+                        try {
+                            workers.execute(() -> {
+                                try {
+                                    run(groupSnapshot, group);
+                                } finally {
+                                    traversalPermits.release();
+                                }
+                            });
+                        } catch (RuntimeException e) {
+                            traversalPermits.release();
+                            fail(group, e);
+                        }
+                    }
+                }
+                if (stop) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(GraphParser snapshot, List<Request> group) {
+        traversals.incrementAndGet();
+        Request first = group.get(0);
+        if (group.size() > 1) {
+            Set<Node> destinations = new LinkedHashSet<>();
+            for (Request request : group) {
+                destinations.add(request.destination);
+            }
+            try {
+                Map<Node, Path> paths = snapshot.graphSearch(first.source, destinations, first.algorithm);
+                for (Request request : group) {
+                    // Each caller gets its own copy, since Path is mutable
+                    Path path = new Path();
+                    paths.get(request.destination).getNodes().forEach(path::addNode);
+                    request.result.complete(path);
+                }
+                return;
+            } catch (RuntimeException e) {
+                // A missing node, or any other failure, sinks the whole batch; answering one by one
+                // fails only the requests it actually affects
+            }
+        }
+        for (Request request : group) {
+            try {
+                request.result.complete(snapshot.graphSearch(request.source, request.destination, request.algorithm));
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void fail(List<Request> requests, Throwable cause) {
+        for (Request request : requests) {
+            request.result.completeExceptionally(cause);
+        }
+    }
+
+    // Requests accepted into the queue
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // Searches run; lower than getSubmitted() by the number of requests that shared one
+    public long getTraversals() {
+        return traversals.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // Answers everything already queued, then stops; later searches are rejected
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.close();
+        // Requests that raced with close() and landed behind STOP
+        Request request;
+        while ((request = queue.poll()) != null) {
+            if (request != STOP) {
+                request.result.completeExceptionally(new RejectedExecutionException("Search service is closed."));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SearchService{submitted=" + submitted + ", rejected=" + rejected + ", traversals=" + traversals
+                + ", queued=" + queue.size() + "}";
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.*;
+
+/**
+ * One partition of a {@link ShardedGraph}, run as its own process:
+ * {@code java -cp <classpath> ShardWorker [port]}. It owns the out-edges of the vertices
+ * hashed to it, including boundary edges whose targets live on other shards, and the BFS
+ * state of those vertices. The worker listens on the loopback interface, prints
+ * {@code PORT <n>} on standard output and serves one coordinator connection until it
+ * is told to shut down or the connection closes.
+ */
+public class ShardWorker {
+    static final byte NODES = 1;
+    static final byte EDGES = 2;
+    static final byte CONTAINS = 3;
+    static final byte START = 4;
+    static final byte EXPAND = 5;
+    static final byte DISCOVER = 6;
+    static final byte PARENT = 7;
+    static final byte STATS = 8;
+    static final byte SHUTDOWN = 9;
+
+    private final int shard;
+    private final int shardCount;
+    // Owned vertices and their out-edges in insertion order, like outgoingEdgesOf in JGraphT
+    private final Map<String, LinkedHashSet<String>> adjacency = new HashMap<>();
+    private final Map<String, String> parents = new HashMap<>();   // visited owned vertices; the source maps to null
+    private long edgeCount;
+    private long boundaryEdges;
+
+    ShardWorker(int shard, int shardCount) {
+        this.shard = shard;
+        this.shardCount = shardCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println("PORT " + server.getLocalPort());
+            System.out.flush();
+            try (Socket socket = server.accept()) {
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+                // The coordinator introduces itself with the shard layout before any command
+                new ShardWorker(in.readInt(), in.readInt()).serve(in, out);
+            }
+        }
+    }
+
+    // Shard that owns the vertex with this label
+    static int owner(String label, int shardCount) {
+        return Math.floorMod(label.hashCode(), shardCount);
+    }
+
+    void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            byte command;
+            try {
+                command = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (command) {
+                case NODES -> {
+                    for (int i = in.readInt(); i > 0; i--) {
+                        adjacency.computeIfAbsent(in.readUTF(), label -> new LinkedHashSet<>());
+                    }
+                }
+                case EDGES -> {
+                    for (int i = in.readInt(); i > 0; i--) {
+                        addEdge(in.readUTF(), in.readUTF());
+                    }
+                }
+                case CONTAINS -> out.writeBoolean(adjacency.containsKey(in.readUTF()));
+                case START -> start(in.readUTF());
+                case EXPAND -> expand(in, out);
+                case DISCOVER -> discover(in, out);
+                case PARENT -> {
+                    String parent = parents.get(in.readUTF());
+                    out.writeBoolean(parent != null);
+                    if (parent != null) {
+                        out.writeUTF(parent);
+                    }
+                }
+                case STATS -> {
+                    Runtime runtime = Runtime.getRuntime();
+                    System.gc();
+                    out.writeInt(adjacency.size());
+                    out.writeLong(edgeCount);
+                    out.writeLong(boundaryEdges);
+                    out.writeLong(runtime.totalMemory() - runtime.freeMemory());
+                }
+                case SHUTDOWN -> {
+                    out.flush();
+                    return;
+                }
+                default -> throw new IOException("Unknown shard command " + command);
+            }
+            out.flush();
+        }
+    }
+
+    private void addEdge(String source, String target) {
+        LinkedHashSet<String> targets = adjacency.computeIfAbsent(source, label -> new LinkedHashSet<>());
+        if (targets.add(target)) {
+            edgeCount++;
+            if (owner(target, shardCount) != shard) {
+                boundaryEdges++;
+            }
+        }
+    }
+
+    // Forgets the previous search; the shard owning the source marks it visited
+    private void start(String source) {
+        parents.clear();
+        if (adjacency.containsKey(source)) {
+            parents.put(source, null);
+        }
+    }
+
+    // Scans the out-edges of the owned frontier vertices, given in queue order with their queue index.
+    // Each target is reported once, with the parent and edge that a sequential BFS would reach it through
+    private void expand(DataInputStream in, DataOutputStream out) throws IOException {
+        Map<String, Long> firstSeen = new LinkedHashMap<>();
+        Map<String, String> parentOf = new HashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            int index = in.readInt();
+            String vertex = in.readUTF();
+            Set<String> targets = adjacency.get(vertex);
+            if (targets == null) {
+                continue;
+            }
+            int edge = 0;
+            for (String target : targets) {
+                // Targets already visited here are settled; remote ones are checked by their owner
+                if (!parents.containsKey(target) && !firstSeen.containsKey(target)) {
+                    firstSeen.put(target, ((long) index << 32) | edge);
+                    parentOf.put(target, vertex);
+                }
+                edge++;
+            }
+        }
+        out.writeInt(firstSeen.size());
+        for (Map.Entry<String, Long> entry : firstSeen.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(parentOf.get(entry.getKey()));
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    // Candidate (vertex, parent, order key) triples for owned vertices; the smallest key wins,
+    // and the vertices visited for the first time are returned with their keys
+    private void discover(DataInputStream in, DataOutputStream out) throws IOException {
+        Map<String, Long> bestKey = new HashMap<>();
+        Map<String, String> bestParent = new HashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            String vertex = in.readUTF();
+            String parent = in.readUTF();
+            long key = in.readLong();
+            if (parents.containsKey(vertex)) {
+                continue;
+            }
+            Long best = bestKey.get(vertex);
+            if (best == null || key < best) {
+                bestKey.put(vertex, key);
+                bestParent.put(vertex, parent);
+            }
+        }
+        out.writeInt(bestKey.size());
+        for (Map.Entry<String, Long> entry : bestKey.entrySet()) {
+            parents.put(entry.getKey(), bestParent.get(entry.getKey()));
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,391 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Graph hash-partitioned across {@link ShardWorker} processes, for graphs that outgrow one
+ * JVM. Each vertex lives on the shard its label hashes to, together with its out-edges.
+ * This object is the coordinator: it streams DOT statements to the owning shards and runs
+ * BFS level by level. Every level costs two batched round trips per shard: owners expand
+ * their part of the frontier, then the owners of the targets pick a parent for each new
+ * vertex. Candidates are ordered by (frontier position, edge position), so the path matches
+ * {@link GraphParser#graphSearch} with BFS on the same file. Shards only talk to the
+ * coordinator, which holds one frontier at a time.
+ */
+public class ShardedGraph implements AutoCloseable {
+    private static final int BATCH = 4096;
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final List<Process> processes;
+    private final Socket[] sockets;
+    private final DataInputStream[] in;
+    private final DataOutputStream[] out;
+
+    private ShardedGraph(List<Process> processes, List<InetSocketAddress> workers) throws IOException {
+        this.processes = processes;
+        int shardCount = workers.size();
+        sockets = new Socket[shardCount];
+        in = new DataInputStream[shardCount];
+        out = new DataOutputStream[shardCount];
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                sockets[shard] = new Socket(workers.get(shard).getAddress(), workers.get(shard).getPort());
+                sockets[shard].setTcpNoDelay(true);
+                in[shard] = new DataInputStream(new BufferedInputStream(sockets[shard].getInputStream(), 1 << 16));
+                out[shard] = new DataOutputStream(new BufferedOutputStream(sockets[shard].getOutputStream(), 1 << 16));
+                out[shard].writeInt(shard);
+                out[shard].writeInt(shardCount);
+                out[shard].flush();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // Starts the workers as child processes of this JVM, on its classpath, listening on loopback ports
+    public static ShardedGraph launch(int shardCount, String... jvmOptions) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmOptions));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), "ShardWorker", "0"));
+        List<Process> processes = new ArrayList<>();
+        List<InetSocketAddress> workers = new ArrayList<>();
+        try {
+            // Start every JVM before waiting on any, so they boot in parallel
+            for (int shard = 0; shard < shardCount; shard++) {
+                processes.add(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+            for (int shard = 0; shard < shardCount; shard++) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(processes.get(shard).getInputStream(), StandardCharsets.UTF_8));
+                String line = reader.readLine();
+                if (line == null || !line.startsWith("PORT ")) {
+                    throw new IOException("Shard worker " + shard + " failed to start.");
+                }
+                workers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(line.substring(5).trim())));
+            }
+            return new ShardedGraph(processes, workers);
+        } catch (IOException | RuntimeException e) {
+            processes.forEach(Process::destroyForcibly);
+            throw e;
+        }
+    }
+
+    // Uses workers that were started separately; shard i is the i-th address
+    public static ShardedGraph connect(List<InetSocketAddress> workers) throws IOException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard worker is required.");
+        }
+        return new ShardedGraph(List.of(), workers);
+    }
+
+    public int shardCount() {
+        return sockets.length;
+    }
+
+    // Streams the DOT file to the shards in batches; files ending in .gz are decompressed on the fly
+    public synchronized void parseGraph(String filePath) throws IOException {
+        InputStream stream = Files.newInputStream(Paths.get(filePath));
+        try (Reader reader = new InputStreamReader(filePath.endsWith(".gz") ? new GZIPInputStream(stream, 1 << 16) : stream,
+                StandardCharsets.UTF_8)) {
+            Loader loader = new Loader();
+            new DotStreamParser(loader).parse(reader);
+            loader.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Only BFS is distributed; the path is the one a single-process BFS returns, or just the destination if unreachable
+    public synchronized Path graphSearch(Node sourceNode, Node destinationNode, GraphParser.Algorithm algo) throws IOException {
+        if (algo != GraphParser.Algorithm.BFS) {
+            throw new IllegalArgumentException("Unsupported sharded algorithm: " + algo);
+        }
+        String source = sourceNode.getLabel();
+        String destination = destinationNode.getLabel();
+        if (!contains(source) || !contains(destination)) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        for (DataOutputStream shard : out) {
+            shard.writeByte(ShardWorker.START);
+            shard.writeUTF(source);
+            shard.flush();
+        }
+
+        List<String> frontier = List.of(source);
+        boolean found = source.equals(destination);
+        while (!found && !frontier.isEmpty()) {
+            List<List<Candidate>> candidates = expand(frontier);
+            frontier = discover(candidates);
+            found = frontier.contains(destination);
+        }
+
+        Path path = new Path();
+        if (!found) {
+            path.addNode(destinationNode);
+            return path;
+        }
+        for (String step = destination; step != null; step = parent(step)) {
+            path.addNode(new Node(step));
+        }
+        Collections.reverse(path.getNodes());
+        return path;
+    }
+
+    // Sends each shard its part of the frontier with queue positions; returns the candidates grouped by target owner
+    private List<List<Candidate>> expand(List<String> frontier) throws IOException {
+        List<List<Integer>> owned = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            owned.add(new ArrayList<>());
+        }
+        for (int i = 0; i < frontier.size(); i++) {
+            owned.get(ShardWorker.owner(frontier.get(i), shardCount())).add(i);
+        }
+        for (int shard = 0; shard < shardCount(); shard++) {
+            if (owned.get(shard).isEmpty()) {
+                continue;
+            }
+            out[shard].writeByte(ShardWorker.EXPAND);
+            out[shard].writeInt(owned.get(shard).size());
+            for (int index : owned.get(shard)) {
+                out[shard].writeInt(index);
+                out[shard].writeUTF(frontier.get(index));
+            }
+            out[shard].flush();
+        }
+        List<List<Candidate>> candidates = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            candidates.add(new ArrayList<>());
+        }
+        for (int shard = 0; shard < shardCount(); shard++) {
+            if (owned.get(shard).isEmpty()) {
+                continue;
+            }
+            for (int i = in[shard].readInt(); i > 0; i--) {
+                String target = in[shard].readUTF();
+                candidates.get(ShardWorker.owner(target, shardCount())).add(new Candidate(target, in[shard].readUTF(), in[shard].readLong()));
+            }
+        }
+        return candidates;
+    }
+
+    // Lets the owners settle the candidates; the newly visited vertices in BFS queue order form the next frontier
+    private List<String> discover(List<List<Candidate>> candidates) throws IOException {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            if (candidates.get(shard).isEmpty()) {
+                continue;
+            }
+            out[shard].writeByte(ShardWorker.DISCOVER);
+            out[shard].writeInt(candidates.get(shard).size());
+            for (Candidate candidate : candidates.get(shard)) {
+                out[shard].writeUTF(candidate.label);
+                out[shard].writeUTF(candidate.parent);
+                out[shard].writeLong(candidate.key);
+            }
+            out[shard].flush();
+        }
+        List<Candidate> visited = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            if (candidates.get(shard).isEmpty()) {
+                continue;
+            }
+            for (int i = in[shard].readInt(); i > 0; i--) {
+                visited.add(new Candidate(in[shard].readUTF(), null, in[shard].readLong()));
+            }
+        }
+        visited.sort(Comparator.comparingLong(candidate -> candidate.key));
+        List<String> next = new ArrayList<>(visited.size());
+        for (Candidate candidate : visited) {
+            next.add(candidate.label);
+        }
+        return next;
+    }
+
+    private boolean contains(String label) throws IOException {
+        int shard = ShardWorker.owner(label, shardCount());
+        out[shard].writeByte(ShardWorker.CONTAINS);
+        out[shard].writeUTF(label);
+        out[shard].flush();
+        return in[shard].readBoolean();
+    }
+
+    private String parent(String label) throws IOException {
+        int shard = ShardWorker.owner(label, shardCount());
+        out[shard].writeByte(ShardWorker.PARENT);
+        out[shard].writeUTF(label);
+        out[shard].flush();
+        return in[shard].readBoolean() ? in[shard].readUTF() : null;
+    }
+
+    // Vertex and edge counts and heap in use after a GC, one entry per shard
+    public synchronized List<ShardStats> shardStats() throws IOException {
+        for (DataOutputStream shard : out) {
+            shard.writeByte(ShardWorker.STATS);
+            shard.flush();
+        }
+        List<ShardStats> stats = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            stats.add(new ShardStats(shard, in[shard].readInt(), in[shard].readLong(), in[shard].readLong(), in[shard].readLong()));
+        }
+        return stats;
+    }
+
+    // Stops the workers; launched processes that do not exit in time are killed
+    @Override
+    public synchronized void close() {
+        for (int shard = 0; shard < sockets.length; shard++) {
+            if (sockets[shard] == null) {
+                continue;
+            }
+            try {
+                out[shard].writeByte(ShardWorker.SHUTDOWN);
+                out[shard].flush();
+                sockets[shard].close();
+            } catch (IOException e) {
+                // The worker is gone already
+            }
+            sockets[shard] = null;
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // A vertex reached through parent; key is (frontier position << 32 | edge position) and decides BFS order
+    private static final class Candidate {
+        final String label;
+        final String parent;
+        final long key;
+
+        Candidate(String label, String parent, long key) {
+            this.label = label;
+            this.parent = parent;
+            this.key = key;
+        }
+    }
+
+    public static final class ShardStats {
+        private final int shard;
+        private final int vertices;
+        private final long edges;
+        private final long boundaryEdges;
+        private final long heapBytes;
+
+        ShardStats(int shard, int vertices, long edges, long boundaryEdges, long heapBytes) {
+            this.shard = shard;
+            this.vertices = vertices;
+            this.edges = edges;
+            this.boundaryEdges = boundaryEdges;
+            this.heapBytes = heapBytes;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+
+        public int getVertices() {
+            return vertices;
+        }
+
+        public long getEdges() {
+            return edges;
+        }
+
+        // Out-edges whose target is owned by another shard
+        public long getBoundaryEdges() {
+            return boundaryEdges;
+        }
+
+        public long getHeapBytes() {
+            return heapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "shard " + shard + ": " + vertices + " vertices, " + edges + " edges (" + boundaryEdges + " boundary), "
+                    + (heapBytes >> 20) + " MB heap";
+        }
+    }
+
+    // Buffers statements per owning shard and ships them in batches; a target is declared on its own shard
+    private final class Loader implements DotStreamParser.Handler {
+        private final List<List<String>> nodes = new ArrayList<>();
+        private final List<List<String>> edges = new ArrayList<>();   // source, target pairs
+
+        Loader() {
+            for (int shard = 0; shard < shardCount(); shard++) {
+                nodes.add(new ArrayList<>());
+                edges.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public void node(String label) {
+            int shard = ShardWorker.owner(label, shardCount());
+            nodes.get(shard).add(label);
+            if (nodes.get(shard).size() >= BATCH) {
+                send(shard);
+            }
+        }
+
+        @Override
+        public void edge(String source, String target) {
+            // The edge goes to the source's shard; the target must also exist on its own shard
+            node(target);
+            int shard = ShardWorker.owner(source, shardCount());
+            edges.get(shard).add(source);
+            edges.get(shard).add(target);
+            if (edges.get(shard).size() >= 2 * BATCH) {
+                send(shard);
+            }
+        }
+
+        private void send(int shard) {
+            try {
+                DataOutputStream stream = out[shard];
+                if (!nodes.get(shard).isEmpty()) {
+                    stream.writeByte(ShardWorker.NODES);
+                    stream.writeInt(nodes.get(shard).size());
+                    for (String label : nodes.get(shard)) {
+                        stream.writeUTF(label);
+                    }
+                    nodes.get(shard).clear();
+                }
+                if (!edges.get(shard).isEmpty()) {
+                    stream.writeByte(ShardWorker.EDGES);
+                    stream.writeInt(edges.get(shard).size() / 2);
+                    for (String label : edges.get(shard)) {
+                        stream.writeUTF(label);
+                    }
+                    edges.get(shard).clear();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            for (int shard = 0; shard < shardCount(); shard++) {
+                send(shard);
+                out[shard].flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.List;
+
+/**
+ * Summary of one finished traversal. Nodes visited counts the vertices the search reached,
+ * edges scanned the out- or in-edges it examined, and frontier peak the largest queue,
+ * stack or heap it held at once.
+ */
+public class TraversalEvent {
+    private final String algorithm;
+    private final Node source;
+    private final Node destination;
+    private final int pathLength;
+    private final long nodesVisited;
+    private final long edgesScanned;
+    private final long frontierPeak;
+    private final long latencyNanos;
+
+    public TraversalEvent(String algorithm, Node source, Node destination, Path path,
+                          long nodesVisited, long edgesScanned, long frontierPeak, long latencyNanos) {
+        this.algorithm = algorithm;
+        this.source = source;
+        this.destination = destination;
+        // An unreachable destination comes back as a path holding only the destination
+        List<Node> nodes = path.getNodes();
+        this.pathLength = !nodes.isEmpty() && nodes.get(0).equals(source) ? nodes.size() - 1 : -1;
+        this.nodesVisited = nodesVisited;
+        this.edgesScanned = edgesScanned;
+        this.frontierPeak = frontierPeak;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public Node getSource() {
+        return source;
+    }
+
+    public Node getDestination() {
+        return destination;
+    }
+
+    public boolean isFound() {
+        return pathLength >= 0;
+    }
+
+    // Number of edges on the path, -1 if the destination was not reached
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    public long getFrontierPeak() {
+        return frontierPeak;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " " + source + " -> " + destination + ": " + (isFound() ? pathLength + " edges" : "not found")
+                + ", " + nodesVisited + " nodes, " + edgesScanned + " edges scanned, frontier " + frontierPeak
+                + ", " + latencyNanos / 1000 + " us";
+    }
+}
@@ -0,0 +1,68 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over the nodes a {@link GraphTraversalStrategy} reaches, each returned once.
+ * A node's out-edges are only scanned when the caller asks for the node after it, so a
+ * caller that stops early never pays for the rest of the graph.
+ */
+public abstract class TraversalIterator implements Iterator<Node> {
+    protected final Graph<Node, DefaultEdge> graph;
+    protected final int maxDepth;
+    private final Map<Node, Node> parents = new HashMap<>();   // discovered nodes; the source maps to null
+
+    protected TraversalIterator(Graph<Node, DefaultEdge> graph, Node source, int maxDepth) {
+        if (!graph.containsVertex(source)) {
+            throw new IllegalArgumentException("One or both nodes do not exist.");
+        }
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Depth limit must not be negative: " + maxDepth);
+        }
+        this.graph = graph;
+        this.maxDepth = maxDepth;
+        parents.put(source, null);
+    }
+
+    // Records the tree edge to a node seen for the first time; false if it was seen before
+    protected boolean discover(Node node, Node parent) {
+        if (parents.containsKey(node)) {
+            return false;
+        }
+        parents.put(node, parent);
+        return true;
+    }
+
+    // Edges from the source to the node last returned by next()
+    public abstract int depth();
+
+    // Leaves out the descendants of the node just returned; call it before the next hasNext()
+    public abstract void skipChildren();
+
+    // Nodes discovered so far, including ones queued but not yet returned
+    public int discoveredCount() {
+        return parents.size();
+    }
+
+    // Path from the source along the traversal tree; for BFS it is a shortest path
+    public Path pathTo(Node node) {
+        if (!parents.containsKey(node)) {
+            throw new IllegalArgumentException("Node " + node + " has not been reached yet.");
+        }
+        Path path = new Path();
+        for (Node step = node; step != null; step = parents.get(step)) {
+            path.addNode(step);
+        }
+        Collections.reverse(path.getNodes());
+        return path;
+    }
+
+    // Sequential, ordered stream over the remaining nodes; filter, limit and takeWhile stay lazy
+    public Stream<Node> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+}
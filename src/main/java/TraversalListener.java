@@ -0,0 +1,7 @@
+/**
+ * Callback for {@link GraphTraversalTemplate#setListener}. It runs on the searching thread
+ * after the path is built, so implementations should be quick and thread-safe.
+ */
+public interface TraversalListener {
+    void traversalCompleted(TraversalEvent event);
+}
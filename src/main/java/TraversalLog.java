@@ -0,0 +1,56 @@
+import java.util.Locale;
+
+/**
+ * Level switch for the console output of the traversals. Per-node messages are logged
+ * at {@link Level#DEBUG}; callers check {@link #isDebugEnabled()} once before a loop so a
+ * disabled level costs neither string building nor a lock on {@code System.out}.
+ * The initial level comes from the {@code graph.traversal.log} system property.
+ */
+public final class TraversalLog {
+    public enum Level {
+        OFF, INFO, DEBUG
+    }
+
+    private static volatile Level level = initialLevel(System.getProperty("graph.traversal.log", "INFO"));
+
+    private TraversalLog() {
+    }
+
+    // An unknown value falls back to INFO instead of failing class initialization
+    static Level initialLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown graph.traversal.log level '" + value + "', using INFO");
+            return Level.INFO;
+        }
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static boolean isInfoEnabled() {
+        return level.compareTo(Level.INFO) >= 0;
+    }
+
+    public static boolean isDebugEnabled() {
+        return level == Level.DEBUG;
+    }
+
+    public static void info(String message) {
+        if (isInfoEnabled()) {
+            System.out.println(message);
+        }
+    }
+
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            System.out.println(message);
+        }
+    }
+}
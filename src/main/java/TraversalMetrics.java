@@ -0,0 +1,259 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link TraversalListener} that keeps per-algorithm histograms of latency, nodes visited,
+ * edges scanned, frontier peak and path length, plus the slowest searches seen so far.
+ * Recording is lock-free apart from the rare event slow enough to enter the slowest list.
+ * Install it with {@code GraphTraversalTemplate.setListener(metrics)}.
+ */
+public class TraversalMetrics implements TraversalListener, TraversalMetricsMXBean {
+    private static final int DEFAULT_SLOWEST = 10;
+
+    private final ConcurrentHashMap<String, AlgorithmMetrics> algorithms = new ConcurrentHashMap<>();
+    private final int slowestLimit;
+    private final List<TraversalEvent> slowest = new ArrayList<>();
+    private volatile long slowestThreshold;   // latency an event must beat to enter a full slowest list
+
+    public TraversalMetrics() {
+        this(DEFAULT_SLOWEST);
+    }
+
+    public TraversalMetrics(int slowestLimit) {
+        if (slowestLimit < 0) {
+            throw new IllegalArgumentException("Slowest search limit must not be negative: " + slowestLimit);
+        }
+        this.slowestLimit = slowestLimit;
+    }
+
+    @Override
+    public void traversalCompleted(TraversalEvent event) {
+        algorithms.computeIfAbsent(event.getAlgorithm(), name -> new AlgorithmMetrics()).record(event);
+        if (slowestLimit > 0 && event.getLatencyNanos() > slowestThreshold) {
+            recordSlow(event);
+        }
+    }
+
+    private synchronized void recordSlow(TraversalEvent event) {
+        if (slowest.size() == slowestLimit) {
+            if (event.getLatencyNanos() <= slowest.get(slowest.size() - 1).getLatencyNanos()) {
+                return;
+            }
+            slowest.remove(slowest.size() - 1);
+        }
+        int index = 0;
+        while (index < slowest.size() && slowest.get(index).getLatencyNanos() >= event.getLatencyNanos()) {
+            index++;
+        }
+        slowest.add(index, event);
+        if (slowest.size() == slowestLimit) {
+            slowestThreshold = slowest.get(slowest.size() - 1).getLatencyNanos();
+        }
+    }
+
+    // Null if no traversal of that algorithm has completed since the last reset
+    public AlgorithmMetrics getMetrics(String algorithm) {
+        return algorithms.get(algorithm);
+    }
+
+    // Slowest traversals first
+    public synchronized List<TraversalEvent> getSlowest() {
+        return List.copyOf(slowest);
+    }
+
+    @Override
+    public synchronized void reset() {
+        algorithms.clear();
+        slowest.clear();
+        slowestThreshold = 0;
+    }
+
+    @Override
+    public String[] getAlgorithms() {
+        String[] names = algorithms.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        return names;
+    }
+
+    @Override
+    public Map<String, Long> getSearchCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        algorithms.forEach((name, metrics) -> counts.put(name, metrics.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyMicros() {
+        Map<String, Long> latencies = new TreeMap<>();
+        algorithms.forEach((name, metrics) -> latencies.put(name, metrics.latency.percentile(0.99) / 1000));
+        return latencies;
+    }
+
+    @Override
+    public String[] getSlowestSearches() {
+        return getSlowest().stream().map(TraversalEvent::toString).toArray(String[]::new);
+    }
+
+    // Plain-text snapshot, one line per algorithm followed by the slowest searches
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (String name : getAlgorithms()) {
+            AlgorithmMetrics metrics = algorithms.get(name);
+            if (metrics != null) {
+                report.append(name).append(' ').append(metrics).append('\n');
+            }
+        }
+        List<TraversalEvent> events = getSlowest();
+        if (!events.isEmpty()) {
+            report.append("slowest:\n");
+            for (TraversalEvent event : events) {
+                report.append("  ").append(event).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    /**
+     * Histograms for one algorithm. Latencies are in nanoseconds; path lengths only cover
+     * searches that reached the destination.
+     */
+    public static final class AlgorithmMetrics {
+        private final Histogram latency = new Histogram();
+        private final Histogram nodesVisited = new Histogram();
+        private final Histogram edgesScanned = new Histogram();
+        private final Histogram frontierPeak = new Histogram();
+        private final Histogram pathLength = new Histogram();
+
+        private void record(TraversalEvent event) {
+            latency.record(event.getLatencyNanos());
+            nodesVisited.record(event.getNodesVisited());
+            edgesScanned.record(event.getEdgesScanned());
+            frontierPeak.record(event.getFrontierPeak());
+            if (event.isFound()) {
+                pathLength.record(event.getPathLength());
+            }
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public Histogram getNodesVisited() {
+            return nodesVisited;
+        }
+
+        public Histogram getEdgesScanned() {
+            return edgesScanned;
+        }
+
+        public Histogram getFrontierPeak() {
+            return frontierPeak;
+        }
+
+        public Histogram getPathLength() {
+            return pathLength;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + " found=" + pathLength.getCount()
+                    + " latencyUs[p50=" + latency.percentile(0.5) / 1000 + " p99=" + latency.percentile(0.99) / 1000
+                    + " max=" + latency.getMax() / 1000 + "]"
+                    + " nodesVisited" + nodesVisited + " edgesScanned" + edgesScanned
+                    + " frontierPeak" + frontierPeak + " pathLength" + pathLength;
+        }
+    }
+
+    /**
+     * Log-linear histogram of non-negative values: eight buckets per power of two, so a
+     * percentile is reported within 12.5% of the true value. Values below 8 are exact.
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BITS = 3;
+
+        private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB_BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long value) {
+            value = Math.max(0, value);
+            counts.incrementAndGet(bucket(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // Largest value that falls into the bucket
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long lower = (1L << exponent) + ((long) (bucket % SUB_BUCKETS) << (exponent - SUB_BITS));
+            return lower + (1L << (exponent - SUB_BITS)) - 1;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.get();
+            return n == 0 ? Double.NaN : (double) sum.get() / n;
+        }
+
+        // Value at or below which the given fraction of recorded values fall, capped at the maximum
+        public long percentile(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1: " + fraction);
+            }
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * n));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            return "[p50=" + percentile(0.5) + " p99=" + percentile(0.99) + " max=" + getMax() + "]";
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link TraversalMetrics} outside the process: periodically to a file, replaced
+ * atomically so a reader never sees half a snapshot, or through the platform MBean server.
+ */
+public class TraversalMetricsExporter implements Closeable {
+    public static final String OBJECT_NAME = "graph:type=TraversalMetrics";
+
+    private final TraversalMetrics metrics;
+    private final java.nio.file.Path file;
+    private final ScheduledExecutorService scheduler;
+
+    private TraversalMetricsExporter(TraversalMetrics metrics, java.nio.file.Path file, long period, TimeUnit unit) {
+        this.metrics = metrics;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "traversal-metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::exportQuietly, period, period, unit);
+    }
+
+    // Writes a snapshot every period until closed; close() writes a final one
+    public static TraversalMetricsExporter toFile(TraversalMetrics metrics, java.nio.file.Path file, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Export period must be positive: " + period);
+        }
+        return new TraversalMetricsExporter(metrics, file, period, unit);
+    }
+
+    public static ObjectName registerMBean(TraversalMetrics metrics) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(metrics, name);
+        return name;
+    }
+
+    public void export() throws IOException {
+        java.nio.file.Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        String snapshot = "# " + Instant.now() + "\n" + metrics.getReport();
+        Files.writeString(temporary, snapshot, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void exportQuietly() {
+        try {
+            export();
+        } catch (IOException e) {
+            // A failed write must not cancel the schedule; the next period tries again
+            TraversalLog.info("Could not export traversal metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        export();
+    }
+}
@@ -0,0 +1,19 @@
+import java.util.Map;
+
+/**
+ * JMX view of {@link TraversalMetrics}, registered by
+ * {@link TraversalMetricsExporter#registerMBean}.
+ */
+public interface TraversalMetricsMXBean {
+    String[] getAlgorithms();
+
+    Map<String, Long> getSearchCounts();
+
+    Map<String, Long> getP99LatencyMicros();
+
+    String[] getSlowestSearches();
+
+    String getReport();
+
+    void reset();
+}
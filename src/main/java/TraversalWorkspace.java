@@ -0,0 +1,102 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reusable per-thread state for int-indexed traversals: a visited bitset, predecessor
+ * ids and a scratch buffer usable as an array-backed queue or stack. Resetting only
+ * clears the bits that the previous search set, so its cost is proportional to the
+ * work done rather than to the graph size. Each thread keeps at most {@link #MAX_POOLED}
+ * released workspaces, enough for a bidirectional search; any more are left to the GC.
+ */
+final class TraversalWorkspace {
+    static final int MAX_POOLED = 2;
+    private static final ThreadLocal<Deque<TraversalWorkspace>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private long[] visited = new long[0];
+    private int[] predecessors = new int[0];
+    private int[] distances = new int[0];
+    private int[] buffer = new int[0];
+    private int[] touched = new int[0];
+    private int touchedCount;
+
+    // Takes a workspace from this thread's pool; searches that need several get distinct ones
+    static TraversalWorkspace acquire(int vertexCount) {
+        TraversalWorkspace workspace = POOL.get().poll();
+        if (workspace == null) {
+            workspace = new TraversalWorkspace();
+        }
+        workspace.ensureCapacity(vertexCount);
+        return workspace;
+    }
+
+    // Must be called on the acquiring thread
+    void release() {
+        for (int i = 0; i < touchedCount; i++) {
+            int vertex = touched[i];
+            visited[vertex >>> 6] &= ~(1L << vertex);
+        }
+        touchedCount = 0;
+        Deque<TraversalWorkspace> pool = POOL.get();
+        if (pool.size() < MAX_POOLED) {
+            pool.push(this);
+        }
+    }
+
+    private void ensureCapacity(int vertexCount) {
+        if (predecessors.length < vertexCount) {
+            visited = new long[(vertexCount + 63) >>> 6];
+            predecessors = new int[vertexCount];
+            distances = new int[vertexCount];
+            buffer = new int[vertexCount];
+            touched = new int[vertexCount];
+        }
+    }
+
+    // Marks the vertex visited and records its predecessor; false if it was already visited
+    boolean visit(int vertex, int predecessor) {
+        long bit = 1L << vertex;
+        int word = vertex >>> 6;
+        if ((visited[word] & bit) != 0) {
+            return false;
+        }
+        visited[word] |= bit;
+        predecessors[vertex] = predecessor;
+        touched[touchedCount++] = vertex;
+        return true;
+    }
+
+    boolean visit(int vertex, int predecessor, int distance) {
+        if (!visit(vertex, predecessor)) {
+            return false;
+        }
+        distances[vertex] = distance;
+        return true;
+    }
+
+    boolean isVisited(int vertex) {
+        return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+
+    // Predecessor id, -1 for the source; only meaningful for visited vertices
+    int predecessor(int vertex) {
+        return predecessors[vertex];
+    }
+
+    // Distance recorded by visit(vertex, predecessor, distance)
+    int distance(int vertex) {
+        return distances[vertex];
+    }
+
+    int visitedCount() {
+        return touchedCount;
+    }
+
+    // Workspaces waiting for reuse on the calling thread
+    static int pooledCount() {
+        return POOL.get().size();
+    }
+
+    int[] buffer() {
+        return buffer;
+    }
+}
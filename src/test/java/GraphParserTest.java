@@ -1,9 +1,22 @@
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GraphParserTest {
@@ -181,4 +194,1328 @@ public class GraphParserTest {
 
 
 
+    // Test for chained edge statements and node declarations
+    @Test
+    public void testParseGraphChainedEdges() throws IOException {
+        parser.parseGraph(new StringReader("digraph G {\n  A -> B -> C;\n  D;\n  C -> A\n}\n"));
+        assertTrue(parser.getGraph().containsEdge(new Node("A"), new Node("B")), "The graph should contain the edge from 'A' to 'B'.");
+        assertTrue(parser.getGraph().containsEdge(new Node("B"), new Node("C")), "The graph should contain the edge from 'B' to 'C'.");
+        assertTrue(parser.getGraph().containsEdge(new Node("C"), new Node("A")), "The graph should contain the edge from 'C' to 'A'.");
+        assertTrue(parser.getGraph().containsVertex(new Node("D")), "The graph should contain the declared node 'D'.");
+        assertEquals(4, parser.getGraph().vertexSet().size(), "Keywords and graph names should not become nodes.");
+        assertEquals(3, parser.getGraph().edgeSet().size(), "The chain should produce one edge per arrow.");
+    }
+
+    // Test for quoted IDs, attributes and comments split across small read chunks
+    @Test
+    public void testParseGraphStreamingChunks() throws IOException {
+        String dot = "digraph G {\n  rankdir=LR;\n  node [shape=box];\n"
+                + "  // A -> Z;\n  \"long name\" -> B [label=\"x;y\"];\n  /* C -> Z */ B -> C;\n}\n";
+        List<String> edges = new ArrayList<>();
+        DotStreamParser streamParser = new DotStreamParser(recordingHandler(edges));
+        streamParser.parse(new StringReader(dot), 3);
+        assertEquals(List.of("long name->B", "B->C"), edges, "Only the real edge statements should be reported.");
+        assertEquals(dot.length(), streamParser.getCharsRead(), "Every input character should be consumed.");
+    }
+
+    // Test that the parallel loader reports the same statements as the sequential parser
+    @Test
+    public void testParallelLoaderMatchesSequentialParse(@TempDir java.nio.file.Path tempDir) throws IOException {
+        StringBuilder dot = new StringBuilder("digraph G {\n");
+        for (int i = 0; i < 500; i++) {
+            dot.append("  n").append(i).append(" -> n").append((i * 7) % 500).append(" -> n").append((i * 13) % 500).append(";\n");
+            if (i % 50 == 0) {
+                dot.append("  isolated").append(i).append(";\n  n").append(i).append("\n    -> n0\n");
+            }
+            if (i % 5 == 0) {
+                dot.append("  w").append(i).append(" -> n").append(i).append("\n    [weight=").append(1 + i % 9).append("];\n");
+            }
+        }
+        dot.append("}\n");
+        java.nio.file.Path file = tempDir.resolve("large.dot");
+        Files.writeString(file, dot);
+
+        List<String> sequential = new ArrayList<>();
+        new DotStreamParser(recordingHandler(sequential)).parse(new StringReader(dot.toString()));
+
+        List<String> parallel = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new ParallelDotLoader(pool, 64).load(file.toString(), recordingHandler(parallel));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(sequential, parallel, "Parallel loading should report statements in file order.");
+
+        GraphParser parallelParser = new GraphParser();
+        parallelParser.parseGraphParallel(file.toString(), 2, 64);
+        parser.parseGraph(file.toString());
+        assertEquals(parser.toString(), parallelParser.toString(), "Both load paths should build the same graph.");
+        Graph<Node, DefaultEdge> sequentialGraph = parser.getGraph();
+        Graph<Node, DefaultEdge> parallelGraph = parallelParser.getGraph();
+        for (DefaultEdge edge : sequentialGraph.edgeSet()) {
+            DefaultEdge loaded = parallelGraph.getEdge(sequentialGraph.getEdgeSource(edge), sequentialGraph.getEdgeTarget(edge));
+            assertEquals(sequentialGraph.getEdgeWeight(edge), parallelGraph.getEdgeWeight(loaded), 0.0,
+                    "Edge " + edge + " should have the same weight from both load paths.");
+        }
+    }
+
+    private DotStreamParser.Handler recordingHandler(List<String> statements) {
+        return new DotStreamParser.Handler() {
+            @Override
+            public void node(String label) {
+                statements.add(label);
+            }
+
+            @Override
+            public void edge(String source, String target) {
+                statements.add(source + "->" + target);
+            }
+
+            @Override
+            public void edge(String source, String target, double weight) {
+                statements.add(source + "->" + target + " " + weight);
+            }
+        };
+    }
+
+    // Test that small chunks never split an edge from an attribute list, comment or quoted ID on a later line,
+    // or a graph attribute from its value
+    @Test
+    public void testParallelLoaderChunkBoundaries(@TempDir java.nio.file.Path tempDir) throws IOException {
+        StringBuilder dot = new StringBuilder("digraph G {\n");
+        for (int i = 0; i < 50; i++) {
+            dot.append("  a").append(i).append(" -> b").append(i).append("\n  [weight=7];\n");
+            dot.append("  rankdir =\n  LR;\n  ratio\n  = fill;\n");
+            if (i % 10 == 0) {
+                dot.append("  /* a comment\n  x -> y\n  */\n  \"quoted\n").append(i).append("\" -> c").append(i).append(";\n");
+            }
+        }
+        dot.append("}\n");
+        java.nio.file.Path file = tempDir.resolve("boundaries.dot");
+        Files.writeString(file, dot);
+
+        List<String> sequential = new ArrayList<>();
+        new DotStreamParser(recordingHandler(sequential)).parse(new StringReader(dot.toString()));
+        List<String> parallel = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new ParallelDotLoader(pool, 64).load(file.toString(), recordingHandler(parallel));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(50, sequential.stream().filter(statement -> statement.endsWith(" 7.0")).count(), "Every edge should carry its weight.");
+        assertEquals(sequential, parallel, "Chunk boundaries should not change the statements.");
+    }
+
+    // Test that the compact backend returns the same paths as the JGraphT graph
+    @Test
+    public void testCompactBackendMatchesGraphSearch() throws IOException {
+        parser.parseGraph("src/test/resources/sample_random_walk.dot");
+        Node nodeA = new Node("A");
+        Node nodeH = new Node("H");
+        Path bfsPath = parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS);
+        Path dfsPath = parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.DFS);
+
+        parser.setCompactBackend(true);
+        assertEquals(bfsPath.toString(), parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "Compact BFS should match.");
+        assertEquals(dfsPath.toString(), parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.DFS).toString(), "Compact DFS should match.");
+        assertTrue(parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.RANDOM_WALK).getNodes().contains(nodeH), "The random walk path should end at the destination.");
+
+        // Mutations must be visible to the next compact search
+        parser.addEdge(nodeA, nodeH);
+        assertEquals("A -> H", parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "The snapshot should be rebuilt after a mutation.");
+
+        CsrGraph loaded = CsrGraph.load("src/test/resources/sample_random_walk.dot");
+        assertEquals(8, loaded.vertexCount(), "The compact loader should intern every label once.");
+        assertEquals(9, loaded.edgeCount(), "The compact loader should keep every edge.");
+        assertEquals(bfsPath.toString(), new BFS(loaded).traverse(nodeA, nodeH).toString(), "A directly loaded compact graph should give the same path.");
+    }
+
+    // Test that a compact parse searches before any JGraphT graph exists and copies it in on demand
+    @Test
+    public void testCompactParseMaterializesLazily(@TempDir java.nio.file.Path tempDir) throws IOException {
+        GraphParser full = new GraphParser();
+        full.parseGraph("src/test/resources/sample_weighted.dot");
+        parser.setCompactBackend(true);
+        parser.parseGraph("src/test/resources/sample_weighted.dot");
+        Node nodeA = new Node("A");
+        Node nodeD = new Node("D");
+        assertEquals(full.graphSearch(nodeA, nodeD, GraphParser.Algorithm.BFS).toString(),
+                parser.graphSearch(nodeA, nodeD, GraphParser.Algorithm.BFS).toString(), "Compact BFS should match the full parse.");
+        assertEquals(full.graphSearch(nodeA, nodeD, GraphParser.Algorithm.DIJKSTRA).toString(),
+                parser.graphSearch(nodeA, nodeD, GraphParser.Algorithm.DIJKSTRA).toString(), "Compact parsing should keep edge weights.");
+        assertEquals(0, parser.getNodeTable().size(), "Searches should not need the JGraphT graph.");
+        java.nio.file.Path snapshot = tempDir.resolve("compact.snap");
+        parser.saveSnapshot(snapshot.toString());
+        assertEquals(0, parser.getNodeTable().size(), "Saving a snapshot should not need the JGraphT graph.");
+        GraphParser reloaded = new GraphParser();
+        reloaded.loadSnapshot(snapshot.toString());
+        assertEquals(full.toString(), reloaded.toString(), "A snapshot saved before materializing should hold the whole graph.");
+
+        // The first mutation copies the graph in, with its original edge order and weights
+        assertEquals(full.toString(), parser.toString(), "The materialized graph should equal the full parse.");
+        parser.addEdge(nodeD, nodeA, 4);
+        assertEquals(4, parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(nodeD, nodeA)), "Edges added after a compact parse should be kept.");
+        assertEquals(full.getGraph().edgeSet().size() + 1, parser.getGraph().edgeSet().size(), "No edge should be lost or duplicated.");
+
+        // A parse into a non-empty graph merges through the usual path
+        parser.parseGraph("src/test/resources/sample.dot");
+        assertTrue(parser.getGraph().containsEdge(new Node("B"), new Node("C")), "A second parse should add to the graph.");
+        assertEquals(full.getGraph().edgeSet().size() + 2, parser.getGraph().edgeSet().size(), "Only the new edge should be added.");
+    }
+
+    // Test that the log level property is parsed independently of the locale and tolerates unknown values
+    @Test
+    public void testTraversalLogLevelProperty() {
+        java.util.Locale previous = java.util.Locale.getDefault();
+        java.util.Locale.setDefault(java.util.Locale.forLanguageTag("tr"));
+        try {
+            assertEquals(TraversalLog.Level.INFO, TraversalLog.initialLevel("info"), "Lower-case names should parse in any locale.");
+            assertEquals(TraversalLog.Level.DEBUG, TraversalLog.initialLevel(" debug "), "Surrounding blanks should be ignored.");
+            assertEquals(TraversalLog.Level.INFO, TraversalLog.initialLevel("verbose"), "An unknown level should fall back to INFO.");
+        } finally {
+            java.util.Locale.setDefault(previous);
+        }
+    }
+
+    // Test that a thread holding many workspaces at once keeps only a couple of them pooled afterwards
+    @Test
+    public void testWorkspacePoolIsBounded() {
+        List<TraversalWorkspace> held = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            held.add(TraversalWorkspace.acquire(1000));
+        }
+        held.forEach(TraversalWorkspace::release);
+        assertEquals(TraversalWorkspace.MAX_POOLED, TraversalWorkspace.pooledCount(), "Released workspaces beyond the cap should be dropped.");
+        TraversalWorkspace reused = TraversalWorkspace.acquire(10);
+        assertFalse(reused.isVisited(0), "A pooled workspace should come back cleared.");
+        reused.release();
+    }
+
+    // Test that pooled workspaces are reset between searches and logging can be switched off
+    @Test
+    public void testRepeatedCompactSearchesReuseWorkspace() throws IOException {
+        parser.parseGraph("src/test/resources/sample_random_walk.dot");
+        parser.setCompactBackend(true);
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            for (int i = 0; i < 100; i++) {
+                assertEquals("A -> E -> F -> H", parser.graphSearch(new Node("A"), new Node("H"), GraphParser.Algorithm.BFS).toString(), "BFS should be unaffected by earlier searches.");
+                assertEquals("E -> G", parser.graphSearch(new Node("E"), new Node("G"), GraphParser.Algorithm.DFS).toString(), "DFS should be unaffected by earlier searches.");
+                assertEquals("B", parser.graphSearch(new Node("H"), new Node("B"), GraphParser.Algorithm.BFS).toString(), "An unreachable destination should not see stale predecessors.");
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+    }
+
+    // Test that bidirectional BFS returns valid shortest paths on both backends
+    @Test
+    public void testGraphSearchBidirectionalBFS() {
+        Random random = new Random(42);
+        Node[] nodes = new Node[200];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        parser.addNodes(nodes);
+        for (int i = 0; i < 600; i++) {
+            parser.addEdge(nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)]);
+        }
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            for (boolean compact : new boolean[]{false, true}) {
+                parser.setCompactBackend(compact);
+                for (int i = 0; i < 50; i++) {
+                    Node source = nodes[random.nextInt(nodes.length)];
+                    Node destination = nodes[random.nextInt(nodes.length)];
+                    Path bfsPath = parser.graphSearch(source, destination, GraphParser.Algorithm.BFS);
+                    Path bidirectionalPath = parser.graphSearch(source, destination, GraphParser.Algorithm.BIDIRECTIONAL_BFS);
+                    assertEquals(bfsPath.getNodes().size(), bidirectionalPath.getNodes().size(), "Both searches should find paths of the same length.");
+                    List<Node> steps = bidirectionalPath.getNodes();
+                    assertEquals(destination, steps.get(steps.size() - 1), "The path should end at the destination.");
+                    for (int j = 1; j < steps.size(); j++) {
+                        assertTrue(parser.getGraph().containsEdge(steps.get(j - 1), steps.get(j)), "Every step should follow an edge.");
+                    }
+                }
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+    }
+
+    // Test that parallel BFS finds shortest paths in both expansion directions
+    @Test
+    public void testGraphSearchParallelBFS() {
+        // A hub with many leaves pushes the search into bottom-up mode
+        Random random = new Random(7);
+        Node[] nodes = new Node[3000];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        parser.addNodes(nodes);
+        for (int i = 1; i < nodes.length; i++) {
+            parser.addEdge(nodes[0], nodes[i]);
+            parser.addEdge(nodes[i], nodes[random.nextInt(nodes.length)]);
+        }
+        parser.addEdge(nodes[5], nodes[2999]);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parser.setSearchPool(pool);
+        try {
+            for (int i = 0; i < 20; i++) {
+                Node source = nodes[random.nextInt(nodes.length)];
+                Node destination = nodes[random.nextInt(nodes.length)];
+                Path bfsPath = parser.graphSearch(source, destination, GraphParser.Algorithm.BFS);
+                Path parallelPath = parser.graphSearch(source, destination, GraphParser.Algorithm.PARALLEL_BFS);
+                assertEquals(bfsPath.getNodes().size(), parallelPath.getNodes().size(), "Parallel BFS should find a shortest path.");
+                List<Node> steps = parallelPath.getNodes();
+                for (int j = 1; j < steps.size(); j++) {
+                    assertTrue(parser.getGraph().containsEdge(steps.get(j - 1), steps.get(j)), "Every step should follow an edge.");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Test that cached search results are reused and invalidated by mutations
+    @Test
+    public void testSearchCacheInvalidation() throws IOException {
+        parser.parseGraph("src/test/resources/sample_random_walk.dot");
+        parser.enableSearchCache(100);
+        SearchCache cache = parser.getSearchCache();
+        Node nodeA = new Node("A");
+        Node nodeC = new Node("C");
+        Node nodeH = new Node("H");
+
+        assertEquals("A -> E -> F -> H", parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "The first search should traverse the graph.");
+        assertEquals("A -> B -> C", parser.graphSearch(nodeA, nodeC, GraphParser.Algorithm.BFS).toString(), "A different destination should be cached separately.");
+        assertEquals("A -> E -> F -> H", parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "The cached path should match the traversal.");
+        assertEquals(1, cache.getHits(), "The repeated search should be a cache hit.");
+        assertEquals(2, cache.getMisses(), "The first two searches should be misses.");
+
+        // Removing an edge on one cached path leaves the other entry in place
+        parser.removeEdge(new Node("F"), nodeH);
+        assertEquals(1, cache.size(), "Only the entry using F -> H should be dropped.");
+        assertEquals("A -> E -> G -> H", parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "The search should see the removed edge.");
+
+        parser.addNode(new Node("Z"));
+        assertEquals(2, cache.size(), "Adding an isolated node should keep cached paths.");
+        parser.addEdge(nodeA, nodeH);
+        assertEquals(0, cache.size(), "Adding an edge should clear the cache.");
+        assertEquals("A -> H", parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.BFS).toString(), "The search should see the new edge.");
+
+        parser.graphSearch(nodeA, nodeH, GraphParser.Algorithm.RANDOM_WALK);
+        assertEquals(1, cache.size(), "Random walks should bypass the cache.");
+    }
+
+    // Test the reachability index against BFS on small and large condensations
+    @Test
+    public void testReachabilityIndex() throws IOException {
+        parser.parseGraph("src/test/resources/sample_random_walk.dot");
+        assertTrue(parser.isReachable(new Node("B"), new Node("H")), "B reaches H through the A-B-C-D cycle.");
+        assertFalse(parser.isReachable(new Node("H"), new Node("A")), "H has no outgoing edges.");
+        ReachabilityIndex index = parser.getReachabilityIndex();
+        assertEquals(5, index.componentCount(), "The A-B-C-D cycle should collapse into one component.");
+        parser.addEdge(new Node("H"), new Node("A"));
+        assertTrue(index.isStale(), "A mutation should mark the index stale.");
+        assertTrue(parser.isReachable(new Node("H"), new Node("A")), "The rebuilt index should see the new edge.");
+
+        // Enough components to use interval labels instead of closure bitsets
+        GraphParser large = new GraphParser();
+        Random random = new Random(3);
+        Node[] nodes = new Node[10000];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        large.addNodes(nodes);
+        for (int i = 0; i < 15000; i++) {
+            int a = random.nextInt(nodes.length);
+            int b = random.nextInt(nodes.length);
+            large.addEdge(nodes[Math.max(a, b)], nodes[Math.min(a, b)]);
+        }
+        large.addEdge(nodes[10], nodes[9000]);
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            for (int i = 0; i < 300; i++) {
+                Node source = nodes[random.nextInt(nodes.length)];
+                Node destination = nodes[random.nextInt(nodes.length)];
+                List<Node> bfsPath = new BFS(large.getGraph()).traverse(source, destination).getNodes();
+                boolean reachable = bfsPath.get(0).equals(source);
+                assertEquals(reachable, large.isReachable(source, destination), "The index should agree with BFS for " + source + " -> " + destination + ".");
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+        assertTrue(large.getReachabilityIndex().componentCount() > 8192, "The large graph should need interval labels.");
+    }
+
+    // Test weighted parsing and the weighted shortest path algorithms
+    @Test
+    public void testGraphSearchWeighted(@TempDir java.nio.file.Path tempDir) throws IOException {
+        parser.parseGraph("src/test/resources/sample_weighted.dot");
+        Node nodeA = new Node("A");
+        Node nodeD = new Node("D");
+        assertEquals(20.0, parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(nodeA, nodeD)), "The weight attribute should be parsed.");
+        assertEquals(3.0, parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(new Node("C"), new Node("E"))), "A chain's weight applies to each of its edges.");
+
+        assertEquals("A -> D", parser.graphSearch(nodeA, nodeD, GraphParser.Algorithm.BFS).toString(), "BFS should ignore weights.");
+        assertEquals("A -> C -> E -> D", parser.graphSearch(nodeA, nodeD, GraphParser.Algorithm.DIJKSTRA).toString(), "Dijkstra should minimize the total weight.");
+        parser.setAStarHeuristic((node, destination) -> node.equals(destination) ? 0 : 1);
+        assertEquals("A -> C -> E -> D", parser.graphSearch(nodeA, nodeD, GraphParser.Algorithm.A_STAR).toString(), "A* should find the same shortest path.");
+        assertEquals("A", parser.graphSearch(nodeD, nodeA, GraphParser.Algorithm.DIJKSTRA).toString(), "An unreachable destination should give a single-node path.");
+
+        java.nio.file.Path output = tempDir.resolve("weighted.dot");
+        parser.outputDOTGraph(output.toString());
+        GraphParser reparsed = new GraphParser();
+        reparsed.parseGraph(output.toString());
+        assertEquals(2.0, reparsed.getGraph().getEdgeWeight(reparsed.getGraph().getEdge(nodeA, new Node("C"))), "Weights should survive a DOT round trip.");
+    }
+
+    // Test Dijkstra against BFS hop counts on a random unit-weight graph
+    @Test
+    public void testDijkstraMatchesBfsOnUnitWeights() {
+        Random random = new Random(11);
+        Node[] nodes = new Node[300];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        parser.addNodes(nodes);
+        for (int i = 0; i < 1200; i++) {
+            parser.addEdge(nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)]);
+        }
+        for (int i = 0; i < 50; i++) {
+            Node source = nodes[random.nextInt(nodes.length)];
+            Node destination = nodes[random.nextInt(nodes.length)];
+            assertEquals(parser.graphSearch(source, destination, GraphParser.Algorithm.BFS).getNodes().size(),
+                    parser.graphSearch(source, destination, GraphParser.Algorithm.DIJKSTRA).getNodes().size(),
+                    "With unit weights Dijkstra should find a path with the fewest edges.");
+        }
+    }
+
+    // Test batch searches against individual graphSearch calls
+    @Test
+    public void testBatchSearchMatchesSingleSearches() {
+        Random random = new Random(13);
+        Node[] nodes = new Node[200];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        parser.addNodes(nodes);
+        for (int i = 0; i < 500; i++) {
+            parser.addEdge(nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)], 1 + random.nextInt(9));
+        }
+        List<Node> sources = new ArrayList<>();
+        List<Node> destinations = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sources.add(nodes[random.nextInt(nodes.length)]);
+            destinations.add(nodes[random.nextInt(nodes.length)]);
+        }
+        destinations.add(sources.get(0));
+
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            for (GraphParser.Algorithm algo : List.of(GraphParser.Algorithm.BFS, GraphParser.Algorithm.DFS, GraphParser.Algorithm.DIJKSTRA)) {
+                Map<Node, Map<Node, Path>> batch = parser.graphSearch(sources, destinations, algo);
+                for (Node source : sources) {
+                    for (Node destination : destinations) {
+                        assertEquals(parser.graphSearch(source, destination, algo).getNodes(), batch.get(source).get(destination).getNodes(),
+                                algo + " batch path " + source + " -> " + destination + " should match a single search.");
+                    }
+                }
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+        assertThrows(IllegalArgumentException.class, () -> parser.graphSearch(nodes[0], List.of(new Node("missing")), GraphParser.Algorithm.BFS),
+                "Unknown destinations should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> parser.graphSearch(nodes[0], destinations, GraphParser.Algorithm.RANDOM_WALK),
+                "Random walks have no shared tree to batch.");
+    }
+
+    // Test that the streaming DOT writer matches the original format byte for byte, plain and gzipped
+    @Test
+    public void testOutputDOTGraphStreaming(@TempDir java.nio.file.Path tempDir) throws IOException {
+        parser.parseGraph("src/test/resources/sample_weighted.dot");
+        parser.addNode(new Node("Z"));
+        parser.addEdge(new Node("Z"), new Node("A"), 0.5);
+        parser.addNode(new Node("Zürich"));
+        parser.addEdge(new Node("Z"), new Node("Zürich"));
+
+        StringBuilder expected = new StringBuilder("digraph G {\n");
+        for (Node vertex : parser.getGraph().vertexSet()) {
+            expected.append("\t").append(vertex).append(";\n");
+        }
+        for (org.jgrapht.graph.DefaultEdge edge : parser.getGraph().edgeSet()) {
+            expected.append("\t").append(parser.getGraph().getEdgeSource(edge)).append(" -> ").append(parser.getGraph().getEdgeTarget(edge));
+            double weight = parser.getGraph().getEdgeWeight(edge);
+            if (weight != 1.0) {
+                expected.append(" [weight=").append(weight == Math.rint(weight) ? Long.toString((long) weight) : Double.toString(weight)).append("]");
+            }
+            expected.append(";\n");
+        }
+        expected.append("}\n");
+
+        java.nio.file.Path plain = tempDir.resolve("graph.dot");
+        java.nio.file.Path compressed = tempDir.resolve("graph.dot.gz");
+        parser.outputDOTGraph(plain.toString());
+        parser.outputDOTGraph(compressed.toString(), true);
+        assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), Files.readAllBytes(plain),
+                "The streamed output should be byte-identical UTF-8 whatever the platform charset.");
+        try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(Files.newInputStream(compressed))) {
+            assertArrayEquals(Files.readAllBytes(plain), in.readAllBytes(), "The gzipped output should decompress to the same bytes.");
+        }
+
+        GraphParser reparsed = new GraphParser();
+        reparsed.parseGraph(compressed.toString());
+        assertEquals(parser.getGraph().vertexSet(), reparsed.getGraph().vertexSet(), "Parsing the .gz file should restore every node.");
+        assertEquals(parser.getGraph().edgeSet().size(), reparsed.getGraph().edgeSet().size(), "Parsing the .gz file should restore every edge.");
+        assertEquals(0.5, reparsed.getGraph().getEdgeWeight(reparsed.getGraph().getEdge(new Node("Z"), new Node("A"))), "Weights should survive the gzip round trip.");
+        assertTrue(reparsed.getGraph().containsEdge(new Node("Z"), new Node("Zürich")), "Non-ASCII labels should survive the round trip.");
+    }
+
+    // Test that a binary snapshot round-trips exactly and rejects corrupted files
+    @Test
+    public void testSnapshotRoundTrip(@TempDir java.nio.file.Path tempDir) throws IOException {
+        parser.parseGraph("src/test/resources/sample_weighted.dot");
+        parser.addNode(new Node("Z"));
+        parser.addEdge(new Node("Z"), new Node("A"), 0.25);
+        parser.addEdge(new Node("E"), new Node("Z"));
+        parser.removeEdge(new Node("A"), new Node("D"));
+        parser.addEdge(new Node("A"), new Node("D"), 7);
+
+        java.nio.file.Path snapshot = tempDir.resolve("graph.snap");
+        java.nio.file.Path expected = tempDir.resolve("expected.dot");
+        java.nio.file.Path actual = tempDir.resolve("actual.dot");
+        parser.saveSnapshot(snapshot.toString());
+        parser.outputDOTGraph(expected.toString());
+
+        GraphParser loaded = new GraphParser();
+        loaded.setCompactBackend(true);
+        loaded.loadSnapshot(snapshot.toString());
+        assertEquals(parser.graphSearch(new Node("A"), new Node("Z"), GraphParser.Algorithm.DIJKSTRA).toString(),
+                loaded.graphSearch(new Node("A"), new Node("Z"), GraphParser.Algorithm.DIJKSTRA).toString(),
+                "Searches on the loaded snapshot should match the original graph.");
+        loaded.outputDOTGraph(actual.toString());
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual), "The snapshot should round-trip to identical DOT output.");
+
+        loaded.addEdge(new Node("D"), new Node("Z"));
+        assertEquals("D -> Z", loaded.graphSearch(new Node("D"), new Node("Z"), GraphParser.Algorithm.BFS).toString(),
+                "A loaded graph should accept mutations.");
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[40] ^= 1;
+        java.nio.file.Path corrupted = tempDir.resolve("corrupted.snap");
+        Files.write(corrupted, bytes);
+        assertThrows(IOException.class, () -> new GraphParser().loadSnapshot(corrupted.toString()), "A corrupted snapshot should fail its checksum.");
+        assertThrows(IOException.class, () -> new GraphParser().loadSnapshot(expected.toString()), "A DOT file is not a snapshot.");
+    }
+
+    // Test that mutations straight after loading a snapshot see its nodes before anything else copies them in
+    @Test
+    public void testMutationRightAfterSnapshotLoad(@TempDir java.nio.file.Path tempDir) throws IOException {
+        parser.parseGraph("src/test/resources/sample_weighted.dot");
+        java.nio.file.Path snapshot = tempDir.resolve("graph.snap");
+        parser.saveSnapshot(snapshot.toString());
+
+        GraphParser loaded = new GraphParser();
+        loaded.loadSnapshot(snapshot.toString());
+        loaded.addEdge(new Node("D"), new Node("A"));
+        assertTrue(loaded.getGraph().containsEdge(new Node("D"), new Node("A")), "An edge between snapshot nodes should be added.");
+        Node source = loaded.getGraph().getEdgeSource(loaded.getGraph().getEdge(new Node("D"), new Node("A")));
+        assertSame(loaded.getNodeTable().intern("D"), source, "The new edge should use the canonical snapshot node.");
+        assertEquals(parser.getGraph().edgeSet().size() + 1, loaded.getGraph().edgeSet().size(), "The snapshot edges should all be kept.");
+
+        GraphParser weighted = new GraphParser();
+        weighted.loadSnapshot(snapshot.toString());
+        weighted.addEdge(new Node("E"), new Node("B"), 0.5);
+        assertEquals(0.5, weighted.getGraph().getEdgeWeight(weighted.getGraph().getEdge(new Node("E"), new Node("B"))),
+                "A weighted edge added right after loading should keep its weight.");
+
+        GraphParser iterated = new GraphParser();
+        iterated.loadSnapshot(snapshot.toString());
+        Node first = iterated.traversalIterator(new Node("A"), GraphParser.Algorithm.BFS, 1).next();
+        assertSame(iterated.getNodeTable().intern("A"), first, "A lazy traversal right after loading should start on the canonical node.");
+    }
+
+    // Test that removed nodes give their ids back, so churn does not grow the id range or the workspaces
+    @Test
+    public void testNodeIdsReusedAfterRemoval() {
+        NodeTable table = parser.getNodeTable();
+        for (int round = 0; round < 50; round++) {
+            List<Node> batch = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                batch.add(new Node("r" + round + "_" + i));
+            }
+            parser.addNodes(batch);
+            for (int i = 1; i < batch.size(); i++) {
+                parser.addEdge(batch.get(i - 1), batch.get(i));
+            }
+            assertEquals("r" + round + "_0 -> r" + round + "_1 -> r" + round + "_2",
+                    parser.graphSearch(batch.get(0), batch.get(2), GraphParser.Algorithm.BFS).toString(),
+                    "Searches should be unaffected by reused ids.");
+            Node stale = table.intern(batch.get(0));
+            if (round % 2 == 0) {
+                parser.removeNodes(batch);
+            } else {
+                for (Node node : batch) {
+                    parser.removeNode(node);
+                }
+            }
+            assertNull(table.canonical(stale), "A removed label should leave the table.");
+        }
+        assertEquals(20, table.size(), "Ids should be bounded by the most nodes held at once.");
+
+        Node fresh = new Node("fresh");
+        parser.addNode(fresh);
+        Node canonical = table.intern(fresh);
+        assertTrue(canonical.getId() < 20, "A new node should take a released id.");
+        assertSame(canonical, table.node(canonical.getId()), "The reused id should map to the new node.");
+    }
+
+    // Test that searches reaching vertices added straight to the JGraphT graph fall back to node keys
+    @Test
+    public void testSearchReachesVerticesWithoutTableId() {
+        Node nodeA = new Node("A");
+        Node nodeB = new Node("B");
+        parser.addNodes(new Node[]{nodeA, nodeB});
+        parser.addEdge(nodeA, nodeB);
+        Node x = new Node("x");
+        Node y = new Node("y");
+        parser.getGraph().addVertex(x);
+        parser.getGraph().addVertex(y);
+        parser.getGraph().addEdge(parser.getNodeTable().intern(nodeB), x);
+        parser.getGraph().addEdge(x, y);
+        assertEquals(-1, x.getId(), "A node added to the JGraphT graph directly should have no id.");
+
+        for (GraphParser.Algorithm algo : new GraphParser.Algorithm[]{GraphParser.Algorithm.BFS, GraphParser.Algorithm.DFS}) {
+            assertEquals("A -> B -> x", parser.graphSearch(nodeA, x, algo).toString(),
+                    algo + " should reach a vertex without a table id.");
+            assertEquals("A -> B -> x -> y", parser.graphSearch(nodeA, y, algo).toString(),
+                    algo + " should search past a vertex without a table id.");
+            assertEquals("x -> y", parser.graphSearch(x, y, algo).toString(),
+                    algo + " should start from a vertex without a table id.");
+            assertEquals("A -> B", parser.graphSearch(nodeA, nodeB, algo).toString(),
+                    algo + " should still find paths between interned nodes.");
+        }
+    }
+
+    // Test that equal labels share one canonical node and that id-based traversals match the map-based ones
+    @Test
+    public void testNodeInterning() throws IOException {
+        parser.parseGraph("src/test/resources/sample.dot");
+        NodeTable table = parser.getNodeTable();
+        Node nodeA = table.intern("A");
+        assertSame(nodeA, table.intern(new Node("A")), "Interning an equal node should return the canonical one.");
+        assertEquals(new Node("A"), nodeA, "Canonical nodes should still equal nodes created directly.");
+        for (org.jgrapht.graph.DefaultEdge edge : parser.getGraph().edgeSet()) {
+            Node source = parser.getGraph().getEdgeSource(edge);
+            assertSame(table.node(source.getId()), source, "Edge endpoints should be canonical nodes.");
+        }
+        parser.addEdge(new Node("C"), new Node("A"));
+        assertSame(table.intern("C"), parser.getGraph().getEdgeSource(parser.getGraph().getEdge(new Node("C"), new Node("A"))),
+                "Edges added with non-canonical nodes should use the canonical endpoints.");
+        assertEquals(3, table.size(), "Ids should be dense.");
+
+        Random random = new Random(17);
+        GraphParser large = new GraphParser();
+        Node[] nodes = new Node[400];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i);
+        }
+        large.addNodes(nodes);
+        for (int i = 0; i < 1500; i++) {
+            large.addEdge(nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)]);
+        }
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            for (int i = 0; i < 100; i++) {
+                Node source = nodes[random.nextInt(nodes.length)];
+                Node destination = nodes[random.nextInt(nodes.length)];
+                assertEquals(new BFS(large.getGraph()).traverse(source, destination).getNodes(),
+                        large.graphSearch(source, destination, GraphParser.Algorithm.BFS).getNodes(), "Id-based BFS should match the map-based BFS.");
+                assertEquals(new DFS(large.getGraph()).traverse(source, destination).getNodes(),
+                        large.graphSearch(source, destination, GraphParser.Algorithm.DFS).getNodes(), "Id-based DFS should match the map-based DFS.");
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+    }
+
+    // Stress test: readers check snapshot consistency while one writer grows a chain and another churns nodes
+    @Test
+    public void testConcurrentGraphParserStress() throws InterruptedException {
+        ConcurrentGraphParser concurrent = new ConcurrentGraphParser();
+        int chainLength = 300;
+        concurrent.addNode(new Node("c0"));
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        java.util.concurrent.atomic.AtomicBoolean writing = new java.util.concurrent.atomic.AtomicBoolean(true);
+
+        Thread chainWriter = new Thread(() -> {
+            for (int k = 1; k < chainLength; k++) {
+                concurrent.addNode(new Node("c" + k));
+                concurrent.addEdge(new Node("c" + (k - 1)), new Node("c" + k));
+            }
+        });
+        Thread churnWriter = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                Node temporary = new Node("t" + i);
+                concurrent.addNode(temporary);
+                concurrent.addEdge(new Node("c0"), temporary);
+                concurrent.removeNode(temporary);
+            }
+        });
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(new Thread(() -> {
+                long lastVersion = -1;
+                try {
+                    while (writing.get()) {
+                        GraphParser snapshot = concurrent.snapshot();
+                        long version = concurrent.getSnapshotVersion();
+                        int chainNodes = 0;
+                        for (Node vertex : snapshot.getGraph().vertexSet()) {
+                            if (vertex.getLabel().startsWith("c")) {
+                                chainNodes++;
+                            }
+                        }
+                        // Each chain node is linked before the next is added, so all but the newest must be reachable in order
+                        if (chainNodes > 2) {
+                            Path path = snapshot.graphSearch(new Node("c0"), new Node("c" + (chainNodes - 2)), GraphParser.Algorithm.BFS);
+                            assertEquals(chainNodes - 1, path.getNodes().size(), "The snapshot should hold a complete chain prefix.");
+                        }
+                        assertEquals(snapshot.getGraph().vertexSet().size(), snapshot.getCompactGraph().vertexCount(),
+                                "The snapshot's CSR form should match its graph.");
+                        assertTrue(version >= lastVersion, "Snapshot versions should never go backwards.");
+                        lastVersion = version;
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        try {
+            readers.forEach(Thread::start);
+            chainWriter.start();
+            churnWriter.start();
+            chainWriter.join();
+            churnWriter.join();
+            writing.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        } finally {
+            TraversalLog.setLevel(previous);
+        }
+
+        assertTrue(failures.isEmpty(), "Readers should never see an inconsistent snapshot: " + failures);
+        GraphParser latest = concurrent.latestSnapshot();
+        assertEquals(chainLength, latest.getGraph().vertexSet().size(), "Every chain node and none of the churned nodes should remain.");
+        assertEquals(concurrent.getVersion(), concurrent.getSnapshotVersion(), "The latest snapshot should include every write.");
+        assertThrows(UnsupportedOperationException.class, () -> latest.addNode(new Node("x")), "Snapshots should be read-only.");
+        assertThrows(UnsupportedOperationException.class, () -> latest.enableSearchCache(100), "Snapshot settings should be read-only.");
+        assertThrows(UnsupportedOperationException.class, () -> latest.setSearchPool(ForkJoinPool.commonPool()), "Snapshot settings should be read-only.");
+        assertThrows(UnsupportedOperationException.class, () -> latest.setAStarHeuristic(AStarHeuristic.ZERO), "Snapshot settings should be read-only.");
+
+        // Readers racing to build the snapshot's reachability index must all see a complete one
+        ConcurrentLinkedQueue<Boolean> answers = new ConcurrentLinkedQueue<>();
+        List<Thread> indexReaders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            indexReaders.add(new Thread(() -> answers.add(latest.isReachable(new Node("c0"), new Node("c" + (chainLength - 1))))));
+        }
+        indexReaders.forEach(Thread::start);
+        for (Thread reader : indexReaders) {
+            reader.join();
+        }
+        assertEquals(List.of(true, true, true, true), new ArrayList<>(answers), "Every reader should see the end of the chain.");
+    }
+
+    // Test that epochs built by replaying logged writes match the master, and that failed writes do not advance it
+    @Test
+    public void testConcurrentSnapshotReplaysWrites() {
+        ConcurrentGraphParser concurrent = new ConcurrentGraphParser();
+        GraphParser expected = new GraphParser();
+
+        concurrent.addNodes(new Node[]{new Node("A"), new Node("B"), new Node("C")});
+        expected.addNodes(new Node[]{new Node("A"), new Node("B"), new Node("C")});
+        assertSameContents(expected, concurrent.latestSnapshot());
+        concurrent.addEdge(new Node("A"), new Node("B"));
+        expected.addEdge(new Node("A"), new Node("B"));
+        List<GraphDelta.Edge> edges = List.of(new GraphDelta.Edge(new Node("B"), new Node("C"), 2.5),
+                new GraphDelta.Edge(new Node("C"), new Node("D")));
+        concurrent.addEdges(edges);
+        expected.addEdges(edges);
+        assertSameContents(expected, concurrent.latestSnapshot());
+        concurrent.removeEdge(new Node("A"), new Node("B"));
+        expected.removeEdge(new Node("A"), new Node("B"));
+        concurrent.addEdge(new Node("A"), new Node("C"), 4.0);
+        expected.addEdge(new Node("A"), new Node("C"), 4.0);
+        concurrent.removeNodes(List.of(new Node("D")));
+        expected.removeNodes(List.of(new Node("D")));
+        concurrent.addNode(new Node("E"));
+        expected.addNode(new Node("E"));
+        assertSameContents(expected, concurrent.latestSnapshot());
+
+        long version = concurrent.getVersion();
+        assertThrows(IllegalArgumentException.class, () -> concurrent.removeNodes(List.of(new Node("missing"))),
+                "Removing a missing node should fail.");
+        assertEquals(version, concurrent.getVersion(), "A failed write should not advance the version.");
+        assertSame(concurrent.latestSnapshot(), concurrent.snapshot(), "A failed write should not force a new epoch.");
+    }
+
+    private static void assertSameContents(GraphParser expected, GraphParser actual) {
+        assertEquals(expected.getGraph().vertexSet(), actual.getGraph().vertexSet(), "The snapshot should have the master's nodes.");
+        assertEquals(edgeSummary(expected), edgeSummary(actual), "The snapshot should have the master's edges and weights.");
+    }
+
+    private static Set<String> edgeSummary(GraphParser parser) {
+        Set<String> edges = new HashSet<>();
+        for (DefaultEdge edge : parser.getGraph().edgeSet()) {
+            edges.add(parser.getGraph().getEdgeSource(edge) + "->" + parser.getGraph().getEdgeTarget(edge)
+                    + ":" + parser.getGraph().getEdgeWeight(edge));
+        }
+        return edges;
+    }
+
+
+    // Test that bulk edge addition deduplicates, creates endpoints and reports what changed
+    @Test
+    public void testAddEdgesBulk() {
+        parser.addNode(new Node("A"));
+        parser.addEdge(new Node("A"), new Node("A"));
+        GraphDelta delta = parser.addEdges(List.of(
+                new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C"), 2.5),
+                new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("A"), new Node("A"))));
+
+        assertEquals(List.of(new Node("B"), new Node("C")), delta.getAddedNodes(), "Only the new endpoints should be reported.");
+        assertEquals(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")), new GraphDelta.Edge(new Node("B"), new Node("C"))),
+                delta.getAddedEdges(), "Repeated and existing edges should be skipped.");
+        assertEquals(3, parser.getGraph().edgeSet().size(), "The graph should hold the self-loop and the two new edges.");
+        assertEquals(2.5, parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(new Node("B"), new Node("C"))),
+                "The edge weight should be kept.");
+        assertTrue(parser.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")))).isEmpty(),
+                "Adding existing edges should change nothing.");
+    }
+
+    // Test that bulk removals are all-or-nothing and report the incident edges they removed
+    @Test
+    public void testRemoveNodesAndEdgesBulk() {
+        parser.addEdges(List.of(
+                new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C")),
+                new GraphDelta.Edge(new Node("C"), new Node("A")),
+                new GraphDelta.Edge(new Node("C"), new Node("D"))));
+        String before = parser.toString();
+
+        assertThrows(IllegalArgumentException.class, () -> parser.removeNodes(List.of(new Node("A"), new Node("X"))),
+                "Removing a missing node should fail.");
+        assertThrows(IllegalArgumentException.class, () -> parser.removeEdges(List.of(
+                new GraphDelta.Edge(new Node("A"), new Node("B")), new GraphDelta.Edge(new Node("B"), new Node("A")))),
+                "Removing a missing edge should fail.");
+        assertEquals(before, parser.toString(), "A failed bulk removal should leave the graph unchanged.");
+
+        GraphDelta delta = parser.removeNodes(List.of(new Node("A"), new Node("B"), new Node("A")));
+        assertEquals(List.of(new Node("A"), new Node("B")), delta.getRemovedNodes(), "Each node should be removed once.");
+        assertEquals(3, delta.getRemovedEdges().size(), "A -> B, B -> C and C -> A should be removed with the nodes.");
+        assertTrue(delta.getRemovedEdges().contains(new GraphDelta.Edge(new Node("C"), new Node("A"))),
+                "Incoming edges should be reported.");
+        assertEquals(1, parser.getGraph().edgeSet().size(), "Only C -> D should remain.");
+
+        delta = parser.removeEdges(List.of(new GraphDelta.Edge(new Node("C"), new Node("D"))));
+        assertEquals("+0 nodes, +0 edges, -0 nodes, -1 edges", delta.toString(), "The delta should summarize the removal.");
+        assertTrue(parser.getGraph().edgeSet().isEmpty(), "The graph should have no edges left.");
+    }
+
+    // Test that reloading a changed DOT file applies only the differences and keeps unaffected cached paths
+    @Test
+    public void testReloadGraph(@TempDir java.nio.file.Path tempDir) throws IOException {
+        java.nio.file.Path original = tempDir.resolve("original.dot");
+        java.nio.file.Path removed = tempDir.resolve("removed.dot");
+        java.nio.file.Path changed = tempDir.resolve("changed.dot");
+        Files.writeString(original, "digraph G { A -> B -> C; C -> D; X -> A; E; }");
+        Files.writeString(removed, "digraph G { A -> B -> C; C -> D; E; }");
+        Files.writeString(changed, "digraph G { A -> B [weight=3]; B -> C; D -> F; E; }");
+        parser.parseGraph(original.toString());
+        parser.enableSearchCache(100);
+        parser.graphSearch(new Node("A"), new Node("C"), GraphParser.Algorithm.BFS);
+
+        GraphDelta delta = parser.reloadGraph(removed.toString());
+        assertEquals(List.of(new Node("X")), delta.getRemovedNodes(), "Only X should be removed.");
+        assertEquals(List.of(new GraphDelta.Edge(new Node("X"), new Node("A"))), delta.getRemovedEdges(),
+                "The edge of X should be reported.");
+        assertTrue(delta.getAddedNodes().isEmpty() && delta.getAddedEdges().isEmpty(), "Nothing should be added.");
+        assertEquals(1, parser.getSearchCache().size(), "The cached A -> C path does not use X and should survive.");
+        assertTrue(parser.reloadGraph(removed.toString()).isEmpty(), "Reloading an unchanged file should change nothing.");
+
+        delta = parser.reloadGraph(changed.toString());
+        assertEquals("+1 nodes, +2 edges, -0 nodes, -2 edges", delta.toString(), "The delta should list the differences.");
+        GraphParser fresh = new GraphParser();
+        fresh.parseGraph(changed.toString());
+        assertEquals(fresh.getGraph().vertexSet(), parser.getGraph().vertexSet(), "The nodes should match a fresh parse.");
+        assertEquals(normalize(fresh.toString()).length(), normalize(parser.toString()).length(),
+                "The edges should match a fresh parse.");
+        for (DefaultEdge edge : fresh.getGraph().edgeSet()) {
+            Node source = fresh.getGraph().getEdgeSource(edge);
+            Node target = fresh.getGraph().getEdgeTarget(edge);
+            assertEquals(fresh.getGraph().getEdgeWeight(edge),
+                    parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(source, target)),
+                    "Edge " + source + " -> " + target + " should match a fresh parse.");
+        }
+    }
+
+    // Test that DOT patches are applied atomically and that a written delta replays on another copy
+    @Test
+    public void testApplyPatch() throws IOException {
+        parser.parseGraph(new StringReader("digraph G { A -> B -> C; }"));
+        GraphParser replica = new GraphParser();
+        replica.parseGraph(new StringReader("digraph G { A -> B -> C; }"));
+
+        DotPatch patch = DotPatch.read(new StringReader("# comment\n- B -> C;\n+ C -> D -> E [weight=2];\n\n- A\n+ F;\n"));
+        GraphDelta delta = parser.applyPatch(patch);
+        assertEquals("+3 nodes, +2 edges, -1 nodes, -2 edges", delta.toString(), "The patch should report every change.");
+        assertFalse(parser.getGraph().containsVertex(new Node("A")), "A should be removed.");
+        assertEquals(2.0, parser.getGraph().getEdgeWeight(parser.getGraph().getEdge(new Node("D"), new Node("E"))),
+                "The weight should apply to every edge of the statement.");
+
+        java.io.StringWriter written = new java.io.StringWriter();
+        DotPatch.write(delta, written);
+        replica.applyPatch(DotPatch.read(new StringReader(written.toString())));
+        assertEquals(parser.toString(), replica.toString(), "Replaying the written delta should give the same graph.");
+
+        String before = parser.toString();
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.applyPatch(DotPatch.read(new StringReader("- C;\n- Z;\n+ G;\n"))),
+                "A patch that removes a missing node should fail.");
+        assertEquals(before, parser.toString(), "A failed patch should leave the graph unchanged.");
+        assertThrows(IOException.class, () -> DotPatch.read(new StringReader("A -> B;\n")),
+                "Lines without a sign should be rejected.");
+    }
+
+    // Test that a random walk returns the path it walked instead of just the destination
+    @Test
+    public void testRandomWalkReturnsWalkedPath() {
+        parser.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C")), new GraphDelta.Edge(new Node("C"), new Node("D"))));
+        assertEquals("A -> B -> C -> D", parser.graphSearch(new Node("A"), new Node("D"), GraphParser.Algorithm.RANDOM_WALK).toString(),
+                "A walk along a chain should return every node it visited.");
+        parser.setCompactBackend(true);
+        assertEquals("A -> B -> C -> D", parser.graphSearch(new Node("A"), new Node("D"), GraphParser.Algorithm.RANDOM_WALK).toString(),
+                "The compact backend should return the walked path as well.");
+        assertEquals("A", parser.graphSearch(new Node("D"), new Node("A"), GraphParser.Algorithm.RANDOM_WALK).toString(),
+                "A failed walk should return just the destination.");
+    }
+
+    // Test that Monte-Carlo walk statistics are reproducible for a seed and independent of the pool size
+    @Test
+    public void testRandomWalkEngineStatistics() {
+        // From S, half the walks step straight to T; the rest go to M and then on to T or to the dead end Y
+        parser.addEdges(List.of(new GraphDelta.Edge(new Node("S"), new Node("T")),
+                new GraphDelta.Edge(new Node("S"), new Node("M")), new GraphDelta.Edge(new Node("M"), new Node("T")),
+                new GraphDelta.Edge(new Node("M"), new Node("Y"))));
+        RandomWalkEngine engine = parser.getRandomWalkEngine(false);
+        RandomWalkEngine.Statistics statistics = engine.run(new Node("S"), new Node("T"), 100_000, 10, 42);
+
+        assertEquals(100_000, statistics.getWalks(), "Every walk should be counted.");
+        assertEquals(0.75, statistics.getHitProbability(), 0.01, "Three quarters of the walks should hit T.");
+        assertEquals(statistics.getWalks() - statistics.getHits(), statistics.getDeadEnds(), "The other walks should end at Y.");
+        assertEquals(1, statistics.getMinLength(), "The shortest walk should take one step.");
+        assertEquals(2, statistics.getMaxLength(), "The longest walk should take two steps.");
+        assertEquals(4.0 / 3, statistics.getMeanLength(), 0.02, "Hits take 1 step twice as often as 2 steps.");
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            RandomWalkEngine.Statistics first = new RandomWalkEngine(parser.getCompactGraph(), single, false)
+                    .run(new Node("S"), new Node("T"), 100_000, 10, 42);
+            RandomWalkEngine.Statistics second = new RandomWalkEngine(parser.getCompactGraph(), four, false)
+                    .run(new Node("S"), new Node("T"), 100_000, 10, 42);
+            assertEquals(statistics.toString(), first.toString(), "The same seed should give the same statistics.");
+            assertEquals(first.toString(), second.toString(), "The pool size should not change the statistics.");
+            assertEquals(first.getLengthStdDev(), second.getLengthStdDev(), "Even rounding should not depend on scheduling.");
+        } finally {
+            single.shutdown();
+            four.shutdown();
+        }
+
+        Path walked = parser.getRandomWalkEngine(true).walk(new Node("S"), new Node("T"), 10, 7);
+        assertEquals("S", walked.getNodes().get(0).getLabel(), "The walk should start at the source.");
+        assertEquals(walked.toString(), parser.getRandomWalkEngine(true).walk(new Node("S"), new Node("T"), 10, 7).toString(),
+                "A single seeded walk should be reproducible.");
+        assertEquals(0, engine.run(new Node("S"), new Node("T"), 1000, 0, 1).getHits(), "A zero step limit should truncate every walk.");
+    }
+
+    // Test that the traversal listener records per-algorithm metrics and that they can be exported
+    @Test
+    public void testTraversalMetrics(@TempDir java.nio.file.Path directory) throws Exception {
+        parser.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C")), new GraphDelta.Edge(new Node("A"), new Node("X"))));
+        TraversalMetrics metrics = new TraversalMetrics(2);
+        GraphTraversalTemplate.setListener(metrics);
+        try {
+            parser.graphSearch(new Node("A"), new Node("C"), GraphParser.Algorithm.BFS);
+            parser.graphSearch(new Node("C"), new Node("A"), GraphParser.Algorithm.BFS);
+            parser.graphSearch(new Node("A"), new Node("C"), GraphParser.Algorithm.DFS);
+        } finally {
+            GraphTraversalTemplate.setListener(null);
+        }
+        parser.graphSearch(new Node("A"), new Node("X"), GraphParser.Algorithm.BFS);
+
+        TraversalMetrics.AlgorithmMetrics bfs = metrics.getMetrics("BFS");
+        assertEquals(2, bfs.getCount(), "Searches after the listener was removed should not be recorded.");
+        assertEquals(1, bfs.getPathLength().getCount(), "Only the search that reached C should have a path length.");
+        assertEquals(2, bfs.getPathLength().getMax(), "A -> B -> C has two edges.");
+        assertEquals(4, bfs.getNodesVisited().getMax(), "The search from A should reach all four nodes.");
+        assertEquals(3, bfs.getEdgesScanned().getMax(), "The search from A should scan every edge once.");
+        assertEquals(2, bfs.getFrontierPeak().getMax(), "B and X should be queued together.");
+        assertEquals(1, metrics.getMetrics("DFS").getCount(), "DFS should be tracked separately.");
+        assertEquals(2, metrics.getSlowest().size(), "The slowest list should be capped.");
+        assertTrue(metrics.getSlowest().get(0).getLatencyNanos() >= metrics.getSlowest().get(1).getLatencyNanos(),
+                "The slowest search should come first.");
+
+        TraversalMetrics.Histogram histogram = new TraversalMetrics.Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(500, histogram.percentile(0.5), 500 / 8, "p50 should be within a bucket of the true value.");
+        assertEquals(990, histogram.percentile(0.99), 990 / 8, "p99 should be within a bucket of the true value.");
+        assertEquals(1000, histogram.percentile(1), "p100 should be the maximum.");
+
+        java.nio.file.Path file = directory.resolve("metrics.txt");
+        TraversalMetricsExporter.toFile(metrics, file, 1, java.util.concurrent.TimeUnit.HOURS).close();
+        assertTrue(Files.readString(file).contains("BFS count=2"), "Closing the exporter should write a final snapshot.");
+
+        javax.management.ObjectName name = TraversalMetricsExporter.registerMBean(metrics);
+        assertEquals(metrics.getReport(), java.lang.management.ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Report"),
+                "The report should be readable over JMX.");
+        java.lang.management.ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    }
+
+    // Load test: many virtual-thread clients share a few sources; answers must match direct searches and get coalesced
+    @Test
+    public void testSearchServiceUnderLoad() throws Exception {
+        ConcurrentGraphParser concurrent = new ConcurrentGraphParser();
+        Random random = new Random(3);
+        int nodeCount = 2000;
+        List<GraphDelta.Edge> edges = new ArrayList<>();
+        for (int i = 1; i < nodeCount; i++) {
+            edges.add(new GraphDelta.Edge(new Node("n" + random.nextInt(i)), new Node("n" + i)));
+            edges.add(new GraphDelta.Edge(new Node("n" + i), new Node("n" + random.nextInt(nodeCount))));
+        }
+        concurrent.addEdges(edges);
+        GraphParser snapshot = concurrent.latestSnapshot();
+
+        int clients = 64;
+        int requestsPerClient = 100;
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        TraversalLog.Level previous = TraversalLog.getLevel();
+        TraversalLog.setLevel(TraversalLog.Level.OFF);
+        SearchService service = new SearchService(concurrent);
+        try (java.util.concurrent.ExecutorService load = java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                load.execute(() -> {
+                    Random clientRandom = new Random(client);
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        Node source = new Node("n" + clientRandom.nextInt(8));
+                        Node destination = new Node("n" + clientRandom.nextInt(nodeCount));
+                        try {
+                            Path path = service.search(source, destination, GraphParser.Algorithm.BFS).get();
+                            assertEquals(snapshot.graphSearch(source, destination, GraphParser.Algorithm.BFS).toString(),
+                                    path.toString(), "A coalesced search should return the same path as a direct one.");
+                        } catch (Throwable t) {
+                            failures.add(t);
+                        }
+                    }
+                });
+            }
+        } finally {
+            service.close();
+            TraversalLog.setLevel(previous);
+        }
+
+        assertTrue(failures.isEmpty(), "Every request should be answered correctly: " + failures.peek());
+        assertEquals(clients * requestsPerClient, service.getSubmitted(), "Every request should be accepted.");
+        assertTrue(service.getTraversals() <= service.getSubmitted(), "No request should need more than one traversal.");
+
+        // With a lingering dispatcher, requests from one source submitted together share a traversal
+        SearchService lingering = new SearchService(concurrent, 1000, 1, 200, java.util.concurrent.TimeUnit.MILLISECONDS);
+        List<java.util.concurrent.CompletableFuture<Path>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(lingering.search(new Node("n0"), new Node("n" + i), GraphParser.Algorithm.BFS));
+        }
+        for (java.util.concurrent.CompletableFuture<Path> result : results) {
+            assertFalse(result.get().getNodes().isEmpty(), "Every coalesced request should get a path.");
+        }
+        lingering.close();
+        assertTrue(lingering.getTraversals() < 100, "Requests sharing a source should be coalesced: " + lingering);
+
+        // A small queue rejects the overflow instead of blocking the caller
+        SearchService bounded = new SearchService(concurrent, 4, 1, 0, java.util.concurrent.TimeUnit.NANOSECONDS);
+        List<java.util.concurrent.CompletableFuture<Path>> flood = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            flood.add(bounded.search(new Node("n" + i % nodeCount), new Node("n1"), GraphParser.Algorithm.DFS));
+        }
+        bounded.close();
+        assertTrue(bounded.getRejected() > 0, "A full queue should reject requests: " + bounded);
+        for (java.util.concurrent.CompletableFuture<Path> result : flood) {
+            assertTrue(result.isDone(), "Closing the service should settle every accepted request.");
+        }
+        assertThrows(java.util.concurrent.ExecutionException.class,
+                () -> bounded.search(new Node("n0"), new Node("n1"), GraphParser.Algorithm.BFS).get(),
+                "A closed service should reject new requests.");
+    }
+
+    // Test that a failure while dispatching or answering a batch fails only its requests, never the dispatcher
+    @Test
+    public void testSearchServiceSurvivesFailures() throws Exception {
+        java.util.concurrent.atomic.AtomicBoolean failNext = new java.util.concurrent.atomic.AtomicBoolean(true);
+        ConcurrentGraphParser concurrent = new ConcurrentGraphParser() {
+            @Override
+            public GraphParser snapshot() {
+                if (failNext.getAndSet(false)) {
+                    throw new IllegalStateException("snapshot unavailable");
+                }
+                return super.snapshot();
+            }
+        };
+        concurrent.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C"))));
+
+        try (SearchService service = new SearchService(concurrent, 100, 1, 0, java.util.concurrent.TimeUnit.NANOSECONDS)) {
+            java.util.concurrent.ExecutionException failure = assertThrows(java.util.concurrent.ExecutionException.class,
+                    () -> service.search(new Node("A"), new Node("C"), GraphParser.Algorithm.BFS).get(),
+                    "A batch without a snapshot should fail its requests.");
+            assertInstanceOf(IllegalStateException.class, failure.getCause(), "The snapshot failure should be reported.");
+            assertEquals("A -> B -> C", service.search(new Node("A"), new Node("C"), GraphParser.Algorithm.BFS).get().toString(),
+                    "The dispatcher should keep serving after a failed batch.");
+
+            // A coalesced group with a missing destination still answers its other requests
+            SearchService lingering = new SearchService(concurrent, 100, 1, 100, java.util.concurrent.TimeUnit.MILLISECONDS);
+            java.util.concurrent.CompletableFuture<Path> good = lingering.search(new Node("A"), new Node("C"), GraphParser.Algorithm.BFS);
+            java.util.concurrent.CompletableFuture<Path> missing = lingering.search(new Node("A"), new Node("Z"), GraphParser.Algorithm.BFS);
+            assertEquals("A -> B -> C", good.get().toString(), "Valid requests in a failed group should be answered.");
+            assertThrows(java.util.concurrent.ExecutionException.class, missing::get, "Only the request for the missing node should fail.");
+            lingering.close();
+        }
+    }
+
+    // Test that async renders honour the format, cache by graph version and render neighbourhoods in parallel
+    @Test
+    public void testGraphRenderer(@TempDir java.nio.file.Path directory) throws Exception {
+        parser.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("B"), new Node("C")), new GraphDelta.Edge(new Node("C"), new Node("D"))));
+        try (GraphRenderer renderer = new GraphRenderer(parser)) {
+            String dot = new String(renderer.render("dot").get());
+            assertTrue(dot.contains("\"A\" -> \"B\"") && dot.contains("\"C\" -> \"D\""), "DOT output should be the graph's DOT text.");
+            String svg = new String(renderer.render("SVG").get());
+            assertTrue(svg.contains("<svg"), "SVG output should be an SVG document.");
+
+            long renders = renderer.getRenders();
+            assertEquals(svg, new String(renderer.render("svg").get()), "A cached render should return the same image.");
+            assertEquals(renders, renderer.getRenders(), "An unchanged view should not be rendered again.");
+            assertEquals(1, renderer.getCacheHits(), "The repeated render should be a cache hit.");
+
+            parser.addEdge(new Node("D"), new Node("A"));
+            assertTrue(new String(renderer.render("dot").get()).contains("\"D\" -> \"A\""), "A new graph version should be re-rendered.");
+
+            Map<Node, java.util.concurrent.CompletableFuture<byte[]>> views =
+                    renderer.renderNeighbourhoods(List.of(new Node("A"), new Node("C")), 1, "dot");
+            String aView = new String(views.get(new Node("A")).get());
+            assertTrue(aView.contains("\"A\" -> \"B\"") && aView.contains("\"D\" -> \"A\"") && !aView.contains("\"B\" -> \"C\""),
+                    "A 1-hop neighbourhood should hold the edges among A and its neighbours in both directions.");
+            String subgraph = new String(renderer.renderSubgraph(List.of(new Node("B"), new Node("C")), "dot").get());
+            assertTrue(subgraph.contains("\"B\" -> \"C\"") && !subgraph.contains("\"A\""), "A subgraph should hold only its own nodes.");
+            parser.addNode(new Node("B, C"));
+            parser.addNode(new Node("Ж"));
+            renderer.renderSubgraph(List.of(new Node("B"), new Node("C")), "dot").get();
+            String oddLabel = new String(renderer.renderSubgraph(List.of(new Node("B, C")), "dot").get(), StandardCharsets.UTF_8);
+            assertFalse(oddLabel.contains("->"), "A label that looks like a list of labels must not hit another subgraph's cache entry.");
+            assertTrue(new String(renderer.render("dot").get(), StandardCharsets.UTF_8).contains("Ж"), "DOT output should be UTF-8.");
+
+            java.util.concurrent.ExecutionException failure = assertThrows(java.util.concurrent.ExecutionException.class,
+                    () -> renderer.renderToFile(directory.resolve("missing/graph.svg").toString(), "svg").get(),
+                    "Writing into a missing directory should fail the future.");
+            assertTrue(failure.getCause() instanceof java.io.UncheckedIOException, "The cause should be the I/O error.");
+            assertThrows(IllegalArgumentException.class, () -> renderer.render("gif"), "Unknown formats should be rejected.");
+        }
+
+        java.nio.file.Path svgFile = directory.resolve("graph.svg");
+        parser.outputGraphics(svgFile.toString(), "svg");
+        assertTrue(Files.readString(svgFile).contains("<svg"), "outputGraphics should honour the requested format.");
+
+        // Labels that are not bare DOT IDs must be quoted for Graphviz
+        GraphParser awkward = new GraphParser();
+        awkward.parseGraph(new StringReader("digraph G { \"long name\" -> \"a-b\"; \"a-b\" -> \"say \\\"hi\\\"\"; }"));
+        assertTrue(awkward.getGraph().containsVertex(new Node("say \"hi\"")), "The quoted label should be unescaped when parsed.");
+        java.nio.file.Path awkwardSvg = directory.resolve("awkward.svg");
+        awkward.outputGraphics(awkwardSvg.toString(), "svg");
+        String rendered = Files.readString(awkwardSvg);
+        assertTrue(rendered.contains("long name") && rendered.contains("a&#45;b") && rendered.contains("say &quot;hi&quot;"),
+                "Every label should survive rendering: " + rendered);
+    }
+
+    // Test lazy BFS/DFS iteration: visit order, depth limits, pruning and work proportional to what is consumed
+    @Test
+    public void testLazyTraversalStreams() {
+        // A -> B -> D, A -> C -> D, C -> E, plus a long chain hanging off E
+        parser.addEdges(List.of(new GraphDelta.Edge(new Node("A"), new Node("B")),
+                new GraphDelta.Edge(new Node("A"), new Node("C")), new GraphDelta.Edge(new Node("B"), new Node("D")),
+                new GraphDelta.Edge(new Node("C"), new Node("D")), new GraphDelta.Edge(new Node("C"), new Node("E"))));
+        List<GraphDelta.Edge> chain = new ArrayList<>();
+        chain.add(new GraphDelta.Edge(new Node("E"), new Node("x0")));
+        for (int i = 1; i < 10_000; i++) {
+            chain.add(new GraphDelta.Edge(new Node("x" + (i - 1)), new Node("x" + i)));
+        }
+        parser.addEdges(chain);
+
+        assertEquals(List.of("A", "B", "C", "D", "E", "x0"), labels(parser.traversalStream(new Node("A"), GraphParser.Algorithm.BFS, 3)),
+                "BFS should visit level by level in edge order, stopping at the depth limit.");
+        assertEquals(List.of("A", "B", "D", "C", "E", "x0"), labels(parser.traversalStream(new Node("A"), GraphParser.Algorithm.DFS, 3)),
+                "DFS should visit in preorder.");
+
+        TraversalIterator bfs = parser.traversalIterator(new Node("A"), GraphParser.Algorithm.BFS, Integer.MAX_VALUE);
+        List<Integer> depths = new ArrayList<>();
+        while (bfs.hasNext()) {
+            Node node = bfs.next();
+            depths.add(bfs.depth());
+            if (node.getLabel().equals("C")) {
+                bfs.skipChildren();
+            }
+            if (depths.size() == 4) {
+                break;
+            }
+        }
+        assertEquals(List.of(0, 1, 1, 2), depths, "Depths should be shortest distances.");
+        assertEquals("A -> B -> D", bfs.pathTo(new Node("D")).toString(), "pathTo should follow the BFS tree.");
+        assertFalse(bfs.hasNext(), "Skipping C's children should prune E and the chain.");
+
+        TraversalIterator lazy = parser.traversalIterator(new Node("E"), GraphParser.Algorithm.DFS, Integer.MAX_VALUE);
+        List<String> firstChain = lazy.stream().filter(node -> node.getLabel().startsWith("x")).limit(5)
+                .map(Node::getLabel).collect(java.util.stream.Collectors.toList());
+        assertEquals(List.of("x0", "x1", "x2", "x3", "x4"), firstChain, "The stream should yield the first matches in order.");
+        assertTrue(lazy.discoveredCount() <= 7, "Only the consumed prefix of the chain should be explored: " + lazy.discoveredCount());
+
+        assertEquals(parser.graphSearch(new Node("A"), new Node("x5"), GraphParser.Algorithm.BFS).toString(),
+                new LazyBFS().traverse(parser.getGraph(), new Node("A"), new Node("x5")).toString(),
+                "The strategy's traverse should return the BFS shortest path.");
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.traversalIterator(new Node("missing"), GraphParser.Algorithm.BFS, 1), "A missing source should be rejected.");
+        assertThrows(IllegalStateException.class, () -> {
+            TraversalIterator nodes = parser.traversalIterator(new Node("A"), GraphParser.Algorithm.DFS, 1);
+            nodes.next();
+            nodes.hasNext();
+            nodes.skipChildren();
+        }, "skipChildren after hasNext is too late.");
+    }
+
+    // Test that an off-heap graph answers BFS/DFS like the heap graph, round-trips as a snapshot and copies in on mutation
+    @Test
+    public void testOffHeapGraph(@TempDir java.nio.file.Path tempDir) throws IOException {
+        Random random = new Random(23);
+        StringBuilder dot = new StringBuilder("digraph G {\n    \"Ñ\";\n");
+        for (int i = 0; i < 3_000; i++) {
+            dot.append("    n").append(random.nextInt(500)).append(" -> n").append(random.nextInt(500));
+            dot.append(i % 7 == 0 ? " [weight=" + (1 + random.nextInt(9)) + "];\n" : ";\n");
+        }
+        dot.append("    n0 -> n0;\n    n1 -> \"Ñ\";\n}\n");
+        java.nio.file.Path dotFile = tempDir.resolve("graph.dot");
+        Files.write(dotFile, dot.toString().getBytes(StandardCharsets.UTF_8));
+        parser.parseGraph(dotFile.toString());
+
+        OffHeapGraph offHeap = OffHeapGraph.load(dotFile.toString());
+        assertEquals(parser.getGraph().vertexSet().size(), offHeap.vertexCount(), "Vertex counts should match.");
+        assertEquals(parser.getGraph().edgeSet().size(), offHeap.edgeCount(), "Repeated edges should be dropped.");
+        assertEquals("Ñ", offHeap.label(offHeap.idOf("Ñ")), "Labels should round-trip through UTF-8.");
+        assertEquals(-1, offHeap.idOf("missing"), "Unknown labels should have no id.");
+
+        java.nio.file.Path snapshot = tempDir.resolve("graph.snap");
+        offHeap.save(snapshot.toString());
+        java.nio.file.Path scratch = Files.createDirectory(tempDir.resolve("scratch"));
+        GraphParser fileBacked = new GraphParser();
+        fileBacked.loadOffHeap(OffHeapGraph.open(snapshot.toString(), scratch));
+        GraphParser direct = new GraphParser();
+        direct.loadOffHeap(dotFile.toString());
+        for (int i = 0; i < 50; i++) {
+            Node source = new Node("n" + random.nextInt(500));
+            Node destination = new Node("n" + random.nextInt(500));
+            if (!parser.getGraph().containsVertex(source) || !parser.getGraph().containsVertex(destination)) {
+                continue;
+            }
+            for (GraphParser.Algorithm algo : List.of(GraphParser.Algorithm.BFS, GraphParser.Algorithm.DFS)) {
+                String expected = parser.graphSearch(source, destination, algo).toString();
+                assertEquals(expected, direct.graphSearch(source, destination, algo).toString(), algo + " should match on the direct-memory graph.");
+                assertEquals(expected, fileBacked.graphSearch(source, destination, algo).toString(), algo + " should match on the mapped graph.");
+            }
+        }
+        assertNotNull(direct.getOffHeapGraph(), "Searches should not copy the graph onto the heap.");
+
+        GraphParser loaded = new GraphParser();
+        loaded.loadSnapshot(snapshot.toString());
+        java.nio.file.Path expected = tempDir.resolve("expected.dot");
+        java.nio.file.Path actual = tempDir.resolve("actual.dot");
+        parser.outputDOTGraph(expected.toString());
+        loaded.outputDOTGraph(actual.toString());
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual), "A saved off-heap graph should be a valid snapshot.");
+
+        direct.addEdge(new Node("Ñ"), new Node("n0"));
+        assertNull(direct.getOffHeapGraph(), "A mutation should copy the graph onto the heap.");
+        assertEquals("Ñ -> n0", direct.graphSearch(new Node("Ñ"), new Node("n0"), GraphParser.Algorithm.BFS).toString(),
+                "The copied graph should include the new edge.");
+        assertThrows(IllegalArgumentException.class,
+                () -> fileBacked.graphSearch(new Node("missing"), new Node("n0"), GraphParser.Algorithm.BFS), "Missing nodes should be rejected.");
+        assertThrows(IOException.class, () -> OffHeapGraph.open(dotFile.toString()), "A DOT file is not a snapshot.");
+    }
+
+    // Test that BFS over worker processes returns the single-process path and that the shards split the graph
+    @Test
+    public void testShardedGraph(@TempDir java.nio.file.Path tempDir) throws IOException {
+        Random random = new Random(24);
+        StringBuilder dot = new StringBuilder("digraph G {\n    isolated;\n");
+        for (int i = 0; i < 1_500; i++) {
+            dot.append("    n").append(random.nextInt(400)).append(" -> n").append(random.nextInt(400)).append(";\n");
+        }
+        dot.append("    n1 -> n1;\n    n1 -> n2;\n    n1 -> n2;\n}\n");
+        java.nio.file.Path dotFile = tempDir.resolve("graph.dot");
+        Files.write(dotFile, dot.toString().getBytes(StandardCharsets.UTF_8));
+        parser.parseGraph(dotFile.toString());
+
+        try (ShardedGraph sharded = ShardedGraph.launch(3, "-Xmx64m")) {
+            sharded.parseGraph(dotFile.toString());
+            List<ShardedGraph.ShardStats> stats = sharded.shardStats();
+            assertEquals(3, stats.size(), "Every shard should report.");
+            assertEquals(parser.getGraph().vertexSet().size(), stats.stream().mapToInt(ShardedGraph.ShardStats::getVertices).sum(),
+                    "Each vertex should live on exactly one shard.");
+            assertEquals(parser.getGraph().edgeSet().size(), stats.stream().mapToLong(ShardedGraph.ShardStats::getEdges).sum(),
+                    "Each edge should live on its source's shard, without repeats.");
+            assertTrue(stats.stream().allMatch(shard -> shard.getBoundaryEdges() > 0 && shard.getBoundaryEdges() <= shard.getEdges()),
+                    "Hash partitioning should leave boundary edges on every shard.");
+
+            List<Node> vertices = new ArrayList<>(parser.getGraph().vertexSet());
+            for (int i = 0; i < 40; i++) {
+                Node source = vertices.get(random.nextInt(vertices.size()));
+                Node destination = i == 0 ? new Node("isolated") : i == 1 ? source : vertices.get(random.nextInt(vertices.size()));
+                assertEquals(parser.graphSearch(source, destination, GraphParser.Algorithm.BFS).toString(),
+                        sharded.graphSearch(source, destination, GraphParser.Algorithm.BFS).toString(),
+                        "Sharded BFS from " + source + " to " + destination + " should return the same path.");
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> sharded.graphSearch(new Node("missing"), new Node("n1"), GraphParser.Algorithm.BFS), "Missing nodes should be rejected.");
+            assertThrows(IllegalArgumentException.class,
+                    () -> sharded.graphSearch(new Node("n1"), new Node("n2"), GraphParser.Algorithm.DFS), "Only BFS is distributed.");
+        }
+    }
+
+    private static List<String> labels(java.util.stream.Stream<Node> nodes) {
+        return nodes.map(Node::getLabel).collect(java.util.stream.Collectors.toList());
+    }
 }